@@ -0,0 +1,62 @@
+package geneticovm.genetic;
+
+import geneticovm.genetic.EnergyAwareGeneticAlgorithm.AllocationSolution;
+import org.cloudsimplus.hosts.Host;
+import org.cloudsimplus.vms.Vm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Execução completa de {@link EnergyAwareGeneticAlgorithm#run()} com semente fixa.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class GeneticAlgorithmRunBenchmark {
+    private static final long SEED = 42L;
+    private static final int GENERATIONS = 10;
+
+    @Param({"100", "1000", "10000", "50000"})
+    int vmCount;
+
+    @Param({"10", "100", "1000"})
+    int hostCount;
+
+    @Param({"50", "200"})
+    int populationSize;
+
+    private List<Vm> vms;
+    private List<Host> hosts;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ScenarioGenerator generator = new ScenarioGenerator(SEED);
+        vms = generator.createVms(vmCount);
+        hosts = generator.createHosts(hostCount);
+    }
+
+    @Benchmark
+    public AllocationSolution run() {
+        EnergyAwareGeneticAlgorithm ga = new EnergyAwareGeneticAlgorithm(vms, hosts,
+            populationSize, GENERATIONS, 0.8, 0.1, 3, SEED);
+        // Sem listeners nem gravação JFR, nenhuma estatística de geração é coletada
+        ga.setConsoleOutput(false);
+        return ga.run();
+    }
+}
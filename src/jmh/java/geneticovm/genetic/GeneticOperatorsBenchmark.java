@@ -0,0 +1,114 @@
+package geneticovm.genetic;
+
+import geneticovm.genetic.EnergyAwareGeneticAlgorithm.AllocationSolution;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo por chamada dos operadores do algoritmo genético sobre uma população já avaliada.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GeneticOperatorsBenchmark {
+    private static final long SEED = 42L;
+
+    @Param({"100", "1000", "10000", "50000"})
+    int vmCount;
+
+    @Param({"10", "100", "1000"})
+    int hostCount;
+
+    @Param({"50", "200"})
+    int populationSize;
+
+    private EnergyAwareGeneticAlgorithm ga;
+    private List<AllocationSolution> population;
+    private List<AllocationSolution> next;
+    private AllocationSolution parent1;
+    private AllocationSolution parent2;
+    private AllocationSolution child;
+    private AllocationSolution elite;
+    private AllocationSolution mutant;
+    private SplittableRandom rng;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ScenarioGenerator generator = new ScenarioGenerator(SEED);
+        ga = new EnergyAwareGeneticAlgorithm(generator.createVms(vmCount), generator.createHosts(hostCount),
+            populationSize, 1, 0.8, 0.1, 3, SEED);
+        rng = new SplittableRandom(SEED);
+
+        population = ga.initializePopulation(rng);
+        for (AllocationSolution individual : population) {
+            individual.setFitness(ga.evaluateFitness(individual));
+        }
+        parent1 = population.get(0);
+        parent2 = population.get(1 % population.size());
+        child = new AllocationSolution(parent1);
+        elite = new AllocationSolution(parent1);
+        mutant = new AllocationSolution(parent1);
+        mutant.setFitness(ga.evaluateFitness(mutant));
+        // Os pais dos demais benchmarks não podem ser sobrescritos pelas gerações
+        population = new ArrayList<>(population);
+        for (int i = 0; i < population.size(); i++) {
+            population.set(i, new AllocationSolution(population.get(i)));
+        }
+        next = ga.newPopulationBuffer();
+    }
+
+    @Benchmark
+    public double evaluateFitness() {
+        return ga.evaluateFitness(parent1);
+    }
+
+    @Benchmark
+    public double calculateCommunicationCost() {
+        return ga.calculateCommunicationCost(parent1);
+    }
+
+    @Benchmark
+    public AllocationSolution uniformCrossover() {
+        ga.uniformCrossover(parent1, parent2, child, rng);
+        return child;
+    }
+
+    @Benchmark
+    public double mutate() {
+        ga.mutate(mutant, rng);
+        return mutant.getFitness();
+    }
+
+    @Benchmark
+    public int tournamentSelection() {
+        return ga.tournamentSelection(population, rng);
+    }
+
+    /** Uma geração completa sobre os buffers alternados; com -prof gc, deve alocar perto de zero. */
+    @Benchmark
+    public List<AllocationSolution> nextGeneration() {
+        ga.nextGeneration(population, elite, next, rng);
+        List<AllocationSolution> previous = population;
+        population = next;
+        next = previous;
+        return population;
+    }
+}
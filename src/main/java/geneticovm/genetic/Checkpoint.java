@@ -0,0 +1,270 @@
+package geneticovm.genetic;
+
+import geneticovm.genetic.EnergyAwareGeneticAlgorithm.AllocationSolution;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Arquivo de checkpoint de uma execução do algoritmo genético, com layout fixo e mapeado
+ * em memória ({@link MappedByteBuffer}): gravar um checkpoint é copiar os genomas e
+ * fitness para o mapeamento, sem serialização nem chamadas de escrita.
+ *
+ * <p>Depois de um cabeçalho de {@value #HEADER_BYTES} bytes vêm dois slots de mesmo
+ * tamanho, gravados alternadamente. Cada slot guarda geração, estado do gerador aleatório,
+ * estado do critério de estagnação, taxas de reparo, o fitness e o genoma de cada
+ * indivíduo e o melhor indivíduo. O slot novo é gravado e descarregado em disco antes de o
+ * cabeçalho passar a apontar para ele, então uma queda no meio de uma gravação deixa o
+ * checkpoint anterior intacto. Todos os valores são little-endian.
+ *
+ * <pre>
+ * cabeçalho: magic, versão, slot ativo (-1 = nenhum), VMs, hosts, população,
+ *            máximo de gerações, reservado (int), impressão digital da configuração (long)
+ * slot:      geração, última melhora (int), estado do gerador, divisões do gerador dos
+ *            workers (long), melhor fitness, fitness de referência (double),
+ *            taxas de reparo [gerações], fitness [população] (double),
+ *            melhor genoma [VMs], genomas [população × VMs] (int)
+ * </pre>
+ */
+final class Checkpoint implements Closeable {
+    /** "GVCK" em ASCII. */
+    static final int MAGIC = 0x4756434B;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 40;
+    static final int SLOT_HEADER_BYTES = 40;
+
+    private static final int ACTIVE_SLOT = 8;
+    private static final int FINGERPRINT = 32;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    private final MappedByteBuffer[] slots = new MappedByteBuffer[2];
+    private final int vmCount;
+    private final int populationSize;
+    private final int maxGenerations;
+
+    private Checkpoint(FileChannel channel, FileChannel.MapMode mode,
+                       int vmCount, int populationSize, int maxGenerations) throws IOException {
+        this.channel = channel;
+        this.vmCount = vmCount;
+        this.populationSize = populationSize;
+        this.maxGenerations = maxGenerations;
+        long slotBytes = slotBytes(vmCount, populationSize, maxGenerations);
+        if (slotBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(String.format(
+                "Checkpoint de %d VMs e população %d excede o tamanho máximo de um mapeamento",
+                vmCount, populationSize));
+        }
+        this.header = channel.map(mode, 0, HEADER_BYTES);
+        header.order(ByteOrder.LITTLE_ENDIAN);
+        for (int s = 0; s < slots.length; s++) {
+            slots[s] = channel.map(mode, HEADER_BYTES + s * slotBytes, slotBytes);
+            slots[s].order(ByteOrder.LITTLE_ENDIAN);
+        }
+    }
+
+    private static long slotBytes(int vmCount, int populationSize, int maxGenerations) {
+        return SLOT_HEADER_BYTES + 8L * ((long) maxGenerations + populationSize)
+            + 4L * vmCount * (populationSize + 1L);
+    }
+
+    /**
+     * Abre (criando, se preciso) um arquivo para gravar checkpoints de uma execução com a
+     * configuração informada. Um checkpoint já existente da mesma configuração continua
+     * válido até ser substituído pelo próximo; qualquer outro conteúdo é descartado.
+     */
+    static Checkpoint create(Path file, long fingerprint, int vmCount, int hostCount,
+                             int populationSize, int maxGenerations) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+            StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long size = HEADER_BYTES + 2 * slotBytes(vmCount, populationSize, maxGenerations);
+            if (channel.size() > size) {
+                channel.truncate(size);
+            }
+            Checkpoint checkpoint = new Checkpoint(channel, FileChannel.MapMode.READ_WRITE,
+                vmCount, populationSize, maxGenerations);
+            MappedByteBuffer header = checkpoint.header;
+            boolean compatible = header.getInt(0) == MAGIC && header.getInt(4) == VERSION
+                && header.getInt(12) == vmCount && header.getInt(16) == hostCount
+                && header.getInt(20) == populationSize && header.getInt(24) == maxGenerations
+                && header.getLong(FINGERPRINT) == fingerprint;
+            if (!compatible) {
+                header.putInt(0, MAGIC).putInt(4, VERSION).putInt(ACTIVE_SLOT, -1)
+                    .putInt(12, vmCount).putInt(16, hostCount).putInt(20, populationSize)
+                    .putInt(24, maxGenerations).putInt(28, 0).putLong(FINGERPRINT, fingerprint);
+                header.force();
+            }
+            return checkpoint;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /** Abre um checkpoint gravado, somente para leitura. */
+    static Checkpoint load(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size < HEADER_BYTES) {
+                throw new IOException(file + " não é um checkpoint");
+            }
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+            header.order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt(0) != MAGIC) {
+                throw new IOException(file + " não é um checkpoint");
+            }
+            if (header.getInt(4) != VERSION) {
+                throw new IOException(file + ": versão " + header.getInt(4) + " não suportada");
+            }
+            int vmCount = header.getInt(12);
+            int hostCount = header.getInt(16);
+            int populationSize = header.getInt(20);
+            int maxGenerations = header.getInt(24);
+            long expected = HEADER_BYTES + 2 * slotBytes(vmCount, populationSize, maxGenerations);
+            if (size != expected) {
+                throw new IOException(String.format("%s: esperados %d bytes, encontrados %d", file, expected, size));
+            }
+            int active = header.getInt(ACTIVE_SLOT);
+            if (active != 0 && active != 1) {
+                throw new IOException(file + " ainda não contém nenhum checkpoint completo");
+            }
+            return new Checkpoint(channel, FileChannel.MapMode.READ_ONLY,
+                vmCount, populationSize, maxGenerations);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Grava o estado ao fim de {@code generation} gerações no slot inativo, descarrega-o em
+     * disco e só então o torna o slot ativo.
+     */
+    void write(int generation, long randomState, long workerSplits, TerminationMonitor monitor,
+               double[] repairRates, List<AllocationSolution> population, AllocationSolution best) {
+        int target = header.getInt(ACTIVE_SLOT) == 0 ? 1 : 0;
+        MappedByteBuffer slot = slots[target];
+        slot.putInt(0, generation)
+            .putInt(4, monitor.lastImprovement())
+            .putLong(8, randomState)
+            .putLong(16, workerSplits)
+            .putDouble(24, best.getFitness())
+            .putDouble(32, monitor.referenceFitness());
+
+        DoubleBuffer doubles = doubles(slot);
+        doubles.put(repairRates, 0, Math.min(generation, maxGenerations));
+        doubles.position(maxGenerations);
+        for (AllocationSolution individual : population) {
+            doubles.put(individual.getFitness());
+        }
+        IntBuffer ints = genomes(slot);
+        ints.put(best.genes());
+        for (AllocationSolution individual : population) {
+            ints.put(individual.genes());
+        }
+        slot.force();
+
+        header.putInt(ACTIVE_SLOT, target);
+        header.force();
+    }
+
+    /**
+     * Recria no buffer {@code population} e em {@code best} (soluções vazias do layout da
+     * execução) os indivíduos do slot ativo, com os fitness gravados, e copia as taxas de
+     * reparo para {@code repairRates}. Devolve o número de gerações já executadas.
+     */
+    int restore(List<AllocationSolution> population, AllocationSolution best, double[] repairRates) {
+        MappedByteBuffer slot = activeSlot();
+        int generation = slot.getInt(0);
+        DoubleBuffer doubles = doubles(slot);
+        doubles.get(repairRates, 0, Math.min(generation, maxGenerations));
+        doubles.position(maxGenerations);
+        double[] fitness = new double[populationSize];
+        doubles.get(fitness);
+
+        IntBuffer ints = genomes(slot);
+        int[] genes = new int[vmCount];
+        ints.get(genes);
+        assignAll(best, genes, slot.getDouble(24));
+        for (int i = 0; i < populationSize; i++) {
+            ints.get(genes);
+            assignAll(population.get(i), genes, fitness[i]);
+        }
+        return generation;
+    }
+
+    private static void assignAll(AllocationSolution solution, int[] genes, double fitness) {
+        solution.clear();
+        for (int vm = 0; vm < genes.length; vm++) {
+            if (genes[vm] != AllocationSolution.UNASSIGNED) {
+                solution.assign(vm, genes[vm]);
+            }
+        }
+        solution.setFitness(fitness);
+    }
+
+    private DoubleBuffer doubles(MappedByteBuffer slot) {
+        return slot.slice(SLOT_HEADER_BYTES, 8 * (maxGenerations + populationSize))
+            .order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+    }
+
+    private IntBuffer genomes(MappedByteBuffer slot) {
+        int offset = SLOT_HEADER_BYTES + 8 * (maxGenerations + populationSize);
+        return slot.slice(offset, slot.capacity() - offset).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+    }
+
+    private MappedByteBuffer activeSlot() {
+        return slots[header.getInt(ACTIVE_SLOT)];
+    }
+
+    long fingerprint() {
+        return header.getLong(FINGERPRINT);
+    }
+
+    int vmCount() {
+        return vmCount;
+    }
+
+    int hostCount() {
+        return header.getInt(16);
+    }
+
+    int populationSize() {
+        return populationSize;
+    }
+
+    int maxGenerations() {
+        return maxGenerations;
+    }
+
+    int lastImprovement() {
+        return activeSlot().getInt(4);
+    }
+
+    long randomState() {
+        return activeSlot().getLong(8);
+    }
+
+    long workerSplits() {
+        return activeSlot().getLong(16);
+    }
+
+    double referenceFitness() {
+        return activeSlot().getDouble(32);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -9,12 +9,17 @@ import org.cloudsimplus.datacenters.Datacenter;
 import org.cloudsimplus.datacenters.DatacenterSimple;
 import org.cloudsimplus.hosts.Host;
 import org.cloudsimplus.hosts.HostSimple;
+import org.cloudsimplus.power.PowerMeasurement;
+import org.cloudsimplus.power.PowerMeter;
+import org.cloudsimplus.power.models.PowerModelHostSimple;
 import org.cloudsimplus.resources.Pe;
 import org.cloudsimplus.resources.PeSimple;
 import org.cloudsimplus.vms.Vm;
 import org.cloudsimplus.vms.VmSimple;
 import org.cloudsimplus.utilizationmodels.UtilizationModelFull;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -22,23 +27,63 @@ import java.util.Map;
 
 public class CloudSimSimulation {
     
-    public static void main(String[] args) {
+    /**
+     * Sem argumentos, executa o cenário fixo de 3 hosts, 4 VMs e 5 cloudlets. Com
+     * {@code <hosts> <vms> <cloudlets> [semente]}, gera um cenário sintético com o
+     * {@link ScenarioGenerator}. Com {@code <cenário.json|cenário.bin> [cloudlets] [alocação.json]},
+     * importa hosts e VMs com o {@link ScenarioIO} e, se informado, exporta a alocação do AG.
+     * Com qualquer outra combinação, mostra o uso e termina.
+     */
+    public static void main(String[] args) throws IOException {
+        if (!supportedArguments(args)) {
+            System.out.println("Uso: CloudSimSimulation [<hosts> <vms> <cloudlets> [semente]]\n"
+                + "     CloudSimSimulation <cenário.json|cenário.bin> [cloudlets] [alocação.json]");
+            return;
+        }
         System.out.println("=== Simulação CloudSim com Algoritmo Genético ===\n");
         
         System.setProperty("org.slf4j.simpleLogger.log.org.cloudsimplus", "warn");
         
         CloudSimPlus cloudsim = new CloudSimPlus();
         
-        List<Host> hosts = createHosts();
+        ScenarioIO.Scenario imported = null;
+        Path placementFile = null;
+        if (args.length >= 1 && (args[0].endsWith(".json") || args[0].endsWith(".bin"))) {
+            Path scenarioFile = Path.of(args[0]);
+            imported = args[0].endsWith(".json") ? ScenarioIO.readJson(scenarioFile) : ScenarioIO.readBinary(scenarioFile);
+            placementFile = args.length >= 3 ? Path.of(args[2]) : null;
+            System.out.println("Cenário importado de " + scenarioFile);
+        }
+        
+        ScenarioGenerator generator = null;
+        if (imported != null) {
+            // Só os cloudlets são sintéticos
+            generator = new ScenarioGenerator(42L);
+        } else if (args.length >= 3) {
+            long scenarioSeed = args.length >= 4 ? Long.parseLong(args[3]) : 42L;
+            generator = new ScenarioGenerator(scenarioSeed);
+            System.out.println("Cenário sintético gerado com semente " + scenarioSeed);
+        }
+        
+        List<Host> hosts = imported != null ? imported.hosts()
+            : generator != null ? generator.createHosts(Integer.parseInt(args[0])) : createHosts();
         System.out.println("Criados " + hosts.size() + " servidores (hosts)");
         
-        Datacenter datacenter = createDatacenter(cloudsim, hosts);
+        GeneticVmAllocationPolicy allocationPolicy =
+            new GeneticVmAllocationPolicy(GeneticVmAllocationPolicy.Fallback.BEST_FIT);
+        Datacenter datacenter = createDatacenter(cloudsim, hosts, allocationPolicy);
         System.out.println("Datacenter criado com " + hosts.size() + " hosts\n");
         
-        List<Vm> vms = createVMs();
+        // Mede a potência do datacenter durante a simulação
+        PowerMeter powerMeter = new PowerMeter(cloudsim, datacenter);
+        
+        List<Vm> vms = imported != null ? imported.vms()
+            : generator != null ? generator.createVms(Integer.parseInt(args[1])) : createVMs();
         System.out.println("Criadas " + vms.size() + " máquinas virtuais (VMs)");
         
-        List<Cloudlet> cloudlets = createCloudlets();
+        List<Cloudlet> cloudlets = imported != null
+            ? generator.createCloudlets(args.length >= 2 ? Integer.parseInt(args[1]) : vms.size())
+            : generator != null ? generator.createCloudlets(Integer.parseInt(args[2])) : createCloudlets();
         System.out.println("Criadas " + cloudlets.size() + " tarefas (Cloudlets)\n");
         
         System.out.println("=== ALGORITMO GENÉTICO PARA ALOCAÇÃO DE VMs ===\n");
@@ -51,24 +96,62 @@ public class CloudSimSimulation {
             3,
             System.currentTimeMillis()
         );
+        // 20% da população inicial vem das heurísticas FFD, BFD e power-aware best fit
+        ga.setSeeding(0.2);
+        // Energia pelo modelo de potência de cada host, e não só pelo número de hosts ativos
+        ga.setEnergyObjective(EnergyAwareGeneticAlgorithm.EnergyObjective.POWER_MODEL);
         
         EnergyAwareGeneticAlgorithm.AllocationSolution bestSolution = ga.run();
+        if (placementFile != null) {
+            ScenarioIO.writePlacementJson(placementFile, bestSolution);
+            System.out.println("Alocação exportada para " + placementFile + "\n");
+        }
         
         DatacenterBroker broker = new DatacenterBrokerSimple(cloudsim);
+        // VMs que não couberem em nenhum host não são reenviadas indefinidamente
+        broker.getVmCreation().setRetryDelay(-1);
         broker.submitVmList(vms);
         broker.submitCloudletList(cloudlets);
         
-        applyGeneticAllocation(broker, bestSolution, vms, hosts);
+        applyGeneticAllocation(allocationPolicy, bestSolution, vms, hosts);
         System.out.println("Alocação genética aplicada ao broker\n");
         
         System.out.println("Executando simulação...");
         cloudsim.start();
         
-        showResults(broker, cloudlets, vms, bestSolution, hosts);
+        showResults(broker, cloudlets, vms, bestSolution, hosts, allocationPolicy, ga, powerMeter);
         
         System.out.println("\nSimulação concluída!");
     }
     
+    /** Nenhum argumento, um cenário importado com até dois argumentos ou 3 a 4 números. */
+    private static boolean supportedArguments(String[] args) {
+        if (args.length == 0) {
+            return true;
+        }
+        if (args[0].endsWith(".json") || args[0].endsWith(".bin")) {
+            return args.length <= 3 && (args.length < 2 || isNumber(args[1]));
+        }
+        if (args.length < 3 || args.length > 4) {
+            return false;
+        }
+        for (String arg : args) {
+            if (!isNumber(arg)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isNumber(String arg) {
+        try {
+            Long.parseLong(arg);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+    
     private static List<Host> createHosts() {
         List<Host> hosts = new ArrayList<>();
         
@@ -80,6 +163,7 @@ public class CloudSimSimulation {
         pes1.add(new PeSimple(1000));
         
         Host host1 = new HostSimple(16384, 10000, 1000000, pes1); // 16GB RAM, 10Gbps, 1TB Storage
+        host1.setPowerModel(new PowerModelHostSimple(200, 140)); // 200W no máximo, 140W ocioso
         host1.setId(0);
         hosts.add(host1);
         
@@ -89,6 +173,7 @@ public class CloudSimSimulation {
         pes2.add(new PeSimple(2000));
         
         Host host2 = new HostSimple(8192, 5000, 500000, pes2); // 8GB RAM, 5Gbps, 500GB Storage
+        host2.setPowerModel(new PowerModelHostSimple(180, 120)); // 180W no máximo, 120W ocioso
         host2.setId(1);
         hosts.add(host2);
         
@@ -99,14 +184,16 @@ public class CloudSimSimulation {
         }
         
         Host host3 = new HostSimple(32768, 20000, 2000000, pes3); // 32GB RAM, 20Gbps, 2TB Storage
+        host3.setPowerModel(new PowerModelHostSimple(350, 210)); // 350W no máximo, 210W ocioso
         host3.setId(2);
         hosts.add(host3);
         
         return hosts;
     }
     
-    private static Datacenter createDatacenter(CloudSimPlus cloudsim, List<Host> hosts) {
-        return new DatacenterSimple(cloudsim, hosts);
+    private static Datacenter createDatacenter(CloudSimPlus cloudsim, List<Host> hosts,
+                                               GeneticVmAllocationPolicy allocationPolicy) {
+        return new DatacenterSimple(cloudsim, hosts, allocationPolicy);
     }
     
     private static List<Vm> createVMs() {
@@ -175,9 +262,11 @@ public class CloudSimSimulation {
         return cloudlets;
     }
     
-    private static void applyGeneticAllocation(DatacenterBroker broker, 
+    private static void applyGeneticAllocation(GeneticVmAllocationPolicy allocationPolicy,
                                              EnergyAwareGeneticAlgorithm.AllocationSolution solution,
                                              List<Vm> vms, List<Host> hosts) {
+        allocationPolicy.setSolution(solution);
+        
         System.out.println("Alocação do Algoritmo Genético:");
         System.out.println("-".repeat(60));
         var vmToHost = solution.getVmToHost();
@@ -190,9 +279,19 @@ public class CloudSimSimulation {
         System.out.println();
     }
     
+    /** Energia medida pelo {@link PowerMeter} durante toda a simulação, em kWh. */
+    static double measuredEnergyKWh(PowerMeter powerMeter) {
+        double joules = 0.0;
+        for (PowerMeasurement measurement : powerMeter.getPowerMeasurements()) {
+            joules += measurement.getTotalPower() * powerMeter.getMeasurementInterval();
+        }
+        return joules / 3_600_000;
+    }
+    
     private static void showResults(DatacenterBroker broker, List<Cloudlet> cloudlets, List<Vm> vms,
                                    EnergyAwareGeneticAlgorithm.AllocationSolution gaSolution,
-                                   List<Host> hosts) {
+                                   List<Host> hosts, GeneticVmAllocationPolicy allocationPolicy,
+                                   EnergyAwareGeneticAlgorithm ga, PowerMeter powerMeter) {
         System.out.println("\n=== RESULTADOS DA SIMULAÇÃO ===\n");
         
         System.out.println("INFORMAÇÕES DAS VMs:");
@@ -249,6 +348,16 @@ public class CloudSimSimulation {
             System.out.printf("Fitness final: %.4f%n", gaSolution.getFitness());
             System.out.printf("Eficiência energética: %.2f%% (menos hosts = mais eficiente)%n",
                 (1.0 - (double)gaSolution.getActiveHostsCount() / hosts.size()) * 100);
+            // Previsão do AG: só hosts com VMs, todas a plena carga durante toda a simulação
+            double predictedWatts = ga.predictPowerWatts(gaSolution);
+            System.out.printf("Potência prevista pelo AG: %.1f W (%.6f kWh em %.2f s)%n",
+                predictedWatts, predictedWatts * totalExecutionTime / 3_600_000, totalExecutionTime);
+            // O medidor inclui hosts ociosos que permanecem ligados
+            System.out.printf("Energia medida pelo PowerMeter: %.6f kWh (inclui hosts ociosos ligados)%n",
+                measuredEnergyKWh(powerMeter));
+            System.out.printf("Alocações do AG respeitadas: %d, por fallback (%s): %d, sem host: %d%n",
+                allocationPolicy.getHonoredCount(), allocationPolicy.getFallback(),
+                allocationPolicy.getFallbackCount(), allocationPolicy.getUnplacedCount());
         }
     }
 }
@@ -0,0 +1,174 @@
+package geneticovm.genetic;
+
+import org.cloudsimplus.vms.Vm;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * Grafo esparso de comunicação entre VMs no formato CSR (compressed sparse row).
+ * Cada aresta não direcionada é guardada nas linhas das duas VMs, de modo que os
+ * vizinhos de uma VM ficam contíguos em {@link #neighbors}/{@link #weights}, entre
+ * {@code offsets[vm]} e {@code offsets[vm + 1]}. A memória é O(V + E).
+ */
+public final class CommunicationGraph {
+    final int[] offsets;
+    final int[] neighbors;
+    final double[] weights;
+    private final int edgeCount;
+
+    private CommunicationGraph(int[] offsets, int[] neighbors, double[] weights, int edgeCount) {
+        this.offsets = offsets;
+        this.neighbors = neighbors;
+        this.weights = weights;
+        this.edgeCount = edgeCount;
+    }
+
+    /**
+     * Grafo aleatório em que cada VM conversa com {@code peersPerVm} outras VMs sorteadas,
+     * com tráfego entre 0.1 e 1.0.
+     */
+    public static CommunicationGraph random(int vmCount, int peersPerVm, RandomGenerator rng) {
+        Builder builder = new Builder(vmCount);
+        if (vmCount < 2) {
+            return builder.build();
+        }
+        for (int vm = 0; vm < vmCount; vm++) {
+            for (int p = 0; p < peersPerVm; p++) {
+                int peer = rng.nextInt(vmCount - 1);
+                if (peer >= vm) {
+                    peer++;
+                }
+                builder.addEdge(vm, peer, 0.1 + rng.nextDouble() * 0.9);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Carrega o grafo de um arquivo texto com uma aresta por linha no formato
+     * {@code idVm1 idVm2 tráfego} (separados por espaços ou vírgulas). Os ids são os
+     * {@link Vm#getId() ids} das VMs da lista; linhas vazias ou iniciadas por {@code #}
+     * são ignoradas.
+     */
+    public static CommunicationGraph load(Path file, List<Vm> vms) throws IOException {
+        Map<Long, Integer> indexById = new HashMap<>();
+        for (int i = 0; i < vms.size(); i++) {
+            indexById.put(vms.get(i).getId(), i);
+        }
+
+        Builder builder = new Builder(vms.size());
+        try (BufferedReader reader = Files.newBufferedReader(file)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.strip();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split("[\\s,]+");
+                if (fields.length != 3) {
+                    throw new IllegalArgumentException(String.format(
+                        "%s:%d: esperado 'idVm1 idVm2 tráfego', encontrado '%s'", file, lineNumber, line));
+                }
+                builder.addEdge(
+                    requireIndex(indexById, fields[0], file, lineNumber),
+                    requireIndex(indexById, fields[1], file, lineNumber),
+                    Double.parseDouble(fields[2]));
+            }
+        }
+        return builder.build();
+    }
+
+    private static int requireIndex(Map<Long, Integer> indexById, String id, Path file, int lineNumber) {
+        Integer index = indexById.get(Long.parseLong(id));
+        if (index == null) {
+            throw new IllegalArgumentException(String.format("%s:%d: VM %s não existe", file, lineNumber, id));
+        }
+        return index;
+    }
+
+    public int getVmCount() {
+        return offsets.length - 1;
+    }
+
+    /** Número de arestas não direcionadas (pares de VMs que se comunicam). */
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+
+    public int getDegree(int vm) {
+        return offsets[vm + 1] - offsets[vm];
+    }
+
+    /**
+     * Monta o grafo a partir de arestas indexadas pela posição das VMs na lista passada ao
+     * algoritmo. Arestas repetidas entre o mesmo par somam seus tráfegos no custo.
+     */
+    public static final class Builder {
+        private final int vmCount;
+        private int[] from = new int[16];
+        private int[] to = new int[16];
+        private double[] traffic = new double[16];
+        private int size;
+
+        public Builder(int vmCount) {
+            this.vmCount = vmCount;
+        }
+
+        public Builder addEdge(int vm1, int vm2, double weight) {
+            if (vm1 < 0 || vm1 >= vmCount || vm2 < 0 || vm2 >= vmCount || vm1 == vm2) {
+                throw new IllegalArgumentException(String.format(
+                    "Aresta inválida (%d, %d) para %d VMs", vm1, vm2, vmCount));
+            }
+            if (weight < 0) {
+                throw new IllegalArgumentException("Tráfego negativo entre VMs " + vm1 + " e " + vm2);
+            }
+            if (weight == 0) {
+                return this;
+            }
+            if (size == from.length) {
+                from = Arrays.copyOf(from, size * 2);
+                to = Arrays.copyOf(to, size * 2);
+                traffic = Arrays.copyOf(traffic, size * 2);
+            }
+            from[size] = vm1;
+            to[size] = vm2;
+            traffic[size] = weight;
+            size++;
+            return this;
+        }
+
+        public CommunicationGraph build() {
+            int[] offsets = new int[vmCount + 1];
+            for (int e = 0; e < size; e++) {
+                offsets[from[e] + 1]++;
+                offsets[to[e] + 1]++;
+            }
+            for (int vm = 0; vm < vmCount; vm++) {
+                offsets[vm + 1] += offsets[vm];
+            }
+
+            int[] neighbors = new int[2 * size];
+            double[] weights = new double[2 * size];
+            int[] next = Arrays.copyOf(offsets, vmCount);
+            for (int e = 0; e < size; e++) {
+                int a = next[from[e]]++;
+                neighbors[a] = to[e];
+                weights[a] = traffic[e];
+                int b = next[to[e]]++;
+                neighbors[b] = from[e];
+                weights[b] = traffic[e];
+            }
+            return new CommunicationGraph(offsets, neighbors, weights, size);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package geneticovm.genetic;
+
+import geneticovm.genetic.EnergyAwareGeneticAlgorithm.AllocationSolution;
+import geneticovm.genetic.EnergyAwareGeneticAlgorithm.IslandTelemetry;
+
+/**
+ * Listener que imprime o andamento da execução no console: parâmetros, reparo da
+ * população inicial, melhor fitness (ou, no NSGA-II, tamanho da frente de Pareto) a cada
+ * 5 gerações, critério de parada e estatísticas do cache de fitness. No modo de ilhas as
+ * gerações de cada ilha não são impressas, só o resumo por ilha no fim. Registrado por
+ * padrão; {@link EnergyAwareGeneticAlgorithm#setConsoleOutput} o desliga.
+ */
+public final class ConsoleGenerationListener implements GenerationListener {
+    private int maxGenerations;
+    private boolean repairEnabled;
+    private boolean multiObjective;
+    private boolean islands;
+
+    @Override
+    public void runStarted(EnergyAwareGeneticAlgorithm ga) {
+        maxGenerations = ga.getMaxGenerations();
+        repairEnabled = ga.isRepairEnabled();
+        multiObjective = ga.isMultiObjectiveRun();
+        islands = !multiObjective && ga.getIslandCount() > 1;
+        if (multiObjective) {
+            System.out.println("Executando Algoritmo Genético (NSGA-II)...");
+            System.out.printf("  População: %d, Gerações: %d%n", ga.getPopulationSize(), maxGenerations);
+        } else if (islands) {
+            System.out.println("Executando Algoritmo Genético (modo de ilhas)...");
+            System.out.printf("  Ilhas: %d, População por ilha: %d, Gerações: %d, Migração: %d a cada %d gerações (%s)%n",
+                ga.getIslandCount(), ga.getPopulationSize(), maxGenerations, ga.getMigrationSize(),
+                ga.getMigrationInterval(), ga.getMigrationTopology());
+        } else {
+            System.out.println("Executando Algoritmo Genético...");
+            System.out.printf("  População: %d, Gerações: %d%n", ga.getPopulationSize(), maxGenerations);
+        }
+    }
+
+    @Override
+    public void generationCompleted(GenerationStats stats) {
+        int generation = stats.getGeneration();
+        if (stats.getIsland() >= 0) {
+            return;
+        }
+        if (multiObjective) {
+            if (generation % 5 == 1 || generation == maxGenerations) {
+                System.out.printf("  Geração %d: Frente de Pareto com %d soluções%n",
+                    generation, stats.getParetoFrontSize());
+            }
+        } else if (generation == 0) {
+            if (repairEnabled) {
+                System.out.printf("  População inicial: %.1f%% reparados (%d VMs movidas)%n",
+                    100.0 * stats.getRepairRate(), stats.getRepairMoves());
+            }
+        } else if (generation % 5 == 1 || generation == maxGenerations) {
+            System.out.printf("  Geração %d: Melhor Fitness = %.4f, Hosts Ativos = %d, Reparados = %.1f%%%n",
+                generation, stats.getBestFitness(), stats.getBestActiveHosts(), 100.0 * stats.getRepairRate());
+        }
+    }
+
+    @Override
+    public void runFinished(EnergyAwareGeneticAlgorithm ga, AllocationSolution best, long elapsedNanos) {
+        if (islands) {
+            for (IslandTelemetry island : ga.getIslandTelemetry()) {
+                System.out.printf("  Ilha %d: Melhor Fitness = %.4f em %.1f ms, Imigrantes recebidos = %d, Término: %s após %d gerações%n",
+                    island.island(), island.bestFitness(), island.nanosToBest() / 1e6, island.immigrantsReceived(),
+                    island.terminationReason(), island.bestFitnessByGeneration().length);
+            }
+            System.out.printf("  Melhor Fitness global = %.4f, Hosts Ativos = %d%n",
+                best.getFitness(), best.getActiveHostsCount());
+        } else {
+            System.out.printf("  Término: %s após %d gerações (%.1f ms)%n",
+                ga.getTerminationReason(), ga.getGenerationsRun(), elapsedNanos / 1e6);
+        }
+        if (multiObjective) {
+            for (AllocationSolution solution : ga.getParetoFront()) {
+                double[] objectives = solution.getObjectives();
+                System.out.printf("    Hosts Ativos = %.0f, Comunicação = %.4f, Desequilíbrio = %.4f, Violação = %.4f%n",
+                    objectives[0], objectives[1], objectives[2], solution.getConstraintViolation());
+            }
+        }
+        ga.printCacheStatistics();
+        System.out.println("Algoritmo Genético concluído!\n");
+    }
+}
@@ -0,0 +1,533 @@
+package geneticovm.genetic;
+
+import geneticovm.genetic.EnergyAwareGeneticAlgorithm.AllocationSolution;
+import geneticovm.genetic.EnergyAwareGeneticAlgorithm.EnergyObjective;
+import geneticovm.genetic.EnergyAwareGeneticAlgorithm.SeedingHeuristic;
+import org.cloudsimplus.hosts.Host;
+import org.cloudsimplus.vms.Vm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Resolve frotas muito grandes por decomposição. As VMs são particionadas pela afinidade
+ * de comunicação (partes de demanda equilibrada que cortam pouco tráfego) e os hosts em
+ * faixas contíguas por rack, com capacidade proporcional à demanda de cada parte. Cada
+ * subproblema é resolvido por um {@link EnergyAwareGeneticAlgorithm} independente, em
+ * paralelo; as soluções são costuradas numa alocação global, que passa pelo reparo e por
+ * uma busca local nas VMs que se comunicam com outras partes.
+ *
+ * <p>O particionamento das VMs agrupa comunidades por propagação de rótulos com tamanho
+ * limitado, distribui as comunidades entre as partes e refina as fronteiras com limite de
+ * desequilíbrio: O(V + E) por passada. Como cada subproblema tem
+ * V/k VMs e H/k hosts e sua própria semente, o tempo de relógio cai quase linearmente com
+ * o número de núcleos e o resultado não depende do escalonamento.
+ */
+public class DecompositionSolver {
+    // Passadas da propagação de rótulos e desequilíbrio de demanda tolerado entre partes
+    private static final int PARTITION_PASSES = 4;
+    private static final double IMBALANCE = 0.03;
+    // Número mínimo de VMs por parte
+    private static final int MIN_VMS_PER_PARTITION = 64;
+    private static final int RESOURCES = 4;
+
+    private final List<Vm> vms;
+    private final List<Host> hosts;
+    private final int populationSize;
+    private final int maxGenerations;
+    private final double crossoverRate;
+    private final double mutationRate;
+    private final int tournamentSize;
+    private final long seed;
+    private final CommunicationGraph communicationGraph;
+
+    private HostDistanceModel distanceModel;
+    private int partitionCount = Runtime.getRuntime().availableProcessors();
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private ExecutorService executor;
+    private int refinementPasses = 3;
+    private EnergyObjective energyObjective = EnergyObjective.ACTIVE_HOSTS;
+    private double seedingFraction = 0.0;
+    private SeedingHeuristic[] seedingHeuristics = new SeedingHeuristic[0];
+
+    private int[] vmPartition = new int[0];
+    private double cutTrafficFraction;
+    private int refinementMoves;
+
+    public DecompositionSolver(List<Vm> vms, List<Host> hosts,
+                               int populationSize, int maxGenerations,
+                               double crossoverRate, double mutationRate,
+                               int tournamentSize, long seed) {
+        this(vms, hosts, populationSize, maxGenerations, crossoverRate, mutationRate, tournamentSize, seed, null);
+    }
+
+    /**
+     * Cria o resolvedor com um grafo de comunicação conhecido; com {@code null}, usa o mesmo
+     * grafo aleatório que um {@link EnergyAwareGeneticAlgorithm} com a mesma semente.
+     */
+    public DecompositionSolver(List<Vm> vms, List<Host> hosts,
+                               int populationSize, int maxGenerations,
+                               double crossoverRate, double mutationRate,
+                               int tournamentSize, long seed,
+                               CommunicationGraph communicationGraph) {
+        this.vms = new ArrayList<>(vms);
+        this.hosts = new ArrayList<>(hosts);
+        this.populationSize = populationSize;
+        this.maxGenerations = maxGenerations;
+        this.crossoverRate = crossoverRate;
+        this.mutationRate = mutationRate;
+        this.tournamentSize = tournamentSize;
+        this.seed = seed;
+        this.communicationGraph = communicationGraph;
+        this.distanceModel = HostDistanceModel.byHostId(this.hosts);
+    }
+
+    /**
+     * Número de subproblemas (padrão: número de processadores). É reduzido se houver menos
+     * de {@value #MIN_VMS_PER_PARTITION} VMs ou menos de um host por parte.
+     */
+    public void setPartitionCount(int partitionCount) {
+        if (partitionCount < 1) {
+            throw new IllegalArgumentException("partitionCount deve ser >= 1: " + partitionCount);
+        }
+        this.partitionCount = partitionCount;
+    }
+
+    /** Subproblemas resolvidos ao mesmo tempo (padrão: número de processadores). */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism deve ser >= 1: " + parallelism);
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Executor dos subproblemas. Se não for definido, cada execução cria um
+     * {@link ForkJoinPool} próprio com {@code parallelism} threads.
+     */
+    public void setExecutor(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Modelo de distância entre hosts. Com um {@link RackTopologyDistanceModel}, cada parte
+     * recebe hosts de racks consecutivos; com outros modelos, hosts de ids consecutivos.
+     */
+    public void setHostDistanceModel(HostDistanceModel distanceModel) {
+        this.distanceModel = Objects.requireNonNull(distanceModel);
+    }
+
+    /** Passadas máximas da busca local nas fronteiras depois da costura (0 desativa). */
+    public void setRefinementPasses(int refinementPasses) {
+        if (refinementPasses < 0) {
+            throw new IllegalArgumentException("refinementPasses deve ser >= 0: " + refinementPasses);
+        }
+        this.refinementPasses = refinementPasses;
+    }
+
+    /** Ver {@link EnergyAwareGeneticAlgorithm#setEnergyObjective}. */
+    public void setEnergyObjective(EnergyObjective energyObjective) {
+        this.energyObjective = Objects.requireNonNull(energyObjective);
+    }
+
+    /** Semeadura da população de cada subproblema (ver {@link EnergyAwareGeneticAlgorithm#setSeeding}). */
+    public void setSeeding(double fraction, SeedingHeuristic... heuristics) {
+        if (fraction < 0.0 || fraction > 1.0) {
+            throw new IllegalArgumentException("Fração de semeadura deve estar entre 0 e 1: " + fraction);
+        }
+        this.seedingFraction = fraction;
+        this.seedingHeuristics = heuristics.clone();
+    }
+
+    /** Parte de cada VM (na ordem da lista) na última execução. */
+    public int[] getVmPartitions() {
+        return vmPartition.clone();
+    }
+
+    /** Fração do tráfego entre VMs que cruza partes na última execução. */
+    public double getCutTrafficFraction() {
+        return cutTrafficFraction;
+    }
+
+    /** Movimentos mantidos pela busca local nas fronteiras na última execução. */
+    public int getRefinementMoves() {
+        return refinementMoves;
+    }
+
+    public AllocationSolution solve() {
+        EnergyAwareGeneticAlgorithm global = new EnergyAwareGeneticAlgorithm(vms, hosts, populationSize,
+            maxGenerations, crossoverRate, mutationRate, tournamentSize, seed, communicationGraph);
+        global.setHostDistanceModel(distanceModel);
+        global.setEnergyObjective(energyObjective);
+        CommunicationGraph graph = global.getCommunicationGraph();
+        ResourceTable resources = new ResourceTable(vms, hosts);
+
+        int k = Math.max(1, Math.min(partitionCount, Math.min(hosts.size(), vms.size() / MIN_VMS_PER_PARTITION)));
+        vmPartition = partitionVms(graph, resources, k);
+        int[] hostPartition = partitionHosts(resources, vmPartition, k);
+        cutTrafficFraction = cutTrafficFraction(graph, vmPartition);
+
+        int[][] partVms = members(vmPartition, k);
+        int[][] partHosts = members(hostPartition, k);
+        SplittableRandom seeds = new SplittableRandom(seed);
+        List<Callable<int[]>> tasks = new ArrayList<>(k);
+        for (int p = 0; p < k; p++) {
+            int[] localVms = partVms[p];
+            int[] localHosts = partHosts[p];
+            long partSeed = seeds.nextLong();
+            tasks.add(() -> solvePartition(graph, localVms, localHosts, partSeed));
+        }
+
+        ExecutorService workers = executor;
+        boolean ownsExecutor = workers == null;
+        if (ownsExecutor) {
+            workers = new ForkJoinPool(Math.min(parallelism, k));
+        }
+        List<int[]> placements;
+        try {
+            placements = EnergyAwareGeneticAlgorithm.invokeAll(workers, tasks);
+        } finally {
+            if (ownsExecutor) {
+                workers.shutdown();
+            }
+        }
+
+        // Costura: cada parte usa só os seus hosts, então as cargas das partes não se somam
+        AllocationSolution solution = global.newSolution();
+        for (int p = 0; p < k; p++) {
+            int[] localVms = partVms[p];
+            int[] localHosts = partHosts[p];
+            int[] placement = placements.get(p);
+            for (int i = 0; i < localVms.length; i++) {
+                solution.assign(localVms[i], localHosts[placement[i]]);
+            }
+        }
+        global.repairAndScore(solution);
+        refinementMoves = refinementPasses > 0
+            ? global.refine(solution, boundaryVms(graph, vmPartition), refinementPasses)
+            : 0;
+        return solution;
+    }
+
+    /** Resolve um subproblema e devolve o host local de cada VM local. */
+    private int[] solvePartition(CommunicationGraph graph, int[] localVms, int[] localHosts, long partSeed) {
+        int[] localIndex = new int[vms.size()];
+        Arrays.fill(localIndex, -1);
+        List<Vm> subVms = new ArrayList<>(localVms.length);
+        for (int i = 0; i < localVms.length; i++) {
+            localIndex[localVms[i]] = i;
+            subVms.add(vms.get(localVms[i]));
+        }
+        List<Host> subHosts = new ArrayList<>(localHosts.length);
+        for (int host : localHosts) {
+            subHosts.add(hosts.get(host));
+        }
+
+        // Arestas internas à parte; cada aresta aparece nas linhas das duas VMs e é
+        // copiada só a partir da VM de menor índice
+        CommunicationGraph.Builder builder = new CommunicationGraph.Builder(localVms.length);
+        for (int vm : localVms) {
+            for (int e = graph.offsets[vm]; e < graph.offsets[vm + 1]; e++) {
+                int peer = graph.neighbors[e];
+                if (peer > vm && localIndex[peer] >= 0) {
+                    builder.addEdge(localIndex[vm], localIndex[peer], graph.weights[e]);
+                }
+            }
+        }
+
+        EnergyAwareGeneticAlgorithm ga = new EnergyAwareGeneticAlgorithm(subVms, subHosts, populationSize,
+            maxGenerations, crossoverRate, mutationRate, tournamentSize, partSeed, builder.build());
+        HostDistanceModel distances = distanceModel;
+        ga.setHostDistanceModel((a, b) -> distances.distance(localHosts[a], localHosts[b]));
+        ga.setCommunicationEdgeCount(graph.getEdgeCount());
+        ga.setEnergyObjective(energyObjective);
+        ga.setSeeding(seedingFraction, seedingHeuristics);
+        ga.setConsoleOutput(false);
+        return ga.run().genes().clone();
+    }
+
+    /**
+     * Particiona as VMs em {@code k} partes de demanda equilibrada. Primeiro agrupa as VMs
+     * em comunidades por propagação de rótulos com tamanho limitado (cada VM adota o rótulo
+     * com quem mais troca tráfego, se a comunidade não passar de metade de uma parte);
+     * depois distribui as comunidades, da maior para a menor, na parte menos carregada e,
+     * por fim, move VMs para a parte com quem mais trocam tráfego enquanto nenhuma das duas
+     * sai da faixa de desequilíbrio tolerada. Cada passada custa O(V + E).
+     */
+    private static int[] partitionVms(CommunicationGraph graph, ResourceTable resources, int k) {
+        int vmCount = resources.vmCount;
+        int[] partition = new int[vmCount];
+        if (k == 1 || vmCount == 0) {
+            return partition;
+        }
+        double[] size = vmSizes(resources);
+        double total = 0.0;
+        double largest = 0.0;
+        for (double s : size) {
+            total += s;
+            largest = Math.max(largest, s);
+        }
+
+        int[] label = new int[vmCount];
+        double[] clusterSize = size.clone();
+        for (int vm = 0; vm < vmCount; vm++) {
+            label[vm] = vm;
+        }
+        double maxCluster = Math.max(total / k / 2, largest);
+        double[] affinity = new double[vmCount];
+        int[] touched = new int[vmCount];
+        for (int pass = 0; pass < PARTITION_PASSES; pass++) {
+            int moved = 0;
+            for (int vm = 0; vm < vmCount; vm++) {
+                int own = label[vm];
+                int best = bestNeighborGroup(graph, vm, label, affinity, touched, own,
+                    clusterSize, maxCluster - size[vm]);
+                if (best != own) {
+                    label[vm] = best;
+                    clusterSize[own] -= size[vm];
+                    clusterSize[best] += size[vm];
+                    moved++;
+                }
+            }
+            if (moved == 0) {
+                break;
+            }
+        }
+
+        // Comunidades da maior para a menor, cada uma na parte menos carregada (os tamanhos
+        // são somados de novo para não herdar o erro das subtrações)
+        Arrays.fill(clusterSize, 0.0);
+        for (int vm = 0; vm < vmCount; vm++) {
+            clusterSize[label[vm]] += size[vm];
+        }
+        long[] clusters = new long[vmCount];
+        int clusterCount = 0;
+        for (int cluster = 0; cluster < vmCount; cluster++) {
+            if (clusterSize[cluster] > 0) {
+                clusters[clusterCount++] = (long) Float.floatToIntBits((float) clusterSize[cluster]) << 32 | cluster;
+            }
+        }
+        Arrays.sort(clusters, 0, clusterCount);
+        int[] clusterPart = new int[vmCount];
+        double[] load = new double[k];
+        for (int i = clusterCount - 1; i >= 0; i--) {
+            int cluster = (int) clusters[i];
+            int lightest = 0;
+            for (int part = 1; part < k; part++) {
+                if (load[part] < load[lightest]) {
+                    lightest = part;
+                }
+            }
+            clusterPart[cluster] = lightest;
+            load[lightest] += clusterSize[cluster];
+        }
+        for (int vm = 0; vm < vmCount; vm++) {
+            partition[vm] = clusterPart[label[vm]];
+        }
+
+        double maxLoad = total / k * (1 + IMBALANCE);
+        double minLoad = total / k * (1 - IMBALANCE);
+        for (int pass = 0; pass < PARTITION_PASSES; pass++) {
+            int moved = 0;
+            for (int vm = 0; vm < vmCount; vm++) {
+                int own = partition[vm];
+                if (load[own] - size[vm] < minLoad) {
+                    continue;
+                }
+                int best = bestNeighborGroup(graph, vm, partition, affinity, touched, own,
+                    load, maxLoad - size[vm]);
+                if (best != own) {
+                    partition[vm] = best;
+                    load[own] -= size[vm];
+                    load[best] += size[vm];
+                    moved++;
+                }
+            }
+            if (moved == 0) {
+                break;
+            }
+        }
+        return partition;
+    }
+
+    /**
+     * Grupo (comunidade ou parte) com quem a VM mais troca tráfego entre os de carga até
+     * {@code maxLoad}, ou {@code own} se nenhum troca mais que o próprio grupo.
+     * {@code affinity} volta zerado.
+     */
+    private static int bestNeighborGroup(CommunicationGraph graph, int vm, int[] group, double[] affinity,
+                                         int[] touched, int own, double[] groupLoad, double maxLoad) {
+        int touchedCount = 0;
+        for (int e = graph.offsets[vm]; e < graph.offsets[vm + 1]; e++) {
+            int g = group[graph.neighbors[e]];
+            if (affinity[g] == 0.0) {
+                touched[touchedCount++] = g;
+            }
+            affinity[g] += graph.weights[e];
+        }
+        int best = own;
+        for (int i = 0; i < touchedCount; i++) {
+            int g = touched[i];
+            if (affinity[g] > affinity[best] && groupLoad[g] <= maxLoad) {
+                best = g;
+            }
+        }
+        for (int i = 0; i < touchedCount; i++) {
+            affinity[touched[i]] = 0.0;
+        }
+        return best;
+    }
+
+    /** Demanda de cada VM: soma das demandas normalizadas pela capacidade média dos hosts. */
+    private static double[] vmSizes(ResourceTable resources) {
+        double cpu = 0, ram = 0, storage = 0, bw = 0;
+        for (int h = 0; h < resources.hostCount; h++) {
+            cpu += resources.hostCpu[h];
+            ram += resources.hostRam[h];
+            storage += resources.hostStorage[h];
+            bw += resources.hostBw[h];
+        }
+        int hostCount = Math.max(resources.hostCount, 1);
+        cpu = Math.max(cpu / hostCount, 1);
+        ram = Math.max(ram / hostCount, 1);
+        storage = Math.max(storage / hostCount, 1);
+        bw = Math.max(bw / hostCount, 1);
+
+        double[] size = new double[resources.vmCount];
+        for (int vm = 0; vm < size.length; vm++) {
+            // Piso positivo para que VMs sem demanda também sejam distribuídas
+            size[vm] = Math.max(resources.vmCpu[vm] / cpu + resources.vmRam[vm] / ram
+                + resources.vmStorage[vm] / storage + resources.vmBw[vm] / bw, 1e-9);
+        }
+        return size;
+    }
+
+    /**
+     * Distribui os hosts, em ordem de rack (ou de id), em faixas contíguas: a parte
+     * {@code p} recebe hosts até que cada recurso cubra a demanda das suas VMs na mesma
+     * proporção em que a capacidade total cobre a demanda total, o que mantém as VMs de
+     * cada parte em poucos racks.
+     */
+    int[] partitionHosts(ResourceTable resources, int[] vmPartition, int k) {
+        int hostCount = resources.hostCount;
+        double[][] demand = new double[k][RESOURCES];
+        double[] totalDemand = new double[RESOURCES];
+        for (int vm = 0; vm < resources.vmCount; vm++) {
+            double[] vmDemand = {resources.vmCpu[vm], resources.vmRam[vm], resources.vmStorage[vm], resources.vmBw[vm]};
+            for (int r = 0; r < RESOURCES; r++) {
+                demand[vmPartition[vm]][r] += vmDemand[r];
+                totalDemand[r] += vmDemand[r];
+            }
+        }
+        double[] coverage = new double[RESOURCES];
+        for (int h = 0; h < hostCount; h++) {
+            double[] capacity = capacity(resources, h);
+            for (int r = 0; r < RESOURCES; r++) {
+                coverage[r] += capacity[r];
+            }
+        }
+        for (int r = 0; r < RESOURCES; r++) {
+            coverage[r] = totalDemand[r] > 0 ? coverage[r] / totalDemand[r] : 0.0;
+        }
+
+        int[] partition = new int[hostCount];
+        int next = 0;
+        int[] order = hostOrder(hostCount);
+        for (int p = 0; p < k; p++) {
+            double[] assigned = new double[RESOURCES];
+            // Pelo menos um host por parte, e um host reservado para cada parte seguinte
+            int limit = hostCount - (k - 1 - p);
+            do {
+                int host = order[next++];
+                partition[host] = p;
+                double[] capacity = capacity(resources, host);
+                for (int r = 0; r < RESOURCES; r++) {
+                    assigned[r] += capacity[r];
+                }
+            } while (next < limit && (p == k - 1 || !covers(assigned, demand[p], coverage)));
+        }
+        return partition;
+    }
+
+    private static double[] capacity(ResourceTable resources, int host) {
+        return new double[] {resources.hostCpu[host], resources.hostRam[host],
+            resources.hostStorage[host], resources.hostBw[host]};
+    }
+
+    private static boolean covers(double[] assigned, double[] demand, double[] coverage) {
+        for (int r = 0; r < RESOURCES; r++) {
+            if (assigned[r] < demand[r] * coverage[r]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Hosts ordenados por rack (com {@link RackTopologyDistanceModel}) ou por id. */
+    private int[] hostOrder(int hostCount) {
+        long[] keys = new long[hostCount];
+        for (int h = 0; h < hostCount; h++) {
+            long locality = distanceModel instanceof RackTopologyDistanceModel racks && h < racks.getHostCount()
+                ? racks.getRackOf(h)
+                : hosts.get(h).getId();
+            keys[h] = locality << 24 | h;
+        }
+        Arrays.sort(keys);
+        int[] order = new int[hostCount];
+        for (int i = 0; i < hostCount; i++) {
+            order[i] = (int) (keys[i] & ((1 << 24) - 1));
+        }
+        return order;
+    }
+
+    private static int[][] members(int[] partition, int k) {
+        int[] counts = new int[k];
+        for (int part : partition) {
+            counts[part]++;
+        }
+        int[][] members = new int[k][];
+        for (int p = 0; p < k; p++) {
+            members[p] = new int[counts[p]];
+        }
+        int[] filled = new int[k];
+        for (int i = 0; i < partition.length; i++) {
+            members[partition[i]][filled[partition[i]]++] = i;
+        }
+        return members;
+    }
+
+    /** VMs com pelo menos um vizinho de comunicação em outra parte. */
+    private static int[] boundaryVms(CommunicationGraph graph, int[] partition) {
+        int[] boundary = new int[partition.length];
+        int count = 0;
+        for (int vm = 0; vm < partition.length; vm++) {
+            for (int e = graph.offsets[vm]; e < graph.offsets[vm + 1]; e++) {
+                if (partition[graph.neighbors[e]] != partition[vm]) {
+                    boundary[count++] = vm;
+                    break;
+                }
+            }
+        }
+        return Arrays.copyOf(boundary, count);
+    }
+
+    private static double cutTrafficFraction(CommunicationGraph graph, int[] partition) {
+        double total = 0.0;
+        double cut = 0.0;
+        for (int vm = 0; vm < partition.length; vm++) {
+            for (int e = graph.offsets[vm]; e < graph.offsets[vm + 1]; e++) {
+                total += graph.weights[e];
+                if (partition[graph.neighbors[e]] != partition[vm]) {
+                    cut += graph.weights[e];
+                }
+            }
+        }
+        return total == 0.0 ? 0.0 : cut / total;
+    }
+}
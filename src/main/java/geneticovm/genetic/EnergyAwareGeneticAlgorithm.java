@@ -3,10 +3,27 @@ package geneticovm.genetic;
 import org.cloudsimplus.hosts.Host;
 import org.cloudsimplus.vms.Vm;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.random.RandomGenerator;
 
 public class EnergyAwareGeneticAlgorithm {
     
+    /** Número de VMs com que cada VM se comunica no grafo aleatório padrão. */
+    static final int DEFAULT_PEERS_PER_VM = 4;
+    
+    /** Melhora mínima de fitness para a busca local manter um movimento. */
+    private static final double REFINEMENT_EPSILON = 1e-9;
+    
     private final List<Vm> vms;
     private final List<Host> hosts;
     private final int populationSize;
@@ -14,15 +31,107 @@ public class EnergyAwareGeneticAlgorithm {
     private final double crossoverRate;
     private final double mutationRate;
     private final int tournamentSize;
-    private final Random random;
+    private final long seed;
+    private final RestorableRandom random;
+    // Origem dos fluxos independentes de cada worker no modo paralelo e quantos fluxos já
+    // foram derivados dela (para reconstruí-la ao retomar um checkpoint)
+    private SplittableRandom workerRandomSource;
+    private long workerSplits;
+    private final AllocationSolution.Layout layout;
+    private final ResourceTable resources;
+    
+    // Quando ativo, cada avaliação incremental é conferida contra a avaliação completa
+    private boolean deltaValidation;
+    
+    // Número de workers que geram e avaliam os filhos de cada geração (1 = sequencial)
+    private int parallelism = 1;
+    private ExecutorService executor;
+    
+    // Modo de ilhas: subpopulações independentes com migração periódica (1 ilha = desativado)
+    private int islandCount = 1;
+    private int migrationInterval = 10;
+    private int migrationSize = 2;
+    private MigrationTopology migrationTopology = MigrationTopology.RING;
+    private List<IslandTelemetry> islandTelemetry = List.of();
+    
+    // Reparo de indivíduos com hosts sobrecarregados antes de serem pontuados
+    private boolean repairEnabled = true;
+    private final LongAdder scoredIndividuals = new LongAdder();
+    private final LongAdder repairedIndividuals = new LongAdder();
+    private final LongAdder repairMoves = new LongAdder();
+    private double[] repairRates = new double[0];
+    
+    // Potência tabelada de cada host e o termo de energia usado no fitness
+    private final PowerTable powerTable;
+    private final double referencePower;
+    private EnergyObjective energyObjective = EnergyObjective.ACTIVE_HOSTS;
+    
+    // Fração da população inicial construída por heurísticas gulosas
+    private final HeuristicSeeder seeder;
+    private double seedingFraction = 0.0;
+    private List<SeedingHeuristic> seedingHeuristics = List.of(SeedingHeuristic.values());
+    
+    // Com uma alocação atual (em layout): peso do custo de migração por segundo de
+    // transferência e número máximo de VMs que uma solução pode tirar dela
+    private double migrationCostWeight = 0.1;
+    private int migrationLimit = Integer.MAX_VALUE;
+    
+    // Genomas que substituem os primeiros indivíduos da população inicial e a população
+    // final da última execução sequencial, para reotimizações a partir de uma população aquecida
+    private List<int[]> initialGenomes = List.of();
+    private List<AllocationSolution> finalPopulation = List.of();
+    
+    // Vetor de hosts candidatos da mutação, um por thread
+    private final ThreadLocal<int[]> candidateHosts;
+    
+    // Cache de fitness por hash do genoma, recriado a cada execução (0 entradas desativa)
+    private int fitnessCacheSize = 1 << 14;
+    private FitnessCache fitnessCache;
+    
+    // Critérios de parada antecipada (desativados por padrão) e resultado da última execução
+    private int stagnationWindow = 0;
+    private double stagnationEpsilon = 0.0;
+    private double diversityFloor = 0.0;
+    private long timeLimitMillis = 0;
+    private TerminationReason terminationReason;
+    private int generationsRun;
+    
+    // Observadores das gerações (o console é um deles) e contadores da geração em
+    // observação (nulo quando ninguém observa: nada é medido)
+    private final List<GenerationListener> listeners = new ArrayList<>();
+    private final ConsoleGenerationListener console = new ConsoleGenerationListener();
+    private boolean consoleOutput = true;
+    private GenerationProbe probe;
+    private boolean multiObjectiveRun;
+    private List<AllocationSolution> paretoFront = List.of();
+    
+    // Checkpoint periódico do estado da execução (desativado sem arquivo)
+    private Path checkpointFile;
+    private int checkpointInterval;
     
-    // Matriz de comunicação entre VMs (simplificada - todas se comunicam)
-    private final double[][] communicationMatrix;
+    // Grafo esparso de comunicação entre VMs e número de arestas que normaliza o seu custo
+    private final CommunicationGraph communicationGraph;
+    private int communicationEdges;
+    private HostDistanceModel distanceModel;
     
     public EnergyAwareGeneticAlgorithm(List<Vm> vms, List<Host> hosts, 
                                      int populationSize, int maxGenerations,
                                      double crossoverRate, double mutationRate,
                                      int tournamentSize, long seed) {
+        this(vms, hosts, populationSize, maxGenerations, crossoverRate, mutationRate, tournamentSize, seed, null);
+    }
+    
+    /**
+     * Cria o algoritmo com um grafo de comunicação entre VMs conhecido, carregado por
+     * {@link CommunicationGraph#load} ou montado com {@link CommunicationGraph.Builder}.
+     * Se {@code communicationGraph} for {@code null}, cada VM se comunica com
+     * {@value #DEFAULT_PEERS_PER_VM} VMs sorteadas.
+     */
+    public EnergyAwareGeneticAlgorithm(List<Vm> vms, List<Host> hosts,
+                                     int populationSize, int maxGenerations,
+                                     double crossoverRate, double mutationRate,
+                                     int tournamentSize, long seed,
+                                     CommunicationGraph communicationGraph) {
         this.vms = new ArrayList<>(vms);
         this.hosts = new ArrayList<>(hosts);
         this.populationSize = populationSize;
@@ -30,392 +139,2225 @@ public class EnergyAwareGeneticAlgorithm {
         this.crossoverRate = crossoverRate;
         this.mutationRate = mutationRate;
         this.tournamentSize = tournamentSize;
-        this.random = new Random(seed);
+        this.seed = seed;
+        this.random = new RestorableRandom(seed);
+        this.workerRandomSource = new SplittableRandom(seed);
+        this.layout = new AllocationSolution.Layout(this.vms, this.hosts);
+        this.resources = new ResourceTable(this.vms, this.hosts);
+        
+        if (communicationGraph == null) {
+            communicationGraph = CommunicationGraph.random(this.vms.size(), DEFAULT_PEERS_PER_VM, random);
+        } else if (communicationGraph.getVmCount() != this.vms.size()) {
+            throw new IllegalArgumentException(String.format(
+                "Grafo de comunicação tem %d VMs, mas foram informadas %d",
+                communicationGraph.getVmCount(), this.vms.size()));
+        }
+        this.communicationGraph = communicationGraph;
+        this.communicationEdges = communicationGraph.getEdgeCount();
+        this.distanceModel = HostDistanceModel.byHostId(this.hosts);
+        this.powerTable = new PowerTable(this.hosts, resources);
+        this.referencePower = powerTable.meanMaxPower();
+        this.seeder = new HeuristicSeeder(resources, powerTable);
+        int hostCount = this.hosts.size();
+        this.candidateHosts = ThreadLocal.withInitial(() -> new int[2 * hostCount]);
+    }
+    
+    /**
+     * Define o modelo de distância de rede entre hosts usado no custo de comunicação,
+     * por exemplo um {@link RackTopologyDistanceModel}. O padrão é
+     * {@link HostDistanceModel#byHostId}.
+     */
+    public void setHostDistanceModel(HostDistanceModel distanceModel) {
+        if (distanceModel instanceof RackTopologyDistanceModel topology
+                && topology.getHostCount() != hosts.size()) {
+            throw new IllegalArgumentException(String.format(
+                "Topologia tem %d hosts, mas foram informados %d", topology.getHostCount(), hosts.size()));
+        }
+        this.distanceModel = Objects.requireNonNull(distanceModel);
+    }
+    
+    /**
+     * Ativa a conferência (modo de depuração) de cada avaliação incremental contra a
+     * avaliação completa. Uma divergência lança {@link IllegalStateException}.
+     *
+     * <p>Fora desse modo, os filhos são mutados só com as cargas por host e pontuados uma
+     * única vez, depois do reparo, então a avaliação incremental só é usada pela busca
+     * local ({@link #refine}). Com a conferência ligada, cada filho a ser mutado é pontuado
+     * antes, para que a mutação passe pelo caminho incremental e seja conferida; o
+     * resultado da execução não muda, só o custo.
+     */
+    public void setDeltaValidation(boolean deltaValidation) {
+        this.deltaValidation = deltaValidation;
+    }
+    
+    /**
+     * Define quantos workers geram e avaliam os filhos de cada geração em paralelo.
+     * Cada worker usa seu próprio {@link SplittableRandom} derivado da semente do
+     * construtor, então a mesma semente com o mesmo número de workers sempre produz
+     * a mesma melhor solução. O valor 1 (padrão) mantém a execução sequencial.
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism deve ser >= 1: " + parallelism);
+        }
+        this.parallelism = parallelism;
+    }
+    
+    /**
+     * Executor usado no modo paralelo. Se não for definido, cada execução cria um
+     * {@link ForkJoinPool} próprio com {@code parallelism} threads.
+     */
+    public void setExecutor(ExecutorService executor) {
+        this.executor = executor;
+    }
+    
+    /**
+     * Ativa o modo de ilhas: {@code islandCount} subpopulações de {@code populationSize}
+     * indivíduos evoluem em threads próprias e, a cada {@code migrationInterval} gerações,
+     * cada ilha envia cópias dos seus {@code migrationSize} melhores indivíduos para outra
+     * ilha, escolhida pela topologia. A troca é assíncrona e sem locks, portanto o resultado
+     * deste modo depende do escalonamento das threads. Tem precedência sobre
+     * {@link #setParallelism(int)}.
+     */
+    public void setIslandModel(int islandCount, int migrationInterval, int migrationSize,
+                               MigrationTopology topology) {
+        if (islandCount < 1 || migrationInterval < 1 || migrationSize < 0) {
+            throw new IllegalArgumentException(String.format(
+                "Configuração de ilhas inválida: ilhas=%d, intervalo=%d, migrantes=%d",
+                islandCount, migrationInterval, migrationSize));
+        }
+        this.islandCount = islandCount;
+        this.migrationInterval = migrationInterval;
+        this.migrationSize = migrationSize;
+        this.migrationTopology = Objects.requireNonNull(topology);
+    }
+    
+    /**
+     * Ativa ou desativa (padrão: ativado) o reparo aplicado a cada indivíduo novo, depois do
+     * crossover e da mutação e antes da pontuação: VMs de hosts sobrecarregados são movidas
+     * para hosts com capacidade residual.
+     */
+    public void setRepairEnabled(boolean repairEnabled) {
+        this.repairEnabled = repairEnabled;
+    }
+    
+    /**
+     * Fração dos filhos de cada geração da última execução que precisaram de reparo
+     * (modos sequencial e paralelo).
+     */
+    public double[] getRepairRates() {
+        return repairRates.clone();
+    }
+    
+    /**
+     * Define como o consumo de energia entra no fitness (padrão:
+     * {@link EnergyObjective#ACTIVE_HOSTS}) e no primeiro objetivo do modo NSGA-II.
+     */
+    public void setEnergyObjective(EnergyObjective energyObjective) {
+        this.energyObjective = Objects.requireNonNull(energyObjective);
+    }
+    
+    /**
+     * Potência total prevista, em watts, para a alocação: soma, sobre os hosts ativos, do
+     * modelo de energia de cada host na utilização de CPU que as VMs alocadas a plena carga
+     * produzem. Hosts sem VMs são considerados desligados.
+     */
+    public double predictPowerWatts(AllocationSolution solution) {
+        double[] cpuLoad = new double[resources.hostCount];
+        int[] genes = solution.genes();
+        for (int vm = 0; vm < genes.length; vm++) {
+            if (genes[vm] != AllocationSolution.UNASSIGNED) {
+                cpuLoad[genes[vm]] += resources.vmCpu[vm];
+            }
+        }
+        double watts = 0.0;
+        for (int host = 0; host < resources.hostCount; host++) {
+            if (solution.getVmCountOnHost(host) > 0) {
+                watts += powerTable.power(host, cpuLoad[host] / resources.hostCpu[host]);
+            }
+        }
+        return watts;
+    }
+    
+    /**
+     * Informa onde cada VM está hoje. Cada VM que uma solução tira do seu host atual soma
+     * ao fitness o tempo da migração ao vivo (RAM da VM sobre a menor banda entre os dois
+     * hosts) vezes {@link #setMigrationCostWeight}; VMs fora do mapa ainda não estão
+     * alocadas e não têm custo. Deve ser chamado antes de {@link #run()}.
+     */
+    public void setCurrentPlacement(Map<Vm, Host> placement) {
+        int[] currentHosts = new int[vms.size()];
+        Arrays.fill(currentHosts, AllocationSolution.UNASSIGNED);
+        for (Map.Entry<Vm, Host> entry : placement.entrySet()) {
+            int vm = layout.vmIndexOf(entry.getKey());
+            if (vm >= 0) {
+                currentHosts[vm] = layout.requireHostIndex(entry.getValue());
+            }
+        }
+        setCurrentPlacement(currentHosts);
+    }
+    
+    /** Alocação atual por índice: host de cada VM, ou {@code UNASSIGNED}. */
+    void setCurrentPlacement(int[] currentHosts) {
+        if (currentHosts.length != vms.size()) {
+            throw new IllegalArgumentException(String.format(
+                "Alocação atual tem %d VMs, mas foram informadas %d", currentHosts.length, vms.size()));
+        }
+        layout.setOrigin(currentHosts.clone(), resources);
+    }
+    
+    /** Peso do custo de migração por segundo de transferência (padrão 0.1). */
+    public void setMigrationCostWeight(double migrationCostWeight) {
+        if (migrationCostWeight < 0) {
+            throw new IllegalArgumentException("migrationCostWeight deve ser não negativo: " + migrationCostWeight);
+        }
+        this.migrationCostWeight = migrationCostWeight;
+    }
+    
+    /**
+     * Limita a {@code limit} o número de VMs que cada solução tira da alocação atual de
+     * {@link #setCurrentPlacement} (VMs ainda não alocadas não contam). Depois do reparo,
+     * as VMs movidas além do limite voltam ao host atual.
+     */
+    public void setMigrationLimit(int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("limit deve ser não negativo: " + limit);
+        }
+        this.migrationLimit = limit;
+    }
+    
+    /**
+     * Plano de migrações que leva da alocação atual até {@code target}, ordenado para
+     * evitar sobrecargas transitórias: uma migração só é executada quando o host de destino
+     * já comporta a VM com as migrações anteriores aplicadas, então VMs que saem de um
+     * host liberam espaço para as que entram nele. Se nenhuma migração pendente couber (um
+     * ciclo de trocas, por exemplo), executa a que menos sobrecarrega o destino. VMs ainda
+     * não alocadas entram no fim, com origem {@code null}.
+     *
+     * <p>As migrações bloqueadas ficam numa fila por host de destino, que só é revista
+     * quando alguma VM sai desse host; cada passo forçado, porém, percorre todas as
+     * pendentes (O(M)).
+     */
+    public List<MigrationStep> planMigrations(AllocationSolution target) {
+        int[] origin = layout.origin();
+        if (origin == null) {
+            throw new IllegalStateException("Nenhuma alocação atual informada em setCurrentPlacement");
+        }
+        EvaluationState loads = new EvaluationState(resources.hostCount);
+        List<Integer> pending = new ArrayList<>();
+        List<Integer> placements = new ArrayList<>();
+        for (int vm = 0; vm < origin.length; vm++) {
+            int destination = target.getHostIndex(vm);
+            if (origin[vm] != AllocationSolution.UNASSIGNED) {
+                addLoad(loads, origin[vm], vm, 1);
+                if (destination != AllocationSolution.UNASSIGNED && destination != origin[vm]) {
+                    pending.add(vm);
+                }
+            } else if (destination != AllocationSolution.UNASSIGNED) {
+                placements.add(vm);
+            }
+        }
+        
+        List<MigrationStep> plan = new ArrayList<>(pending.size() + placements.size());
+        // Migrações bloqueadas por host de destino, na ordem das VMs, e hosts de onde saiu uma VM
+        Map<Integer, List<Integer>> blocked = new HashMap<>();
+        ArrayDeque<Integer> freed = new ArrayDeque<>();
+        for (int vm : pending) {
+            int destination = target.getHostIndex(vm);
+            if (canHostAccommodateVM(destination, vm, loads)) {
+                applyMigration(plan, loads, origin, target, vm);
+                freed.add(origin[vm]);
+            } else {
+                blocked.computeIfAbsent(destination, host -> new ArrayList<>()).add(vm);
+            }
+        }
+        int remaining = pending.size() - plan.size();
+        while (remaining > 0) {
+            while (!freed.isEmpty()) {
+                List<Integer> waiting = blocked.get(freed.poll());
+                if (waiting == null) {
+                    continue;
+                }
+                for (Iterator<Integer> it = waiting.iterator(); it.hasNext(); ) {
+                    int vm = it.next();
+                    if (canHostAccommodateVM(target.getHostIndex(vm), vm, loads)) {
+                        applyMigration(plan, loads, origin, target, vm);
+                        freed.add(origin[vm]);
+                        it.remove();
+                        remaining--;
+                    }
+                }
+            }
+            if (remaining == 0) {
+                break;
+            }
+            
+            int forced = -1;
+            double smallestExcess = Double.MAX_VALUE;
+            for (List<Integer> waiting : blocked.values()) {
+                for (int vm : waiting) {
+                    double excess = excessAfter(target.getHostIndex(vm), vm, loads);
+                    if (excess < smallestExcess || (excess == smallestExcess && vm < forced)) {
+                        smallestExcess = excess;
+                        forced = vm;
+                    }
+                }
+            }
+            blocked.get(target.getHostIndex(forced)).remove(Integer.valueOf(forced));
+            applyMigration(plan, loads, origin, target, forced);
+            freed.add(origin[forced]);
+            remaining--;
+        }
+        for (int vm : placements) {
+            plan.add(new MigrationStep(vms.get(vm), null, hosts.get(target.getHostIndex(vm))));
+        }
+        return plan;
+    }
+    
+    private void applyMigration(List<MigrationStep> plan, EvaluationState loads, int[] origin,
+                                AllocationSolution target, int vm) {
+        int destination = target.getHostIndex(vm);
+        addLoad(loads, origin[vm], vm, -1);
+        addLoad(loads, destination, vm, 1);
+        plan.add(new MigrationStep(vms.get(vm), hosts.get(origin[vm]), hosts.get(destination)));
+    }
+    
+    private void addLoad(EvaluationState loads, int host, int vm, int sign) {
+        loads.cpuLoad[host] += sign * resources.vmCpu[vm];
+        loads.ramLoad[host] += sign * resources.vmRam[vm];
+        loads.storageLoad[host] += sign * resources.vmStorage[vm];
+        loads.bandwidthLoad[host] += sign * resources.vmBw[vm];
+    }
+    
+    /** Soma das sobrecargas relativas que a VM causaria no host. */
+    private double excessAfter(int host, int vm, EvaluationState loads) {
+        return Math.max(0, (loads.cpuLoad[host] + resources.vmCpu[vm]) / resources.hostCpu[host] - 1)
+            + Math.max(0, (loads.ramLoad[host] + resources.vmRam[vm]) / resources.hostRam[host] - 1)
+            + Math.max(0, (loads.storageLoad[host] + resources.vmStorage[vm]) / resources.hostStorage[host] - 1)
+            + Math.max(0, (loads.bandwidthLoad[host] + resources.vmBw[vm]) / resources.hostBw[host] - 1);
+    }
+    
+    /** Genomas (host de cada VM) usados como os primeiros indivíduos da população inicial. */
+    void setInitialPopulation(List<int[]> genomes) {
+        for (int[] genome : genomes) {
+            if (genome.length != vms.size()) {
+                throw new IllegalArgumentException(String.format(
+                    "Genoma tem %d genes, mas foram informadas %d VMs", genome.length, vms.size()));
+            }
+        }
+        this.initialGenomes = List.copyOf(genomes);
+    }
+    
+    /**
+     * Normaliza o custo de comunicação por {@code edges} arestas em vez das arestas do
+     * próprio grafo. Um subproblema da decomposição usa as arestas do grafo completo, para
+     * que seu fitness seja a sua parcela do fitness global.
+     */
+    void setCommunicationEdgeCount(int edges) {
+        this.communicationEdges = edges;
+    }
+    
+    CommunicationGraph getCommunicationGraph() {
+        return communicationGraph;
+    }
+    
+    /** Solução vazia no layout desta execução. */
+    AllocationSolution newSolution() {
+        return new AllocationSolution(layout);
+    }
+    
+    /** População ao fim da última execução sequencial de {@link #run()}. */
+    List<AllocationSolution> getFinalPopulation() {
+        return finalPopulation;
+    }
+    
+    /**
+     * Constrói {@code fraction} da população inicial com as heurísticas indicadas (todas, se
+     * nenhuma for informada), alternando entre elas; o restante continua aleatório.
+     */
+    public void setSeeding(double fraction, SeedingHeuristic... heuristics) {
+        if (fraction < 0.0 || fraction > 1.0) {
+            throw new IllegalArgumentException("Fração de semeadura deve estar entre 0 e 1: " + fraction);
+        }
+        this.seedingFraction = fraction;
+        this.seedingHeuristics = heuristics.length == 0
+            ? List.of(SeedingHeuristic.values())
+            : List.of(heuristics);
+    }
+    
+    /**
+     * Encerra a execução quando o melhor fitness não melhora mais que {@code epsilon} por
+     * {@code generations} gerações seguidas (0 desativa).
+     */
+    public void setStagnationWindow(int generations, double epsilon) {
+        if (generations < 0 || epsilon < 0) {
+            throw new IllegalArgumentException(String.format(
+                "Janela de estagnação inválida: gerações=%d, epsilon=%f", generations, epsilon));
+        }
+        this.stagnationWindow = generations;
+        this.stagnationEpsilon = epsilon;
+    }
+    
+    /**
+     * Encerra a execução quando a diversidade da população (fração média de genes que
+     * diferem do melhor indivíduo) cai abaixo de {@code minDiversity} (0 desativa).
+     */
+    public void setDiversityFloor(double minDiversity) {
+        if (minDiversity < 0.0 || minDiversity > 1.0) {
+            throw new IllegalArgumentException("Diversidade mínima deve estar entre 0 e 1: " + minDiversity);
+        }
+        this.diversityFloor = minDiversity;
+    }
+    
+    /**
+     * Prazo de relógio, contado do início de {@link #run()}: ao fim da primeira geração
+     * concluída depois dele, a melhor solução encontrada até então é devolvida (0 desativa).
+     */
+    public void setTimeLimitMillis(long timeLimitMillis) {
+        if (timeLimitMillis < 0) {
+            throw new IllegalArgumentException("Prazo negativo: " + timeLimitMillis);
+        }
+        this.timeLimitMillis = timeLimitMillis;
+    }
+    
+    /**
+     * Critério que encerrou a última execução ({@code null} antes da primeira); no modo de
+     * ilhas, o da ilha que encontrou a melhor solução.
+     */
+    public TerminationReason getTerminationReason() {
+        return terminationReason;
+    }
+    
+    /** Gerações executadas na última execução (no modo de ilhas, o máximo entre as ilhas). */
+    public int getGenerationsRun() {
+        return generationsRun;
+    }
+    
+    /**
+     * Número de entradas do cache de fitness (padrão: 16384; 0 desativa). Filhos cujo
+     * genoma já foi pontuado reaproveitam o fitness guardado em vez de serem reavaliados.
+     * O modo NSGA-II não usa o cache: ele precisa dos objetivos separados, que exigem o
+     * estado de avaliação completo, então um acerto não pouparia nada.
+     */
+    public void setFitnessCacheSize(int entries) {
+        if (entries < 0) {
+            throw new IllegalArgumentException("Tamanho do cache negativo: " + entries);
+        }
+        this.fitnessCacheSize = entries;
+    }
+    
+    /** Consultas ao cache de fitness que encontraram o genoma na última execução. */
+    public long getFitnessCacheHits() {
+        return fitnessCache == null ? 0 : fitnessCache.getHits();
+    }
+    
+    /** Consultas ao cache de fitness que não encontraram o genoma na última execução. */
+    public long getFitnessCacheMisses() {
+        return fitnessCache == null ? 0 : fitnessCache.getMisses();
+    }
+    
+    /**
+     * Registra um observador das gerações de {@link #run()} (modos sequencial e paralelo),
+     * que recebe fitness, diversidade, avaliações por segundo, tempo por fase e taxa de
+     * viabilidade de cada geração.
+     */
+    public void addGenerationListener(GenerationListener listener) {
+        listeners.add(Objects.requireNonNull(listener));
+    }
+    
+    public void removeGenerationListener(GenerationListener listener) {
+        listeners.remove(listener);
+    }
+    
+    /**
+     * Liga ou desliga a impressão do andamento no console (padrão: ligada), feita pelo
+     * {@link ConsoleGenerationListener} em todos os modos.
+     */
+    public void setConsoleOutput(boolean consoleOutput) {
+        this.consoleOutput = consoleOutput;
+    }
+    
+    public int getPopulationSize() {
+        return populationSize;
+    }
+    
+    public int getMaxGenerations() {
+        return maxGenerations;
+    }
+    
+    public boolean isRepairEnabled() {
+        return repairEnabled;
+    }
+    
+    public long getFitnessCacheEvictions() {
+        return fitnessCache == null ? 0 : fitnessCache.getEvictions();
+    }
+    
+    /** Telemetria de cada ilha da última execução no modo de ilhas (vazia nos demais modos). */
+    public List<IslandTelemetry> getIslandTelemetry() {
+        return islandTelemetry;
+    }
+    
+    /** Frente de Pareto devolvida pela última chamada a {@link #runNsga2()} (vazia antes dela). */
+    public List<AllocationSolution> getParetoFront() {
+        return paretoFront;
+    }
+    
+    int getIslandCount() {
+        return islandCount;
+    }
+    
+    int getMigrationInterval() {
+        return migrationInterval;
+    }
+    
+    int getMigrationSize() {
+        return migrationSize;
+    }
+    
+    MigrationTopology getMigrationTopology() {
+        return migrationTopology;
+    }
+    
+    /** A execução em andamento (ou a última) é a do modo NSGA-II. */
+    boolean isMultiObjectiveRun() {
+        return multiObjectiveRun;
+    }
+    
+    /**
+     * Grava, a cada {@code intervalGenerations} gerações de {@link #run()} (modos sequencial
+     * e paralelo), o estado completo da execução em {@code file}: genomas e fitness da
+     * população, melhor solução, geração, estado dos geradores aleatórios e do critério de
+     * estagnação. {@link #resume(Path)} continua a execução a partir dele. {@code null}
+     * desativa.
+     */
+    public void setCheckpoint(Path file, int intervalGenerations) {
+        if (file != null && intervalGenerations < 1) {
+            throw new IllegalArgumentException("Intervalo de checkpoint deve ser >= 1: " + intervalGenerations);
+        }
+        this.checkpointFile = file;
+        this.checkpointInterval = intervalGenerations;
+    }
+    
+    public AllocationSolution run() {
+        fitnessCache = fitnessCacheSize > 0 ? new FitnessCache(fitnessCacheSize) : null;
+        multiObjectiveRun = false;
+        if (islandCount > 1) {
+            if (checkpointFile != null) {
+                throw new IllegalStateException("Checkpoint não é suportado no modo de ilhas");
+            }
+            return runIslands();
+        }
+        return runPopulation(null);
+    }
+    
+    /**
+     * Retoma uma execução do último checkpoint gravado em {@code file}. O algoritmo deve ter
+     * sido criado com as mesmas VMs, hosts, parâmetros e semente, e configurado da mesma
+     * forma (paralelismo, reparo, objetivo de energia, alocação atual, grafo de
+     * comunicação, modelo de distância, semeadura e critérios de parada): a execução
+     * continua da geração seguinte à gravada e chega à mesma solução que a execução
+     * original chegaria sem interrupção. O prazo de {@link #setTimeLimitMillis} conta a
+     * partir da retomada e não é conferido. Se houver checkpoint configurado, a execução
+     * retomada continua gravando nele.
+     *
+     * @throws IllegalArgumentException se o checkpoint foi gravado com outra configuração.
+     *     A configuração é comparada por uma impressão digital de 64 bits: recursos e ids das
+     *     VMs e hosts, potências, grafo de comunicação completo e o modelo de distância numa
+     *     amostra de 2 pares por host (O(H), sem percorrer a matriz inteira).
+     */
+    public AllocationSolution resume(Path file) throws IOException {
+        if (islandCount > 1) {
+            throw new IllegalStateException("Checkpoint não é suportado no modo de ilhas");
+        }
+        try (Checkpoint restored = Checkpoint.load(file)) {
+            if (restored.fingerprint() != configurationFingerprint() || restored.vmCount() != vms.size()
+                || restored.hostCount() != hosts.size() || restored.populationSize() != populationSize
+                || restored.maxGenerations() != maxGenerations) {
+                throw new IllegalArgumentException(file + " foi gravado com outra configuração do algoritmo");
+            }
+            random.setState(restored.randomState());
+            workerRandomSource = new SplittableRandom(seed);
+            workerSplits = 0;
+            for (long i = restored.workerSplits(); i > 0; i--) {
+                nextWorkerRandom();
+            }
+            fitnessCache = fitnessCacheSize > 0 ? new FitnessCache(fitnessCacheSize) : null;
+            multiObjectiveRun = false;
+            return runPopulation(restored);
+        }
+    }
+    
+    /**
+     * Resumo da configuração que determina a trajetória da execução, gravado no checkpoint
+     * e conferido ao retomá-lo.
+     */
+    private long configurationFingerprint() {
+        long fingerprint = seed;
+        fingerprint = 31 * fingerprint + Double.doubleToLongBits(crossoverRate);
+        fingerprint = 31 * fingerprint + Double.doubleToLongBits(mutationRate);
+        fingerprint = 31 * fingerprint + tournamentSize;
+        fingerprint = 31 * fingerprint + parallelism;
+        fingerprint = 31 * fingerprint + (repairEnabled ? 1 : 0);
+        fingerprint = 31 * fingerprint + energyObjective.ordinal();
+        fingerprint = 31 * fingerprint + Double.doubleToLongBits(migrationCostWeight);
+        fingerprint = 31 * fingerprint + migrationLimit;
+        fingerprint = 31 * fingerprint + Double.doubleToLongBits(seedingFraction);
+        for (SeedingHeuristic heuristic : seedingHeuristics) {
+            fingerprint = 31 * fingerprint + heuristic.ordinal();
+        }
+        fingerprint = 31 * fingerprint + stagnationWindow;
+        fingerprint = 31 * fingerprint + Double.doubleToLongBits(stagnationEpsilon);
+        fingerprint = 31 * fingerprint + Double.doubleToLongBits(diversityFloor);
+        
+        // Ids sozinhos não distinguem entidades ainda fora de um datacenter (todas com id
+        // -1), então entram também as demandas e capacidades e as potências dos hosts
+        for (int vm = 0; vm < vms.size(); vm++) {
+            fingerprint = 31 * fingerprint + vms.get(vm).getId();
+            fingerprint = 31 * fingerprint + Double.doubleToLongBits(resources.vmCpu[vm]);
+            fingerprint = 31 * fingerprint + resources.vmRam[vm];
+            fingerprint = 31 * fingerprint + resources.vmStorage[vm];
+            fingerprint = 31 * fingerprint + resources.vmBw[vm];
+        }
+        int hostCount = hosts.size();
+        for (int host = 0; host < hostCount; host++) {
+            fingerprint = 31 * fingerprint + hosts.get(host).getId();
+            fingerprint = 31 * fingerprint + Double.doubleToLongBits(resources.hostCpu[host]);
+            fingerprint = 31 * fingerprint + resources.hostRam[host];
+            fingerprint = 31 * fingerprint + resources.hostStorage[host];
+            fingerprint = 31 * fingerprint + resources.hostBw[host];
+            fingerprint = 31 * fingerprint + Double.doubleToLongBits(powerTable.staticPower(host));
+            fingerprint = 31 * fingerprint + Double.doubleToLongBits(powerTable.maxPower(host));
+            // Amostra do modelo de distância: o vizinho seguinte e um host espalhado
+            fingerprint = 31 * fingerprint + distanceModel.distance(host, (host + 1) % hostCount);
+            fingerprint = 31 * fingerprint
+                + distanceModel.distance(host, (int) ((host * 0x9E3779B1L + 1) % hostCount));
+        }
+        
+        fingerprint = 31 * fingerprint + communicationEdges;
+        for (int offset : communicationGraph.offsets) {
+            fingerprint = 31 * fingerprint + offset;
+        }
+        for (int neighbor : communicationGraph.neighbors) {
+            fingerprint = 31 * fingerprint + neighbor;
+        }
+        for (double weight : communicationGraph.weights) {
+            fingerprint = 31 * fingerprint + Double.doubleToLongBits(weight);
+        }
+        
+        int[] origin = layout.origin();
+        if (origin != null) {
+            for (int host : origin) {
+                fingerprint = 31 * fingerprint + host;
+            }
+        }
+        return fingerprint;
+    }
+    
+    /** Modos sequencial e paralelo, a partir do início ou de um checkpoint. */
+    private AllocationSolution runPopulation(Checkpoint restored) {
+        ExecutorService workers = null;
+        boolean ownsExecutor = false;
+        if (parallelism > 1) {
+            workers = executor;
+            if (workers == null) {
+                workers = new ForkJoinPool(parallelism);
+                ownsExecutor = true;
+            }
+        }
+        
+        Checkpoint checkpoint = null;
+        try {
+            if (checkpointFile != null) {
+                checkpoint = Checkpoint.create(checkpointFile, configurationFingerprint(),
+                    vms.size(), hosts.size(), populationSize, maxGenerations);
+            }
+            return evolve(workers, restored, checkpoint);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao abrir o checkpoint " + checkpointFile, e);
+        } finally {
+            if (ownsExecutor) {
+                workers.shutdown();
+            }
+            if (checkpoint != null) {
+                try {
+                    checkpoint.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+    }
+    
+    /** Monitor de parada de uma execução (ou ilha) iniciada em {@code startNanos}. */
+    TerminationMonitor newTerminationMonitor(long startNanos) {
+        long deadline = timeLimitMillis > 0 ? startNanos + timeLimitMillis * 1_000_000L : Long.MAX_VALUE;
+        return new TerminationMonitor(maxGenerations, stagnationWindow, stagnationEpsilon, diversityFloor, deadline);
+    }
+    
+    /**
+     * Executa o modo multiobjetivo NSGA-II sobre os objetivos de
+     * {@link AllocationSolution#getObjectives()}, sem pesos, e devolve a frente de Pareto
+     * final ordenada por hosts ativos. Respeita {@code maxGenerations} e o prazo de
+     * {@link #setTimeLimitMillis}; os demais modos (paralelo, ilhas) não se aplicam. Os
+     * listeners recebem cada geração, com o tamanho da frente, e {@code runFinished} recebe
+     * a solução da frente de menor fitness escalar.
+     */
+    public List<AllocationSolution> runNsga2() {
+        // Um acerto descartaria o estado de que computeObjectives precisa e custaria uma
+        // avaliação completa a mais; o cache fica desligado neste modo
+        fitnessCache = null;
+        multiObjectiveRun = true;
+        long start = System.nanoTime();
+        TerminationMonitor monitor = newTerminationMonitor(start);
+        List<GenerationListener> observers = observers();
+        for (GenerationListener observer : observers) {
+            observer.runStarted(this);
+        }
+        
+        List<AllocationSolution> population = initializePopulation(random);
+        resetRepairCounters();
+        long generationStart = startObservation(observers);
+        for (AllocationSolution individual : population) {
+            repairAndScore(individual);
+            computeObjectives(individual);
+        }
+        if (probe != null) {
+            probe.evaluationNanos.add(System.nanoTime() - generationStart);
+        }
+        
+        Nsga2 nsga = new Nsga2(this, populationSize);
+        nsga.initialize(population, newPopulationBuffer());
+        publishGeneration(observers, 0, nsga, generationStart, start);
+        
+        int generation = 0;
+        TerminationReason reason = TerminationReason.MAX_GENERATIONS;
+        while (generation < maxGenerations) {
+            if (monitor.deadlinePassed()) {
+                reason = TerminationReason.DEADLINE;
+                break;
+            }
+            resetRepairCounters();
+            generationStart = startObservation(observers);
+            nsga.step(random);
+            generation++;
+            publishGeneration(observers, generation, nsga, generationStart, start);
+        }
+        
+        probe = null;
+        paretoFront = nsga.paretoFront();
+        terminationReason = reason;
+        generationsRun = generation;
+        repairRates = new double[0];
+        long elapsed = System.nanoTime() - start;
+        AllocationSolution best = fittest(paretoFront);
+        for (GenerationListener observer : observers) {
+            observer.runFinished(this, best, elapsed);
+        }
+        return paretoFront;
+    }
+    
+    private AllocationSolution runIslands() {
+        ExecutorService threads = executor;
+        if (threads == null) {
+            threads = Executors.newFixedThreadPool(islandCount);
+        }
+        long start = System.nanoTime();
+        List<GenerationListener> observers = observers();
+        for (GenerationListener observer : observers) {
+            observer.runStarted(this);
+        }
+        
+        try {
+            List<RandomGenerator> islandRandoms = new ArrayList<>(islandCount);
+            for (int i = 0; i < islandCount; i++) {
+                islandRandoms.add(nextWorkerRandom());
+            }
+            
+            IslandModel model = new IslandModel(this, islandCount, migrationInterval, migrationSize, migrationTopology,
+                observers);
+            AllocationSolution bestSolution = model.evolve(threads, islandRandoms, maxGenerations);
+            islandTelemetry = model.getTelemetry();
+            
+            terminationReason = model.getTerminationReason();
+            generationsRun = 0;
+            for (IslandTelemetry island : islandTelemetry) {
+                generationsRun = Math.max(generationsRun, island.bestFitnessByGeneration().length);
+            }
+            long elapsed = System.nanoTime() - start;
+            for (GenerationListener observer : observers) {
+                observer.runFinished(this, bestSolution, elapsed);
+            }
+            return bestSolution;
+        } finally {
+            if (executor == null) {
+                threads.shutdown();
+            }
+        }
+    }
+    
+    private AllocationSolution evolve(ExecutorService workers, Checkpoint restored, Checkpoint checkpoint) {
+        long start = System.nanoTime();
+        TerminationMonitor monitor = newTerminationMonitor(start);
+        List<GenerationListener> observers = observers();
+        for (GenerationListener observer : observers) {
+            observer.runStarted(this);
+        }
+        
+        List<AllocationSolution> population;
+        AllocationSolution bestSolution = null;
+        double bestFitness = Double.MAX_VALUE;
+        repairRates = new double[maxGenerations];
+        int generation = 0;
+        
+        if (restored != null) {
+            population = newPopulationBuffer();
+            bestSolution = new AllocationSolution(layout);
+            generation = restored.restore(population, bestSolution, repairRates);
+            bestFitness = bestSolution.getFitness();
+            monitor.restore(restored.referenceFitness(), restored.lastImprovement());
+        } else {
+            population = initializePopulation(random);
+            resetRepairCounters();
+            long generationStart = startObservation(observers);
+            if (workers != null) {
+                evaluateInParallel(population, workers);
+            } else {
+                for (AllocationSolution individual : population) {
+                    repairAndScore(individual);
+                }
+                if (probe != null) {
+                    probe.evaluationNanos.add(System.nanoTime() - generationStart);
+                }
+            }
+            
+            for (AllocationSolution individual : population) {
+                if (individual.getFitness() < bestFitness) {
+                    bestFitness = individual.getFitness();
+                    bestSolution = new AllocationSolution(individual);
+                }
+            }
+            publishGeneration(observers, 0, 0, population, bestSolution, generationStart, start);
+        }
+        
+        // Duas populações alternadas: os filhos sobrescrevem os indivíduos de duas gerações atrás
+        List<AllocationSolution> next = newPopulationBuffer();
+        TerminationReason reason;
+        while ((reason = monitor.check(generation, bestFitness, population, bestSolution)) == null) {
+            resetRepairCounters();
+            long generationStart = startObservation(observers);
+            if (workers != null) {
+                next.get(0).copyFrom(bestSolution);
+                breedInParallel(population, next, workers);
+            } else {
+                nextGeneration(population, bestSolution, next, random, probe);
+            }
+            
+            // Percorre os filhos na ordem das posições, para que o resultado não dependa do escalonamento
+            for (int i = 1; i < next.size(); i++) {
+                AllocationSolution child = next.get(i);
+                if (child.getFitness() < bestFitness) {
+                    bestFitness = child.getFitness();
+                    bestSolution.copyFrom(child);
+                }
+            }
+            
+            List<AllocationSolution> previous = population;
+            population = next;
+            next = previous;
+            repairRates[generation] = currentRepairRate();
+            generation++;
+            publishGeneration(observers, generation, 0, population, bestSolution, generationStart, start);
+            if (checkpoint != null && generation % checkpointInterval == 0) {
+                checkpoint.write(generation, random.getState(), workerSplits, monitor, repairRates,
+                    population, bestSolution);
+            }
+        }
+        
+        probe = null;
+        repairRates = Arrays.copyOf(repairRates, generation);
+        finalPopulation = population;
+        terminationReason = reason;
+        generationsRun = generation;
+        long elapsed = System.nanoTime() - start;
+        for (GenerationListener observer : observers) {
+            observer.runFinished(this, bestSolution, elapsed);
+        }
+        return bestSolution;
+    }
+    
+    /** Listeners registrados, precedidos do console se a saída estiver ligada. */
+    private List<GenerationListener> observers() {
+        List<GenerationListener> observers = new ArrayList<>(listeners);
+        if (consoleOutput) {
+            observers.add(0, console);
+        }
+        return observers;
+    }
+    
+    /**
+     * Decide, a cada geração, se ela será observada (listeners ou eventos JFR habilitados)
+     * e, nesse caso, zera os contadores e devolve o instante de início.
+     */
+    private long startObservation(List<GenerationListener> observers) {
+        probe = GenerationProbe.observe(observers, probe);
+        return probe == null ? 0L : System.nanoTime();
+    }
+    
+    /** Contadores da geração em observação no modo sequencial, paralelo ou NSGA-II. */
+    GenerationProbe currentProbe() {
+        return probe;
+    }
+    
+    private void publishGeneration(List<GenerationListener> observers, int generation, Nsga2 nsga,
+                                   long generationStart, long runStart) {
+        if (probe != null) {
+            List<AllocationSolution> population = nsga.population();
+            publishGeneration(observers, generation, nsga.frontSize(), population, fittest(population),
+                generationStart, runStart);
+        }
+    }
+    
+    private void publishGeneration(List<GenerationListener> observers, int generation, int paretoFrontSize,
+                                   List<AllocationSolution> population, AllocationSolution best,
+                                   long generationStart, long runStart) {
+        GenerationProbe observing = probe;
+        if (observing == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        GenerationStats stats = new GenerationStats(generation, -1, paretoFrontSize, population, best, observing,
+            currentRepairRate(), repairMoves.sum(), now - generationStart, now - runStart);
+        for (GenerationListener observer : observers) {
+            observer.generationCompleted(stats);
+        }
+        observing.commit(stats);
+    }
+    
+    private static AllocationSolution fittest(List<AllocationSolution> solutions) {
+        AllocationSolution best = null;
+        for (AllocationSolution solution : solutions) {
+            if (best == null || solution.getFitness() < best.getFitness()) {
+                best = solution;
+            }
+        }
+        return best;
+    }
+    
+    void printCacheStatistics() {
+        if (consoleOutput && fitnessCache != null) {
+            long hits = fitnessCache.getHits();
+            long lookups = hits + fitnessCache.getMisses();
+            System.out.printf("  Cache de fitness: %d acertos em %d consultas (%.1f%%), %d substituições%n",
+                hits, lookups, lookups == 0 ? 0.0 : 100.0 * hits / lookups, fitnessCache.getEvictions());
+        }
+    }
+    
+    /**
+     * Preenche {@code next} (um buffer do mesmo tamanho da população, sem indivíduos em
+     * comum com ela) com o indivíduo de elite seguido de filhos gerados sequencialmente
+     * com o gerador informado.
+     */
+    void nextGeneration(List<AllocationSolution> population, AllocationSolution elite,
+                        List<AllocationSolution> next, RandomGenerator rng) {
+        nextGeneration(population, elite, next, rng, probe);
+    }
+    
+    /** Como {@link #nextGeneration}, somando tempos e avaliações em {@code observing}, se houver. */
+    void nextGeneration(List<AllocationSolution> population, AllocationSolution elite,
+                        List<AllocationSolution> next, RandomGenerator rng, GenerationProbe observing) {
+        next.get(0).copyFrom(elite);
+        for (int i = 1; i < next.size(); i++) {
+            breedChild(population, next.get(i), rng, observing);
+        }
+    }
+    
+    /**
+     * Buffer com {@code populationSize} soluções vazias, sobrescritas a cada geração em
+     * vez de alocar uma população nova.
+     */
+    List<AllocationSolution> newPopulationBuffer() {
+        AllocationSolution[] buffer = new AllocationSolution[populationSize];
+        for (int i = 0; i < buffer.length; i++) {
+            buffer[i] = new AllocationSolution(layout);
+        }
+        return Arrays.asList(buffer);
+    }
+    
+    /**
+     * Seleção, crossover, mutação, reparo e avaliação de um único filho. Até o reparo só as
+     * cargas por host são mantidas; o filho é pontuado uma única vez, já reparado. Um filho
+     * não mutado cujo genoma está no cache nem chega a ter as cargas calculadas.
+     */
+    private void breedChild(List<AllocationSolution> population, AllocationSolution child, RandomGenerator rng,
+                            GenerationProbe observing) {
+        long selectionStart = observing != null ? System.nanoTime() : 0L;
+        AllocationSolution parent1 = population.get(tournamentSelection(population, rng));
+        AllocationSolution parent2 = population.get(tournamentSelection(population, rng));
+        
+        long crossoverStart = observing != null ? System.nanoTime() : 0L;
+        uniformCrossover(parent1, parent2, child, rng);
+        boolean mutated = rng.nextDouble() < mutationRate;
+        long evaluationStart = observing != null ? System.nanoTime() : 0L;
+        if (observing != null) {
+            observing.selectionNanos.add(crossoverStart - selectionStart);
+            observing.crossoverNanos.add(evaluationStart - crossoverStart);
+        }
+        if (!mutated && applyCachedFitness(child)) {
+            if (observing != null) {
+                observing.evaluationNanos.add(System.nanoTime() - evaluationStart);
+            }
+            return;
+        }
+        
+        prepareForMutation(child, mutated);
+        if (mutated) {
+            long mutationStart = observing != null ? System.nanoTime() : 0L;
+            mutate(child, rng);
+            if (observing != null) {
+                long mutationEnd = System.nanoTime();
+                observing.mutationNanos.add(mutationEnd - mutationStart);
+                observing.evaluationNanos.add(mutationStart - evaluationStart);
+                evaluationStart = mutationEnd;
+            }
+        }
+        
+        repairAndScore(child, observing);
+        if (observing != null) {
+            observing.evaluationNanos.add(System.nanoTime() - evaluationStart);
+        }
+    }
+    
+    /**
+     * Calcula as cargas por host do filho. Com {@link #setDeltaValidation} ligado, um filho
+     * que vai ser mutado também é pontuado, para que {@link #moveVm} avalie a mutação de
+     * forma incremental e a confira contra a avaliação completa.
+     */
+    private void prepareForMutation(AllocationSolution child, boolean mutated) {
+        EvaluationState state = computeLoads(child);
+        if (mutated && deltaValidation) {
+            child.setFitness(score(child, state));
+        }
+    }
+    
+    /**
+     * Divide os filhos da geração em {@code parallelism} blocos contíguos. O bloco de cada
+     * worker e seu fluxo aleatório são fixados antes da execução, então o resultado só
+     * depende da semente e do número de workers.
+     */
+    private void breedInParallel(List<AllocationSolution> population, List<AllocationSolution> next,
+                                 ExecutorService workers) {
+        int offspringCount = Math.max(0, next.size() - 1);
+        List<Callable<Void>> tasks = new ArrayList<>(parallelism);
+        for (int w = 0; w < parallelism; w++) {
+            int from = 1 + (int) ((long) offspringCount * w / parallelism);
+            int to = 1 + (int) ((long) offspringCount * (w + 1) / parallelism);
+            SplittableRandom rng = nextWorkerRandom();
+            GenerationProbe observing = probe;
+            tasks.add(() -> {
+                for (int i = from; i < to; i++) {
+                    breedChild(population, next.get(i), rng, observing);
+                }
+                return null;
+            });
+        }
+        invokeAll(workers, tasks);
+    }
+    
+    private SplittableRandom nextWorkerRandom() {
+        workerSplits++;
+        return workerRandomSource.split();
+    }
+    
+    private void evaluateInParallel(List<AllocationSolution> population, ExecutorService workers) {
+        List<Callable<Void>> tasks = new ArrayList<>(parallelism);
+        for (int w = 0; w < parallelism; w++) {
+            int from = (int) ((long) population.size() * w / parallelism);
+            int to = (int) ((long) population.size() * (w + 1) / parallelism);
+            tasks.add(() -> {
+                GenerationProbe observing = probe;
+                long blockStart = observing != null ? System.nanoTime() : 0L;
+                for (int i = from; i < to; i++) {
+                    repairAndScore(population.get(i));
+                }
+                if (observing != null) {
+                    observing.evaluationNanos.add(System.nanoTime() - blockStart);
+                }
+                return null;
+            });
+        }
+        invokeAll(workers, tasks);
+    }
+    
+    static <T> List<T> invokeAll(ExecutorService workers, List<? extends Callable<T>> tasks) {
+        try {
+            List<T> results = new ArrayList<>(tasks.size());
+            for (Future<T> future : workers.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Execução paralela do algoritmo genético interrompida", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Falha na execução paralela do algoritmo genético", e.getCause());
+        }
+    }
+    
+    List<AllocationSolution> initializePopulation(RandomGenerator rng) {
+        List<AllocationSolution> population = new ArrayList<>();
+        int seeded = (int) Math.round(seedingFraction * populationSize);
+        
+        for (int i = 0; i < populationSize; i++) {
+            AllocationSolution solution = new AllocationSolution(layout);
+            
+            if (i < initialGenomes.size()) {
+                int[] genome = initialGenomes.get(i);
+                for (int vm = 0; vm < genome.length; vm++) {
+                    solution.assign(vm, genome[vm]);
+                }
+            } else if (i < seeded) {
+                seeder.seed(seedingHeuristics.get(i % seedingHeuristics.size()), solution, rng);
+            } else {
+                for (int vm = 0; vm < vms.size(); vm++) {
+                    solution.assign(vm, rng.nextInt(hosts.size()));
+                }
+            }
+            
+            population.add(solution);
+        }
+        
+        return population;
+    }
+    
+    /**
+     * Avaliação completa: recalcula do zero as cargas por host e todos os termos do fitness,
+     * guardando-os no {@link EvaluationState} da solução para que movimentos seguintes
+     * possam ser avaliados de forma incremental por {@link #moveVm}.
+     */
+    double evaluateFitness(AllocationSolution solution) {
+        return score(solution, computeLoads(solution));
+    }
+    
+    /**
+     * Recalcula apenas as cargas por host da solução, numa única passada pelas VMs: O(V).
+     * O estado fica sem pontuação até {@link #score}.
+     */
+    EvaluationState computeLoads(AllocationSolution solution) {
+        EvaluationState state = solution.evaluationState;
+        if (state == null) {
+            state = new EvaluationState(resources.hostCount);
+        } else {
+            state.clear();
+        }
+        
+        // Calcular demanda total de recursos de todos os hosts numa única passada pelas VMs
+        int[] genes = solution.genes();
+        for (int vm = 0; vm < genes.length; vm++) {
+            int host = genes[vm];
+            if (host != AllocationSolution.UNASSIGNED) {
+                state.cpuLoad[host] += resources.vmCpu[vm];
+                state.ramLoad[host] += resources.vmRam[vm];
+                state.storageLoad[host] += resources.vmStorage[vm];
+                state.bandwidthLoad[host] += resources.vmBw[vm];
+            }
+        }
+        
+        solution.evaluationState = state;
+        return state;
+    }
+    
+    /** Penalizações por host e custo de comunicação a partir das cargas já calculadas. */
+    private double score(AllocationSolution solution, EvaluationState state) {
+        Arrays.fill(state.hostPenalty, 0.0);
+        state.loadPenalty = 0.0;
+        
+        // Para cada host ativo (host ocioso não é penalizado, pois não está consumindo energia)
+        for (int host = 0; host < resources.hostCount; host++) {
+            if (solution.getVmCountOnHost(host) > 0) {
+                double penalty = hostLoadPenalty(host, state);
+                state.hostPenalty[host] = penalty;
+                state.loadPenalty += penalty;
+            }
+        }
+        
+        state.communicationSum = communicationSum(solution);
+        state.scored = true;
         
-        this.communicationMatrix = initializeCommunicationMatrix();
+        return composeFitness(solution, state);
     }
     
-    private double[][] initializeCommunicationMatrix() {
-        int n = vms.size();
-        double[][] matrix = new double[n][n];
-        for (int i = 0; i < n; i++) {
-            for (int j = 0; j < n; j++) {
-                if (i == j) {
-                    matrix[i][j] = 0.0;
-                } else {
-                    // Comunicação aleatória entre 0.1 e 1.0
-                    matrix[i][j] = 0.1 + random.nextDouble() * 0.9;
+    private double composeFitness(AllocationSolution solution, EvaluationState state) {
+        // Penalização por número de hosts ativos (FORTE - peso 3.0 por host)
+        // Quanto mais hosts ativos, mais energia consumida
+        // Isso é o componente principal para economizar energia
+        // (com EnergyObjective.POWER_MODEL a potência de cada host já está em loadPenalty)
+        double fitness = state.loadPenalty;
+        if (energyObjective == EnergyObjective.ACTIVE_HOSTS) {
+            fitness += 3.0 * solution.getActiveHostsCount();
+        }
+        
+        // Penalização por custo de comunicação (MÉDIO - peso 1.0)
+        fitness += 1.0 * normalizeCommunication(state.communicationSum);
+        
+        // Custo das migrações ao vivo em relação à alocação atual, mantido pela própria solução
+        fitness += migrationCostWeight * solution.getMigrationCostSeconds();
+        
+        return fitness;
+    }
+    
+    /**
+     * Penalizações de sobrecarga e desperdício de um host ativo, dada a carga acumulada nele.
+     */
+    private double hostLoadPenalty(int host, EvaluationState state) {
+        double penalty = 0.0;
+        
+        double cpuDemand = state.cpuLoad[host];
+        double ramDemand = state.ramLoad[host];
+        double storageDemand = state.storageLoad[host];
+        double bandwidthDemand = state.bandwidthLoad[host];
+        
+        // Capacidades do host
+        double cpuCapacity = resources.hostCpu[host];
+        double ramCapacity = resources.hostRam[host];
+        double storageCapacity = resources.hostStorage[host];
+        double bandwidthCapacity = resources.hostBw[host];
+        
+        // Energia pelo modelo de potência do host, em "hosts a plena carga" (peso 3.0, como
+        // o termo de hosts ativos que ele substitui)
+        if (energyObjective == EnergyObjective.POWER_MODEL) {
+            penalty += 3.0 * powerTable.power(host, cpuDemand / cpuCapacity) / referencePower;
+        }
+        
+        // Penalização por sobrecarga (FORTE - peso 10.0)
+        if (cpuDemand > cpuCapacity) {
+            penalty += 10.0 * (cpuDemand - cpuCapacity) / cpuCapacity;
+        }
+        if (ramDemand > ramCapacity) {
+            penalty += 10.0 * (ramDemand - ramCapacity) / ramCapacity;
+        }
+        if (storageDemand > storageCapacity) {
+            penalty += 10.0 * (storageDemand - storageCapacity) / storageCapacity;
+        }
+        if (bandwidthDemand > bandwidthCapacity) {
+            penalty += 10.0 * (bandwidthDemand - bandwidthCapacity) / bandwidthCapacity;
+        }
+        
+        // Calcular utilização média do host
+        double cpuUtilization = cpuDemand / cpuCapacity;
+        double ramUtilization = ramDemand / ramCapacity;
+        double storageUtilization = storageDemand / storageCapacity;
+        double bandwidthUtilization = bandwidthDemand / bandwidthCapacity;
+        double avgUtilization = (cpuUtilization + ramUtilization + storageUtilization + bandwidthUtilization) / 4.0;
+        
+        // Penalização por desperdício de recursos quando a utilização é muito baixa (MÉDIO - peso 2.0)
+        // Isso incentiva a consolidação: hosts com baixa utilização são fortemente penalizados
+        if (avgUtilization < 0.3) {
+            // Host com menos de 30% de utilização é penalizado
+            // Quanto menor a utilização, maior a penalização
+            penalty += 2.0 * (0.3 - avgUtilization) / 0.3;
+        } else {
+            // Para hosts com utilização razoável, penalização menor pelo desperdício
+            double cpuWaste = Math.max(0, cpuCapacity - cpuDemand) / cpuCapacity;
+            double ramWaste = Math.max(0, ramCapacity - ramDemand) / ramCapacity;
+            double storageWaste = Math.max(0, storageCapacity - storageDemand) / storageCapacity;
+            double bandwidthWaste = Math.max(0, bandwidthCapacity - bandwidthDemand) / bandwidthCapacity;
+            penalty += 0.5 * (cpuWaste + ramWaste + storageWaste + bandwidthWaste) / 4.0;
+        }
+        
+        return penalty;
+    }
+    
+    /**
+     * Move a VM para outro host atualizando o fitness de forma incremental: somente os
+     * termos de carga dos dois hosts envolvidos e a linha da VM na matriz de comunicação
+     * são recalculados. Soluções ainda sem {@link EvaluationState} são avaliadas por completo;
+     * se o estado ainda não foi pontuado, apenas as cargas por host são atualizadas.
+     */
+    void moveVm(AllocationSolution solution, int vm, int newHost) {
+        EvaluationState state = solution.currentState();
+        int oldHost = solution.getHostIndex(vm);
+        if (oldHost == newHost) {
+            return;
+        }
+        if (state == null) {
+            solution.assign(vm, newHost);
+            solution.setFitness(evaluateFitness(solution));
+            return;
+        }
+        
+        if (state.scored) {
+            state.communicationSum += communicationDelta(solution, vm, oldHost, newHost);
+        }
+        solution.assign(vm, newHost);
+        
+        if (oldHost != AllocationSolution.UNASSIGNED) {
+            state.cpuLoad[oldHost] -= resources.vmCpu[vm];
+            state.ramLoad[oldHost] -= resources.vmRam[vm];
+            state.storageLoad[oldHost] -= resources.vmStorage[vm];
+            state.bandwidthLoad[oldHost] -= resources.vmBw[vm];
+        }
+        state.cpuLoad[newHost] += resources.vmCpu[vm];
+        state.ramLoad[newHost] += resources.vmRam[vm];
+        state.storageLoad[newHost] += resources.vmStorage[vm];
+        state.bandwidthLoad[newHost] += resources.vmBw[vm];
+        
+        if (!state.scored) {
+            return;
+        }
+        if (oldHost != AllocationSolution.UNASSIGNED) {
+            updateHostPenalty(solution, state, oldHost);
+        }
+        updateHostPenalty(solution, state, newHost);
+        
+        double fitness = composeFitness(solution, state);
+        if (deltaValidation) {
+            validateDelta(solution, fitness);
+        }
+        solution.setFitness(fitness);
+    }
+    
+    private void updateHostPenalty(AllocationSolution solution, EvaluationState state, int host) {
+        double penalty = solution.getVmCountOnHost(host) > 0 ? hostLoadPenalty(host, state) : 0.0;
+        state.loadPenalty += penalty - state.hostPenalty[host];
+        state.hostPenalty[host] = penalty;
+    }
+    
+    private void validateDelta(AllocationSolution solution, double deltaFitness) {
+        double fullFitness = evaluateFitness(new AllocationSolution(solution));
+        double tolerance = 1e-9 * Math.max(1.0, Math.abs(fullFitness));
+        if (Math.abs(fullFitness - deltaFitness) > tolerance) {
+            throw new IllegalStateException(String.format(
+                "Avaliação incremental divergiu da completa: delta=%.12f, completa=%.12f",
+                deltaFitness, fullFitness));
+        }
+    }
+    
+    double calculateCommunicationCost(AllocationSolution solution) {
+        return normalizeCommunication(communicationSum(solution));
+    }
+    
+    /** Soma, sem normalizar, do custo de comunicação de todas as arestas do grafo: O(E). */
+    private double communicationSum(AllocationSolution solution) {
+        double cost = 0.0;
+        int[] genes = solution.genes();
+        int[] offsets = communicationGraph.offsets;
+        int[] neighbors = communicationGraph.neighbors;
+        double[] weights = communicationGraph.weights;
+        
+        for (int vm = 0; vm < genes.length; vm++) {
+            int host1 = genes[vm];
+            if (host1 == AllocationSolution.UNASSIGNED) {
+                continue;
+            }
+            for (int k = offsets[vm]; k < offsets[vm + 1]; k++) {
+                int other = neighbors[k];
+                // Cada aresta aparece nas duas linhas; conta apenas uma vez
+                if (other > vm) {
+                    int host2 = genes[other];
+                    if (host2 != AllocationSolution.UNASSIGNED) {
+                        cost += weights[k] * distance(host1, host2);
+                    }
                 }
             }
         }
-        return matrix;
+        
+        return cost;
+    }
+    
+    /**
+     * Variação do custo de comunicação ao mover a VM de {@code oldHost} para {@code newHost}.
+     * Percorre apenas a linha da VM no grafo: O(grau da VM).
+     */
+    private double communicationDelta(AllocationSolution solution, int vm, int oldHost, int newHost) {
+        double delta = 0.0;
+        int[] genes = solution.genes();
+        int[] offsets = communicationGraph.offsets;
+        int[] neighbors = communicationGraph.neighbors;
+        double[] weights = communicationGraph.weights;
+        
+        for (int k = offsets[vm]; k < offsets[vm + 1]; k++) {
+            int otherHost = genes[neighbors[k]];
+            if (otherHost == AllocationSolution.UNASSIGNED) {
+                continue;
+            }
+            if (oldHost != AllocationSolution.UNASSIGNED) {
+                delta -= weights[k] * distance(oldHost, otherHost);
+            }
+            delta += weights[k] * distance(newHost, otherHost);
+        }
+        
+        return delta;
+    }
+    
+    /** Custo médio por par de VMs que se comunicam. */
+    private double normalizeCommunication(double communicationSum) {
+        return communicationEdges == 0 ? 0.0 : communicationSum / communicationEdges;
+    }
+    
+    /** Distância de rede entre dois hosts; VMs no mesmo host não geram custo. */
+    private int distance(int host1, int host2) {
+        return distanceModel.distance(host1, host2);
     }
     
-    public AllocationSolution run() {
-        List<AllocationSolution> population = initializePopulation();
-        
-        AllocationSolution bestSolution = null;
+    /** Índice, na população, do vencedor de um torneio. */
+    int tournamentSelection(List<AllocationSolution> population, RandomGenerator rng) {
+        int best = -1;
         double bestFitness = Double.MAX_VALUE;
         
-        System.out.println("Executando Algoritmo Genético...");
-        System.out.printf("  População: %d, Gerações: %d%n", populationSize, maxGenerations);
-        
-        for (AllocationSolution individual : population) {
-            double fitness = evaluateFitness(individual);
-            individual.setFitness(fitness);
+        for (int i = 0; i < tournamentSize; i++) {
+            int candidate = rng.nextInt(population.size());
+            double fitness = population.get(candidate).getFitness();
             if (fitness < bestFitness) {
                 bestFitness = fitness;
-                bestSolution = new AllocationSolution(individual);
-            }
-        }
-        
-        for (int generation = 0; generation < maxGenerations; generation++) {
-            List<AllocationSolution> newPopulation = new ArrayList<>();
-            
-            newPopulation.add(new AllocationSolution(bestSolution));
-            
-            while (newPopulation.size() < populationSize) {
-                AllocationSolution parent1 = tournamentSelection(population);
-                AllocationSolution parent2 = tournamentSelection(population);
-                
-                AllocationSolution child = uniformCrossover(parent1, parent2);
-                
-                if (random.nextDouble() < mutationRate) {
-                    mutate(child);
-                }
-                
-                double fitness = evaluateFitness(child);
-                child.setFitness(fitness);
-                
-                newPopulation.add(child);
-                
-                if (fitness < bestFitness) {
-                    bestFitness = fitness;
-                    bestSolution = new AllocationSolution(child);
-                }
-            }
-            
-            population = newPopulation;
-            
-            if (generation % 5 == 0 || generation == maxGenerations - 1) {
-                System.out.printf("  Geração %d: Melhor Fitness = %.4f, Hosts Ativos = %d%n",
-                    generation + 1, bestFitness, bestSolution.getActiveHostsCount());
+                best = candidate;
             }
         }
         
-        System.out.println("Algoritmo Genético concluído!\n");
-        return bestSolution;
+        return best;
     }
     
-    private List<AllocationSolution> initializePopulation() {
-        List<AllocationSolution> population = new ArrayList<>();
+    /** Sobrescreve {@code child} com a combinação gene a gene dos dois pais. */
+    void uniformCrossover(AllocationSolution parent1, AllocationSolution parent2, AllocationSolution child,
+                          RandomGenerator rng) {
+        child.clear();
         
-        for (int i = 0; i < populationSize; i++) {
-            AllocationSolution solution = new AllocationSolution(vms, hosts);
-            
-            for (Vm vm : vms) {
-                Host randomHost = hosts.get(random.nextInt(hosts.size()));
-                solution.allocateVM(vm, randomHost);
+        for (int vm = 0; vm < vms.size(); vm++) {
+            int host = rng.nextDouble() < crossoverRate
+                ? parent1.getHostIndex(vm)
+                : parent2.getHostIndex(vm);
+            if (host != AllocationSolution.UNASSIGNED) {
+                child.assign(vm, host);
             }
-            
-            population.add(solution);
         }
-        
-        return population;
     }
     
-    private double evaluateFitness(AllocationSolution solution) {
-        double fitness = 0.0;
-        int activeHostsCount = 0;
+    /**
+     * Mutação: move uma VM aleatória para outro host.
+     * Prefere hosts já utilizados para incentivar consolidação e economia de energia.
+     */
+    void mutate(AllocationSolution solution, RandomGenerator rng) {
+        if (vms.isEmpty()) return;
         
-        // Para cada host
-        for (Host host : hosts) {
-            List<Vm> vmsOnHost = solution.getVmsOnHost(host);
-            
-            if (vmsOnHost.isEmpty()) {
-                // Host ocioso não é penalizado (pois não está consumindo energia)
+        int selectedVM = rng.nextInt(vms.size());
+        
+        if (solution.currentState() == null) {
+            solution.setFitness(evaluateFitness(solution));
+        }
+        EvaluationState state = solution.evaluationState;
+        
+        // Hosts candidatos nas duas metades de um vetor reaproveitado pela thread:
+        // todos os que comportam a VM no início e, a partir de hostCount, os já utilizados
+        int hostCount = hosts.size();
+        int[] candidates = candidateHosts.get();
+        int availableCount = 0;
+        int usedCount = 0;
+        int currentHost = solution.getHostIndex(selectedVM);
+        
+        for (int host = 0; host < hostCount; host++) {
+            if (!canHostAccommodateVM(host, selectedVM, state)) {
                 continue;
             }
+            candidates[availableCount++] = host;
             
-            activeHostsCount++;
-            
-            // Calcular demanda total de recursos
-            double cpuDemand = 0.0;
-            double ramDemand = 0.0;
-            double storageDemand = 0.0;
-            double bandwidthDemand = 0.0;
-            
-            for (Vm vm : vmsOnHost) {
-                double vmMips = vm.getTotalMipsCapacity();
-                cpuDemand += vmMips;
-                ramDemand += vm.getRam().getCapacity();
-                storageDemand += vm.getStorage().getCapacity();
-                bandwidthDemand += vm.getBw().getCapacity();
-            }
-            
-            // Capacidades do host
-            double cpuCapacity = host.getTotalMipsCapacity();
-            double ramCapacity = host.getRam().getCapacity();
-            double storageCapacity = host.getStorage().getCapacity();
-            double bandwidthCapacity = host.getBw().getCapacity();
-            
-            // Penalização por sobrecarga (FORTE - peso 10.0)
-            if (cpuDemand > cpuCapacity) {
-                fitness += 10.0 * (cpuDemand - cpuCapacity) / cpuCapacity;
-            }
-            if (ramDemand > ramCapacity) {
-                fitness += 10.0 * (ramDemand - ramCapacity) / ramCapacity;
-            }
-            if (storageDemand > storageCapacity) {
-                fitness += 10.0 * (storageDemand - storageCapacity) / storageCapacity;
-            }
-            if (bandwidthDemand > bandwidthCapacity) {
-                fitness += 10.0 * (bandwidthDemand - bandwidthCapacity) / bandwidthCapacity;
+            int vmCountExcludingCurrent = solution.getVmCountOnHost(host);
+            if (host == currentHost) {
+                vmCountExcludingCurrent--;
             }
-            
-            // Calcular utilização média do host
-            double cpuUtilization = cpuDemand / cpuCapacity;
-            double ramUtilization = ramDemand / ramCapacity;
-            double storageUtilization = storageDemand / storageCapacity;
-            double bandwidthUtilization = bandwidthDemand / bandwidthCapacity;
-            double avgUtilization = (cpuUtilization + ramUtilization + storageUtilization + bandwidthUtilization) / 4.0;
-            
-            // Penalização por desperdício de recursos quando a utilização é muito baixa (MÉDIO - peso 2.0)
-            // Isso incentiva a consolidação: hosts com baixa utilização são fortemente penalizados
-            if (avgUtilization < 0.3) {
-                // Host com menos de 30% de utilização é penalizado
-                // Quanto menor a utilização, maior a penalização
-                double wastePenalty = 2.0 * (0.3 - avgUtilization) / 0.3;
-                fitness += wastePenalty;
-            } else {
-                // Para hosts com utilização razoável, penalização menor pelo desperdício
-                double cpuWaste = Math.max(0, cpuCapacity - cpuDemand) / cpuCapacity;
-                double ramWaste = Math.max(0, ramCapacity - ramDemand) / ramCapacity;
-                double storageWaste = Math.max(0, storageCapacity - storageDemand) / storageCapacity;
-                double bandwidthWaste = Math.max(0, bandwidthCapacity - bandwidthDemand) / bandwidthCapacity;
-                fitness += 0.5 * (cpuWaste + ramWaste + storageWaste + bandwidthWaste) / 4.0;
+            if (vmCountExcludingCurrent > 0) {
+                candidates[hostCount + usedCount++] = host;
             }
         }
         
-        // Penalização por número de hosts ativos (FORTE - peso 3.0 por host)
-        // Quanto mais hosts ativos, mais energia consumida
-        // Isso é o componente principal para economizar energia
-        fitness += 3.0 * activeHostsCount;
+        if (availableCount == 0) {
+            return;
+        }
         
-        // Penalização por custo de comunicação (MÉDIO - peso 1.0)
-        double communicationCost = calculateCommunicationCost(solution);
-        fitness += 1.0 * communicationCost;
+        int newHost;
+        // 70% de chance de preferir hosts já utilizados (consolidação)
+        // Isso economiza energia ao evitar ligar hosts novos desnecessariamente
+        if (usedCount > 0 && rng.nextDouble() < 0.7) {
+            newHost = candidates[hostCount + rng.nextInt(usedCount)];
+        } else {
+            newHost = candidates[rng.nextInt(availableCount)];
+        }
         
-        return fitness;
+        moveVm(solution, selectedVM, newHost);
     }
     
-    private double calculateCommunicationCost(AllocationSolution solution) {
-        double cost = 0.0;
-        
-        for (int i = 0; i < vms.size(); i++) {
-            for (int j = i + 1; j < vms.size(); j++) {
-                Vm vm1 = vms.get(i);
-                Vm vm2 = vms.get(j);
-                
-                double communication = communicationMatrix[i][j];
-                if (communication > 0) {
-                    Host host1 = solution.getHostForVM(vm1);
-                    Host host2 = solution.getHostForVM(vm2);
-                    
-                    if (host1 != null && host2 != null) {
-                        if (!host1.equals(host2)) {
-                            int distance = Math.abs((int)(host1.getId() - host2.getId())) + 1;
-                            cost += communication * distance;
-                        }
-                    }
-                }
+    /**
+     * Repara (se ativado), aplica o limite de migrações (se houver alocação atual) e pontua
+     * um indivíduo recém-gerado. As cargas por host são calculadas antes, caso ainda não
+     * existam, para que o reparo não exija avaliação completa.
+     */
+    void repairAndScore(AllocationSolution solution) {
+        repairAndScore(solution, probe);
+    }
+    
+    /** Como {@link #repairAndScore(AllocationSolution)}, contando a avaliação em {@code observing}. */
+    void repairAndScore(AllocationSolution solution, GenerationProbe observing) {
+        if (applyCachedFitness(solution)) {
+            return;
+        }
+        EvaluationState state = solution.currentState();
+        if (state == null) {
+            state = computeLoads(solution);
+        }
+        int moves = 0;
+        if (repairEnabled) {
+            moves = repair(solution, state);
+            if (moves > 0) {
+                repairedIndividuals.increment();
+                repairMoves.add(moves);
             }
         }
+        int reverted = solution.getMigrationCount() > migrationLimit ? enforceMigrationLimit(solution) : 0;
+        solution.setFitness(score(solution, state));
+        scoredIndividuals.increment();
+        if (observing != null) {
+            observing.evaluated(isFeasible(state), moves);
+        }
         
-        return cost / (vms.size() * (vms.size() - 1) / 2.0);
+        // Só entram no cache genomas que o reparo e o limite de migrações não alteraram:
+        // assim um acerto devolve exatamente o que a avaliação devolveria, e o resultado
+        // não depende de qual worker ou ilha pontuou o genoma primeiro
+        if (fitnessCache != null && moves == 0 && reverted == 0) {
+            fitnessCache.put(solution.hash(), solution.checksum(), solution.getFitness());
+        }
     }
     
-    private AllocationSolution tournamentSelection(List<AllocationSolution> population) {
-        AllocationSolution best = null;
-        double bestFitness = Double.MAX_VALUE;
+    /**
+     * Gera um filho do modo NSGA-II em {@code child}: crossover, mutação e reparo como no
+     * modo escalar, seguidos do cálculo dos objetivos separados.
+     */
+    void breedMultiObjective(AllocationSolution parent1, AllocationSolution parent2, AllocationSolution child,
+                             RandomGenerator rng) {
+        GenerationProbe observing = probe;
+        long crossoverStart = observing != null ? System.nanoTime() : 0L;
+        uniformCrossover(parent1, parent2, child, rng);
+        boolean mutated = rng.nextDouble() < mutationRate;
+        long evaluationStart = observing != null ? System.nanoTime() : 0L;
+        if (observing != null) {
+            observing.crossoverNanos.add(evaluationStart - crossoverStart);
+        }
+        prepareForMutation(child, mutated);
+        if (mutated) {
+            long mutationStart = observing != null ? System.nanoTime() : 0L;
+            mutate(child, rng);
+            if (observing != null) {
+                long mutationEnd = System.nanoTime();
+                observing.mutationNanos.add(mutationEnd - mutationStart);
+                observing.evaluationNanos.add(mutationStart - evaluationStart);
+                evaluationStart = mutationEnd;
+            }
+        }
+        repairAndScore(child, observing);
+        computeObjectives(child);
+        if (observing != null) {
+            observing.evaluationNanos.add(System.nanoTime() - evaluationStart);
+        }
+    }
+    
+    /** Calcula os objetivos e a violação de capacidade da solução a partir do seu estado. */
+    void computeObjectives(AllocationSolution solution) {
+        EvaluationState state = solution.currentState();
+        if (state == null || !state.scored) {
+            solution.setFitness(evaluateFitness(solution));
+            state = solution.evaluationState;
+        }
+        if (solution.objectives == null) {
+            solution.objectives = new double[Nsga2.OBJECTIVES];
+        }
         
-        for (int i = 0; i < tournamentSize; i++) {
-            AllocationSolution candidate = population.get(random.nextInt(population.size()));
-            if (candidate.getFitness() < bestFitness) {
-                bestFitness = candidate.getFitness();
-                best = candidate;
+        double violation = 0.0;
+        double power = 0.0;
+        double utilizationSum = 0.0;
+        double utilizationSquares = 0.0;
+        for (int host = 0; host < resources.hostCount; host++) {
+            if (solution.getVmCountOnHost(host) == 0) {
+                continue;
             }
+            double cpu = state.cpuLoad[host] / resources.hostCpu[host];
+            double ram = state.ramLoad[host] / resources.hostRam[host];
+            double storage = state.storageLoad[host] / resources.hostStorage[host];
+            double bandwidth = state.bandwidthLoad[host] / resources.hostBw[host];
+            power += powerTable.power(host, cpu);
+            violation += Math.max(0, cpu - 1) + Math.max(0, ram - 1)
+                + Math.max(0, storage - 1) + Math.max(0, bandwidth - 1);
+            double utilization = (cpu + ram + storage + bandwidth) / 4.0;
+            utilizationSum += utilization;
+            utilizationSquares += utilization * utilization;
         }
+        int active = solution.getActiveHostsCount();
+        double mean = active == 0 ? 0.0 : utilizationSum / active;
+        double variance = active == 0 ? 0.0 : Math.max(0.0, utilizationSquares / active - mean * mean);
         
-        return new AllocationSolution(best);
+        solution.objectives[0] = energyObjective == EnergyObjective.POWER_MODEL ? power : active;
+        solution.objectives[1] = normalizeCommunication(state.communicationSum);
+        solution.objectives[2] = Math.sqrt(variance);
+        solution.constraintViolation = violation;
     }
     
-    private AllocationSolution uniformCrossover(AllocationSolution parent1, AllocationSolution parent2) {
-        AllocationSolution child = new AllocationSolution(vms, hosts);
-        
-        for (Vm vm : vms) {
-            if (random.nextDouble() < crossoverRate) {
-                Host host = parent1.getHostForVM(vm);
-                if (host != null) {
-                    child.allocateVM(vm, host);
-                }
-            } else {
-                Host host = parent2.getHostForVM(vm);
-                if (host != null) {
-                    child.allocateVM(vm, host);
+    /**
+     * Usa o fitness guardado no cache, se o genoma já foi pontuado. O estado de avaliação é
+     * descartado, então um movimento posterior reavalia a solução por completo.
+     */
+    private boolean applyCachedFitness(AllocationSolution solution) {
+        if (fitnessCache == null) {
+            return false;
+        }
+        double cached = fitnessCache.get(solution.hash(), solution.checksum());
+        if (Double.isNaN(cached)) {
+            return false;
+        }
+        solution.invalidateState();
+        solution.setFitness(cached);
+        scoredIndividuals.increment();
+        return true;
+    }
+    
+    /**
+     * Busca local de primeira melhora: cada VM de {@code candidates} é testada no host de
+     * cada VM com que se comunica, e o movimento é mantido se reduzir o fitness. Cada
+     * tentativa custa um {@link #moveVm} incremental (O(grau da VM)). Repete até
+     * {@code maxPasses} vezes ou até uma passada sem melhora e termina com uma avaliação
+     * completa, que descarta o erro acumulado pelos deltas.
+     *
+     * @return número de movimentos mantidos
+     */
+    int refine(AllocationSolution solution, int[] candidates, int maxPasses) {
+        EvaluationState state = solution.currentState();
+        if (state == null || !state.scored) {
+            solution.setFitness(evaluateFitness(solution));
+            state = solution.currentState();
+        }
+        int[] offsets = communicationGraph.offsets;
+        int[] neighbors = communicationGraph.neighbors;
+        int kept = 0;
+        for (int pass = 0; pass < maxPasses; pass++) {
+            int improved = 0;
+            for (int vm : candidates) {
+                int current = solution.getHostIndex(vm);
+                for (int k = offsets[vm]; k < offsets[vm + 1]; k++) {
+                    int target = solution.getHostIndex(neighbors[k]);
+                    if (target == current || target == AllocationSolution.UNASSIGNED
+                        || !canHostAccommodateVM(target, vm, state)) {
+                        continue;
+                    }
+                    double before = solution.getFitness();
+                    moveVm(solution, vm, target);
+                    if (solution.getFitness() < before - REFINEMENT_EPSILON) {
+                        current = target;
+                        improved++;
+                    } else {
+                        moveVm(solution, vm, current);
+                    }
                 }
             }
+            kept += improved;
+            if (improved == 0) {
+                break;
+            }
         }
-        
-        return child;
+        solution.setFitness(evaluateFitness(solution));
+        return kept;
     }
     
     /**
-     * Mutação: move uma VM aleatória para outro host.
-     * Prefere hosts já utilizados para incentivar consolidação e economia de energia.
+     * Retira VMs de hosts sobrecarregados e as coloca em hosts com capacidade residual,
+     * preferindo hosts já ativos para não desfazer a consolidação. Percorre as VMs uma vez,
+     * a partir de uma posição derivada do hash do genoma (o mesmo genoma é sempre reparado
+     * da mesma forma), e cada teste de viabilidade compara a carga do host
+     * com sua capacidade em O(1). VMs sem destino viável permanecem onde estão.
+     *
+     * @return número de VMs movidas
      */
-    private void mutate(AllocationSolution solution) {
-        if (vms.isEmpty()) return;
-        
-        Vm selectedVM = vms.get(random.nextInt(vms.size()));
+    private int repair(AllocationSolution solution, EvaluationState state) {
+        boolean anyOverloaded = false;
+        for (int host = 0; host < resources.hostCount && !anyOverloaded; host++) {
+            anyOverloaded = isOverloaded(host, state);
+        }
+        if (!anyOverloaded) {
+            return 0;
+        }
         
-        List<Host> availableHosts = new ArrayList<>();
-        for (Host host : hosts) {
-            if (canHostAccommodateVM(host, selectedVM, solution)) {
-                availableHosts.add(host);
+        int vmCount = resources.vmCount;
+        int start = (int) Math.floorMod(solution.hash(), (long) vmCount);
+        int moves = 0;
+        for (int i = 0; i < vmCount; i++) {
+            int vm = start + i < vmCount ? start + i : start + i - vmCount;
+            int host = solution.getHostIndex(vm);
+            if (host == AllocationSolution.UNASSIGNED || !isOverloaded(host, state)) {
+                continue;
+            }
+            int target = findResidualHost(solution, state, vm, host);
+            if (target >= 0) {
+                moveVm(solution, vm, target);
+                moves++;
             }
         }
-        
-        if (availableHosts.isEmpty()) {
-            return;
+        return moves;
+    }
+    
+    /**
+     * Devolve ao host atual as VMs migradas além de {@code migrationLimit}, percorrendo as
+     * VMs a partir da mesma posição derivada do hash usada pelo reparo.
+     *
+     * @return número de VMs devolvidas
+     */
+    private int enforceMigrationLimit(AllocationSolution solution) {
+        int vmCount = resources.vmCount;
+        int start = vmCount == 0 ? 0 : (int) Math.floorMod(solution.hash(), (long) vmCount);
+        int[] origin = layout.origin();
+        int migrations = 0;
+        int reverted = 0;
+        // O contador de migrações da solução chega ao limite quando a última excedente volta
+        for (int i = 0; i < vmCount && solution.getMigrationCount() > migrationLimit; i++) {
+            int vm = start + i < vmCount ? start + i : start + i - vmCount;
+            int current = origin[vm];
+            if (current == AllocationSolution.UNASSIGNED || solution.getHostIndex(vm) == current) {
+                continue;
+            }
+            if (++migrations > migrationLimit) {
+                moveVm(solution, vm, current);
+                reverted++;
+            }
         }
-        
-        List<Host> usedHosts = new ArrayList<>();
-        List<Host> emptyHosts = new ArrayList<>();
-        
-        Host currentHost = solution.getHostForVM(selectedVM);
-        
-        for (Host host : availableHosts) {
-            List<Vm> vmsOnHost = solution.getVmsOnHost(host);
-            int vmCountExcludingCurrent = vmsOnHost.size();
-            if (host.equals(currentHost) && vmsOnHost.contains(selectedVM)) {
-                vmCountExcludingCurrent--;
+        return reverted;
+    }
+    
+    /** Primeiro host ativo (ou, na falta dele, ocioso) após {@code currentHost} que comporta a VM. */
+    private int findResidualHost(AllocationSolution solution, EvaluationState state, int vm, int currentHost) {
+        int hostCount = resources.hostCount;
+        int firstIdle = -1;
+        for (int k = 1; k < hostCount; k++) {
+            int host = currentHost + k < hostCount ? currentHost + k : currentHost + k - hostCount;
+            if (!canHostAccommodateVM(host, vm, state)) {
+                continue;
             }
-            
-            if (vmCountExcludingCurrent > 0) {
-                usedHosts.add(host);
-            } else {
-                emptyHosts.add(host);
+            if (solution.getVmCountOnHost(host) > 0) {
+                return host;
+            }
+            if (firstIdle < 0) {
+                firstIdle = host;
             }
         }
-        
-        Host newHost;
-        // 70% de chance de preferir hosts já utilizados (consolidação)
-        // Isso economiza energia ao evitar ligar hosts novos desnecessariamente
-        if (!usedHosts.isEmpty() && random.nextDouble() < 0.7) {
-            newHost = usedHosts.get(random.nextInt(usedHosts.size()));
-        } else {
-            newHost = availableHosts.get(random.nextInt(availableHosts.size()));
+        return firstIdle;
+    }
+    
+    private boolean isFeasible(EvaluationState state) {
+        for (int host = 0; host < resources.hostCount; host++) {
+            if (isOverloaded(host, state)) {
+                return false;
+            }
         }
+        return true;
+    }
+    
+    private boolean isOverloaded(int host, EvaluationState state) {
+        return state.cpuLoad[host] > resources.hostCpu[host]
+            || state.ramLoad[host] > resources.hostRam[host]
+            || state.storageLoad[host] > resources.hostStorage[host]
+            || state.bandwidthLoad[host] > resources.hostBw[host];
+    }
+    
+    private void resetRepairCounters() {
+        scoredIndividuals.reset();
+        repairedIndividuals.reset();
+        repairMoves.reset();
+    }
+    
+    private double currentRepairRate() {
+        long scored = scoredIndividuals.sum();
+        return scored == 0 ? 0.0 : (double) repairedIndividuals.sum() / scored;
+    }
+    
+    /**
+     * Verifica se a VM cabe no host somando sua demanda à carga atual do host.
+     */
+    private boolean canHostAccommodateVM(int host, int vm, EvaluationState state) {
+        double cpuDemand = state.cpuLoad[host] + resources.vmCpu[vm];
+        double ramDemand = state.ramLoad[host] + resources.vmRam[vm];
+        double storageDemand = state.storageLoad[host] + resources.vmStorage[vm];
+        double bandwidthDemand = state.bandwidthLoad[host] + resources.vmBw[vm];
         
-        solution.reallocateVM(selectedVM, newHost);
+        return cpuDemand <= resources.hostCpu[host] &&
+               ramDemand <= resources.hostRam[host] &&
+               storageDemand <= resources.hostStorage[host] &&
+               bandwidthDemand <= resources.hostBw[host];
+    }
+    
+    /** Heurísticas usadas para semear a população inicial (ver {@link #setSeeding}). */
+    public enum SeedingHeuristic {
+        /** First-Fit Decreasing: primeiro host aberto que comporta a VM. */
+        FIRST_FIT_DECREASING,
+        /** Best-Fit Decreasing: host aberto com a menor sobra de recursos após a VM. */
+        BEST_FIT_DECREASING,
+        /** Best fit pelo menor aumento de potência; hosts novos abertos do mais eficiente ao menos. */
+        POWER_AWARE_BEST_FIT
+    }
+    
+    /** Termo de energia do fitness (ver {@link #setEnergyObjective}). */
+    public enum EnergyObjective {
+        /** Peso fixo por host ativo. */
+        ACTIVE_HOSTS,
+        /** Potência de cada host ativo pelo seu modelo de energia, conforme a carga de CPU. */
+        POWER_MODEL
+    }
+    
+    /**
+     * Uma migração do plano de {@link #planMigrations}: {@code source} é {@code null} para
+     * uma VM ainda não alocada.
+     */
+    public record MigrationStep(Vm vm, Host source, Host target) {
+    }
+    
+    /** Critério que encerrou uma execução. */
+    public enum TerminationReason {
+        /** Todas as {@code maxGenerations} gerações foram executadas. */
+        MAX_GENERATIONS,
+        /** O melhor fitness não melhorou além do epsilon durante a janela configurada. */
+        STAGNATION,
+        /** A diversidade da população caiu abaixo do mínimo configurado. */
+        DIVERSITY,
+        /** O prazo de relógio esgotou; a melhor solução até então foi devolvida. */
+        DEADLINE
+    }
+    
+    /** Destino dos migrantes de cada ilha no modo de ilhas. */
+    public enum MigrationTopology {
+        /** Cada ilha envia para a seguinte, em anel. */
+        RING,
+        /** Cada ilha envia para outra ilha sorteada a cada migração. */
+        RANDOM
     }
     
-    private boolean canHostAccommodateVM(Host host, Vm vm, AllocationSolution solution) {
-        List<Vm> vmsOnHost = solution.getVmsOnHost(host);
+    /**
+     * Evolução do melhor fitness de uma ilha: valor e tempo decorrido desde o início da
+     * execução ao fim de cada geração, para comparar a convergência em tempo real.
+     */
+    public record IslandTelemetry(int island, double[] bestFitnessByGeneration,
+                                  long[] elapsedNanosByGeneration, int immigrantsReceived,
+                                  TerminationReason terminationReason) {
         
-        double cpuDemand = vm.getTotalMipsCapacity();
-        double ramDemand = vm.getRam().getCapacity();
-        double storageDemand = vm.getStorage().getCapacity();
-        double bandwidthDemand = vm.getBw().getCapacity();
+        public double bestFitness() {
+            return bestFitnessByGeneration.length == 0
+                ? Double.MAX_VALUE
+                : bestFitnessByGeneration[bestFitnessByGeneration.length - 1];
+        }
         
-        for (Vm existingVM : vmsOnHost) {
-            cpuDemand += existingVM.getTotalMipsCapacity();
-            ramDemand += existingVM.getRam().getCapacity();
-            storageDemand += existingVM.getStorage().getCapacity();
-            bandwidthDemand += existingVM.getBw().getCapacity();
+        /** Tempo até a geração em que o melhor fitness final foi alcançado. */
+        public long nanosToBest() {
+            double best = bestFitness();
+            for (int g = 0; g < bestFitnessByGeneration.length; g++) {
+                if (bestFitnessByGeneration[g] == best) {
+                    return elapsedNanosByGeneration[g];
+                }
+            }
+            return 0L;
         }
+    }
+    
+    /**
+     * Cargas por host e termos do fitness de um indivíduo já avaliado, mantidos para
+     * que um movimento de VM atualize apenas o que mudou.
+     */
+    static final class EvaluationState {
+        final double[] cpuLoad;
+        final double[] ramLoad;
+        final double[] storageLoad;
+        final double[] bandwidthLoad;
+        // Penalização de sobrecarga e desperdício de cada host (zero para hosts ociosos)
+        final double[] hostPenalty;
+        double loadPenalty;
+        double communicationSum;
+        // Falso enquanto só as cargas estão atualizadas (penalizações e comunicação pendentes)
+        boolean scored;
+        // Verdadeiro quando o genoma mudou depois do cálculo das cargas
+        boolean stale;
         
-        double cpuCapacity = host.getTotalMipsCapacity();
-        double ramCapacity = host.getRam().getCapacity();
-        double storageCapacity = host.getStorage().getCapacity();
-        double bandwidthCapacity = host.getBw().getCapacity();
+        EvaluationState(int hostCount) {
+            this.cpuLoad = new double[hostCount];
+            this.ramLoad = new double[hostCount];
+            this.storageLoad = new double[hostCount];
+            this.bandwidthLoad = new double[hostCount];
+            this.hostPenalty = new double[hostCount];
+        }
         
-        return cpuDemand <= cpuCapacity &&
-               ramDemand <= ramCapacity &&
-               storageDemand <= storageCapacity &&
-               bandwidthDemand <= bandwidthCapacity;
+        void clear() {
+            Arrays.fill(cpuLoad, 0.0);
+            Arrays.fill(ramLoad, 0.0);
+            Arrays.fill(storageLoad, 0.0);
+            Arrays.fill(bandwidthLoad, 0.0);
+            Arrays.fill(hostPenalty, 0.0);
+            loadPenalty = 0.0;
+            communicationSum = 0.0;
+            scored = false;
+            stale = false;
+        }
     }
     
+    /**
+     * Indivíduo da população codificado como genoma compacto: {@code genes[i]} guarda o
+     * índice do host onde está a i-ésima VM. Contadores de VMs por host são mantidos
+     * junto ao genoma, e a conversão para {@code Map<Vm, Host>} acontece apenas em
+     * {@link #getVmToHost()}.
+     */
     public static class AllocationSolution {
-        private final Map<Vm, Host> vmToHost;
-        private final Set<Host> activeHosts;
-        private final List<Vm> vms;
-        private final List<Host> hosts;
+        /** Valor do gene para uma VM ainda não alocada. */
+        static final int UNASSIGNED = -1;
+        
+        private final Layout layout;
+        private final int[] genes;
+        private final int[] vmsPerHost;
+        private int activeHostsCount;
         private double fitness;
+        // Hash de Zobrist do genoma e checksum independente, mantidos de forma incremental
+        private long hash;
+        private long checksum;
+        // VMs fora do host de origem do layout e custo das suas migrações (em microssegundos)
+        private int migrationCount;
+        private long migrationCostMicros;
+        // Objetivos do modo NSGA-II (nulo fora dele) e violação total de capacidade
+        private double[] objectives;
+        private double constraintViolation;
+        // Estado da última avaliação; marcado como desatualizado (e reaproveitado na próxima
+        // avaliação) quando o genoma é alterado fora do algoritmo
+        EvaluationState evaluationState;
         
         public AllocationSolution(List<Vm> vms, List<Host> hosts) {
-            this.vms = new ArrayList<>(vms);
-            this.hosts = new ArrayList<>(hosts);
-            this.vmToHost = new HashMap<>();
-            this.activeHosts = new HashSet<>();
+            this(new Layout(vms, hosts));
+        }
+        
+        AllocationSolution(Layout layout) {
+            this.layout = layout;
+            this.genes = new int[layout.vms.size()];
+            this.vmsPerHost = new int[layout.hosts.size()];
+            Arrays.fill(genes, UNASSIGNED);
             this.fitness = Double.MAX_VALUE;
         }
         
         public AllocationSolution(AllocationSolution other) {
-            this.vms = new ArrayList<>(other.vms);
-            this.hosts = new ArrayList<>(other.hosts);
-            this.vmToHost = new HashMap<>(other.vmToHost);
-            this.activeHosts = new HashSet<>(other.activeHosts);
+            this.layout = other.layout;
+            this.genes = other.genes.clone();
+            this.vmsPerHost = other.vmsPerHost.clone();
+            this.activeHostsCount = other.activeHostsCount;
             this.fitness = other.fitness;
+            this.hash = other.hash;
+            this.checksum = other.checksum;
+            this.migrationCount = other.migrationCount;
+            this.migrationCostMicros = other.migrationCostMicros;
+            this.objectives = other.objectives == null ? null : other.objectives.clone();
+            this.constraintViolation = other.constraintViolation;
+        }
+        
+        /** Sobrescreve esta solução com o genoma e o fitness de outra, sem alocar. */
+        void copyFrom(AllocationSolution other) {
+            System.arraycopy(other.genes, 0, genes, 0, genes.length);
+            System.arraycopy(other.vmsPerHost, 0, vmsPerHost, 0, vmsPerHost.length);
+            activeHostsCount = other.activeHostsCount;
+            fitness = other.fitness;
+            hash = other.hash;
+            checksum = other.checksum;
+            migrationCount = other.migrationCount;
+            migrationCostMicros = other.migrationCostMicros;
+            if (other.objectives != null) {
+                if (objectives == null) {
+                    objectives = new double[other.objectives.length];
+                }
+                System.arraycopy(other.objectives, 0, objectives, 0, objectives.length);
+            }
+            constraintViolation = other.constraintViolation;
+            invalidateState();
+        }
+        
+        /** Volta ao genoma vazio (nenhuma VM alocada), sem alocar. */
+        void clear() {
+            Arrays.fill(genes, UNASSIGNED);
+            Arrays.fill(vmsPerHost, 0);
+            activeHostsCount = 0;
+            fitness = Double.MAX_VALUE;
+            hash = 0L;
+            checksum = 0L;
+            migrationCount = 0;
+            migrationCostMicros = 0L;
+            invalidateState();
+        }
+        
+        /** Estado de avaliação compatível com o genoma atual, ou {@code null}. */
+        EvaluationState currentState() {
+            return evaluationState != null && !evaluationState.stale ? evaluationState : null;
+        }
+        
+        void invalidateState() {
+            if (evaluationState != null) {
+                evaluationState.stale = true;
+            }
         }
         
         public void allocateVM(Vm vm, Host host) {
-            vmToHost.put(vm, host);
-            activeHosts.add(host);
+            invalidateState();
+            assign(layout.requireVmIndex(vm), layout.requireHostIndex(host));
         }
         
         public void reallocateVM(Vm vm, Host newHost) {
-            Host oldHost = vmToHost.remove(vm);
-            if (oldHost != null) {
-                boolean hostStillUsed = vmToHost.values().contains(oldHost);
-                if (!hostStillUsed) {
-                    activeHosts.remove(oldHost);
+            invalidateState();
+            assign(layout.requireVmIndex(vm), layout.requireHostIndex(newHost));
+        }
+        
+        /**
+         * Move a VM de índice {@code vmIndex} para o host de índice {@code hostIndex},
+         * atualizando os contadores por host, o hash do genoma e o custo de migração.
+         */
+        void assign(int vmIndex, int hostIndex) {
+            int oldHost = genes[vmIndex];
+            if (oldHost == hostIndex) {
+                return;
+            }
+            int[] origin = layout.origin();
+            if (origin != null && origin[vmIndex] != UNASSIGNED) {
+                int from = origin[vmIndex];
+                if (oldHost != UNASSIGNED && oldHost != from) {
+                    migrationCount--;
+                    migrationCostMicros -= layout.migrationCostMicros(vmIndex, oldHost);
+                }
+                if (hostIndex != from) {
+                    migrationCount++;
+                    migrationCostMicros += layout.migrationCostMicros(vmIndex, hostIndex);
+                }
+            }
+            if (oldHost != UNASSIGNED) {
+                hash ^= layout.geneHash(vmIndex, oldHost);
+                checksum -= layout.geneChecksum(vmIndex, oldHost);
+                if (--vmsPerHost[oldHost] == 0) {
+                    activeHostsCount--;
                 }
             }
-            vmToHost.put(vm, newHost);
-            activeHosts.add(newHost);
+            hash ^= layout.geneHash(vmIndex, hostIndex);
+            checksum += layout.geneChecksum(vmIndex, hostIndex);
+            genes[vmIndex] = hostIndex;
+            if (vmsPerHost[hostIndex]++ == 0) {
+                activeHostsCount++;
+            }
+        }
+        
+        /** Hash de Zobrist do genoma: XOR das chaves de cada par (VM, host). */
+        long hash() {
+            return hash;
+        }
+        
+        /** Soma ponderada dos genes, usada para confirmar coincidências de {@link #hash()}. */
+        long checksum() {
+            return checksum;
+        }
+        
+        /** Genoma subjacente, exposto apenas para leitura nos laços internos do algoritmo. */
+        int[] genes() {
+            return genes;
+        }
+        
+        /** VMs que esta solução tira do host da alocação atual. */
+        public int getMigrationCount() {
+            return migrationCount;
+        }
+        
+        /** Soma dos tempos estimados das migrações ao vivo desta solução, em segundos. */
+        public double getMigrationCostSeconds() {
+            return migrationCostMicros / 1e6;
+        }
+        
+        /** VMs na ordem dos genes. */
+        List<Vm> vms() {
+            return layout.vms;
+        }
+        
+        /** Hosts na ordem dos índices usados nos genes. */
+        List<Host> hosts() {
+            return layout.hosts;
+        }
+        
+        int getHostIndex(int vmIndex) {
+            return genes[vmIndex];
+        }
+        
+        int getVmCountOnHost(int hostIndex) {
+            return vmsPerHost[hostIndex];
         }
         
         public Host getHostForVM(Vm vm) {
-            return vmToHost.get(vm);
+            int vmIndex = layout.vmIndexOf(vm);
+            if (vmIndex < 0 || genes[vmIndex] == UNASSIGNED) {
+                return null;
+            }
+            return layout.hosts.get(genes[vmIndex]);
         }
         
         public List<Vm> getVmsOnHost(Host host) {
-            List<Vm> result = new ArrayList<>();
-            for (Map.Entry<Vm, Host> entry : vmToHost.entrySet()) {
-                if (entry.getValue().equals(host)) {
-                    result.add(entry.getKey());
+            int hostIndex = layout.hostIndexOf(host);
+            if (hostIndex < 0) {
+                return new ArrayList<>();
+            }
+            List<Vm> result = new ArrayList<>(vmsPerHost[hostIndex]);
+            for (int i = 0; i < genes.length; i++) {
+                if (genes[i] == hostIndex) {
+                    result.add(layout.vms.get(i));
                 }
             }
             return result;
         }
         
         public int getActiveHostsCount() {
-            return activeHosts.size();
+            return activeHostsCount;
         }
         
         public Map<Vm, Host> getVmToHost() {
-            return new HashMap<>(vmToHost);
+            Map<Vm, Host> vmToHost = new HashMap<>();
+            for (int i = 0; i < genes.length; i++) {
+                if (genes[i] != UNASSIGNED) {
+                    vmToHost.put(layout.vms.get(i), layout.hosts.get(genes[i]));
+                }
+            }
+            return vmToHost;
         }
         
         public double getFitness() {
             return fitness;
         }
         
+        /**
+         * Objetivos calculados no modo NSGA-II, todos minimizados: hosts ativos (ou potência
+         * em watts, com {@link EnergyObjective#POWER_MODEL}), custo de comunicação normalizado
+         * e desequilíbrio de carga (desvio padrão da utilização média dos hosts ativos).
+         * Vazio se a solução não veio desse modo.
+         */
+        public double[] getObjectives() {
+            return objectives == null ? new double[0] : objectives.clone();
+        }
+        
+        /** Soma das sobrecargas relativas de todos os hosts e recursos (0 = viável). */
+        public double getConstraintViolation() {
+            return constraintViolation;
+        }
+        
+        double objective(int index) {
+            return objectives[index];
+        }
+        
+        double constraintViolation() {
+            return constraintViolation;
+        }
+        
+        void setObjectives(double[] objectives, double constraintViolation) {
+            this.objectives = objectives.clone();
+            this.constraintViolation = constraintViolation;
+        }
+        
         public void setFitness(double fitness) {
             this.fitness = fitness;
         }
+        
+        /**
+         * Listas de VMs e hosts e os índices correspondentes, compartilhados (somente leitura)
+         * por todos os indivíduos de uma mesma execução.
+         */
+        static final class Layout {
+            private static final long ZOBRIST_SEED = 0x2545F4914F6CDD1DL;
+            
+            final List<Vm> vms;
+            final List<Host> hosts;
+            private final Map<Vm, Integer> vmIndex;
+            private final Map<Host, Integer> hostIndex;
+            // Chave aleatória (fixa) de cada VM, base do hash de Zobrist dos genomas
+            private final long[] vmKeys;
+            // Alocação atual (nula se não informada), RAM das VMs em megabits e banda dos hosts
+            private int[] origin;
+            private double[] vmRamMegabits;
+            private long[] hostBw;
+            
+            Layout(List<Vm> vms, List<Host> hosts) {
+                this.vms = List.copyOf(vms);
+                this.hosts = List.copyOf(hosts);
+                // Por identidade: o hashCode de VMs e hosts do CloudSim Plus muda quando eles
+                // são associados a um broker ou datacenter
+                this.vmIndex = new IdentityHashMap<>();
+                this.hostIndex = new IdentityHashMap<>();
+                for (int i = 0; i < this.vms.size(); i++) {
+                    vmIndex.put(this.vms.get(i), i);
+                }
+                for (int i = 0; i < this.hosts.size(); i++) {
+                    hostIndex.put(this.hosts.get(i), i);
+                }
+                SplittableRandom keys = new SplittableRandom(ZOBRIST_SEED);
+                this.vmKeys = new long[this.vms.size()];
+                for (int i = 0; i < vmKeys.length; i++) {
+                    vmKeys[i] = keys.nextLong();
+                }
+            }
+            
+            /**
+             * Chave de Zobrist do par (VM, host), calculada sob demanda com o finalizador do
+             * SplitMix64 em vez de uma tabela V x H.
+             */
+            long geneHash(int vm, int host) {
+                long z = vmKeys[vm] + (host + 1L) * 0x9E3779B97F4A7C15L;
+                z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+                z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+                return z ^ (z >>> 31);
+            }
+            
+            long geneChecksum(int vm, int host) {
+                return (host + 1L) * (vmKeys[vm] | 1L);
+            }
+            
+            void setOrigin(int[] origin, ResourceTable resources) {
+                this.vmRamMegabits = new double[resources.vmCount];
+                for (int vm = 0; vm < vmRamMegabits.length; vm++) {
+                    vmRamMegabits[vm] = resources.vmRam[vm] * 8.0;
+                }
+                this.hostBw = resources.hostBw.clone();
+                this.origin = origin;
+            }
+            
+            int[] origin() {
+                return origin;
+            }
+            
+            /**
+             * Tempo, em microssegundos inteiros (para que somas e subtrações incrementais
+             * sejam exatas), de copiar a RAM da VM do host de origem para {@code host} pela
+             * menor das duas bandas.
+             */
+            long migrationCostMicros(int vm, int host) {
+                long bandwidth = Math.max(1, Math.min(hostBw[origin[vm]], hostBw[host]));
+                return Math.round(vmRamMegabits[vm] * 1e6 / bandwidth);
+            }
+            
+            int vmIndexOf(Vm vm) {
+                return vmIndex.getOrDefault(vm, -1);
+            }
+            
+            int hostIndexOf(Host host) {
+                return hostIndex.getOrDefault(host, -1);
+            }
+            
+            int requireVmIndex(Vm vm) {
+                int index = vmIndexOf(vm);
+                if (index < 0) {
+                    throw new IllegalArgumentException("VM não pertence a esta solução: " + vm);
+                }
+                return index;
+            }
+            
+            int requireHostIndex(Host host) {
+                int index = hostIndexOf(host);
+                if (index < 0) {
+                    throw new IllegalArgumentException("Host não pertence a esta solução: " + host);
+                }
+                return index;
+            }
+        }
     }
 }
-
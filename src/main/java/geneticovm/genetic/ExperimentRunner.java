@@ -0,0 +1,386 @@
+package geneticovm.genetic;
+
+import ch.qos.logback.classic.Level;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
+import org.cloudsimplus.brokers.DatacenterBroker;
+import org.cloudsimplus.brokers.DatacenterBrokerSimple;
+import org.cloudsimplus.cloudlets.Cloudlet;
+import org.cloudsimplus.core.CloudSimPlus;
+import org.cloudsimplus.datacenters.Datacenter;
+import org.cloudsimplus.datacenters.DatacenterSimple;
+import org.cloudsimplus.hosts.Host;
+import org.cloudsimplus.power.PowerMeter;
+import org.cloudsimplus.util.Log;
+import org.cloudsimplus.vms.Vm;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Executa uma grade de configurações do algoritmo genético (população, taxas de
+ * crossover e mutação, tamanho do torneio) com várias sementes, cada combinação seguida da
+ * simulação completa no CloudSim Plus, e resume os resultados por configuração.
+ *
+ * <p>As execuções rodam em paralelo num pool de tamanho fixo. Cada uma é isolada: cria
+ * seu próprio {@link CloudSimPlus} e gera de novo o cenário (hosts, VMs e cloudlets) com
+ * a mesma semente de cenário, já que entidades do CloudSim Plus não podem ser
+ * compartilhadas entre simulações. O algoritmo usa a semente da execução, então cada
+ * linha é reprodutível. Cada execução concluída é gravada imediatamente em
+ * {@code runs.csv}; ao fim, {@code summary.csv} e {@code summary.json} trazem média, desvio
+ * padrão, mínimo, percentis (50, 90, 95) e máximo do fitness, dos hosts ativos, da energia
+ * medida e do tempo de execução (algoritmo + simulação) de cada configuração.
+ */
+public class ExperimentRunner {
+    private static final JsonFactory JSON = new JsonFactory();
+    private static final double[] PERCENTILES = {50, 90, 95};
+
+    private final int hostCount;
+    private final int vmCount;
+    private final int cloudletCount;
+    private final long scenarioSeed;
+    private final int maxGenerations;
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    /** Configuração do algoritmo genético avaliada pelo experimento. */
+    public record Configuration(int populationSize, double crossoverRate, double mutationRate, int tournamentSize) {
+    }
+
+    /** Resultado de uma execução (configuração e semente). */
+    public record RunResult(int configurationIndex, Configuration configuration, long seed,
+                            double fitness, int activeHosts, double energyKWh, int unplacedVms,
+                            double gaMillis, double simulationMillis) {
+        public double totalMillis() {
+            return gaMillis + simulationMillis;
+        }
+    }
+
+    /** Média, desvio padrão (amostral), extremos e percentis de uma métrica. */
+    public record Statistics(double mean, double stddev, double min, double p50, double p90, double p95, double max) {
+        static Statistics of(double[] values) {
+            DescriptiveStatistics statistics = new DescriptiveStatistics(values);
+            double[] percentiles = new double[PERCENTILES.length];
+            for (int i = 0; i < percentiles.length; i++) {
+                percentiles[i] = values.length == 0 ? Double.NaN : statistics.getPercentile(PERCENTILES[i]);
+            }
+            return new Statistics(statistics.getMean(), statistics.getStandardDeviation(), statistics.getMin(),
+                percentiles[0], percentiles[1], percentiles[2], statistics.getMax());
+        }
+    }
+
+    /** Resumo das execuções de uma configuração. */
+    public record Summary(Configuration configuration, int runs, Statistics fitness, Statistics activeHosts,
+                          Statistics energyKWh, Statistics runtimeMillis) {
+    }
+
+    /**
+     * @param maxGenerations gerações de cada execução do algoritmo
+     */
+    public ExperimentRunner(int hostCount, int vmCount, int cloudletCount, long scenarioSeed, int maxGenerations) {
+        this.hostCount = hostCount;
+        this.vmCount = vmCount;
+        this.cloudletCount = cloudletCount;
+        this.scenarioSeed = scenarioSeed;
+        this.maxGenerations = maxGenerations;
+    }
+
+    /** Execuções simultâneas (padrão: número de processadores). */
+    public void setThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads deve ser >= 1: " + threads);
+        }
+        this.threads = threads;
+    }
+
+    /** Produto cartesiano das listas de valores, na ordem população, crossover, mutação, torneio. */
+    public static List<Configuration> grid(int[] populationSizes, double[] crossoverRates,
+                                           double[] mutationRates, int[] tournamentSizes) {
+        List<Configuration> configurations = new ArrayList<>();
+        for (int populationSize : populationSizes) {
+            for (double crossoverRate : crossoverRates) {
+                for (double mutationRate : mutationRates) {
+                    for (int tournamentSize : tournamentSizes) {
+                        configurations.add(new Configuration(populationSize, crossoverRate, mutationRate, tournamentSize));
+                    }
+                }
+            }
+        }
+        return configurations;
+    }
+
+    /**
+     * Executa cada configuração com cada semente e grava {@code runs.csv},
+     * {@code summary.csv} e {@code summary.json} em {@code outputDirectory}. Devolve os
+     * resumos na ordem das configurações.
+     */
+    public List<Summary> run(List<Configuration> configurations, long[] seeds, Path outputDirectory)
+        throws IOException {
+        Files.createDirectories(outputDirectory);
+        Log.setLevel(Level.WARN);
+
+        int total = configurations.size() * seeds.length;
+        List<List<RunResult>> results = new ArrayList<>(configurations.size());
+        for (int c = 0; c < configurations.size(); c++) {
+            results.add(new ArrayList<>(seeds.length));
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, total)));
+        try (BufferedWriter runs = Files.newBufferedWriter(outputDirectory.resolve("runs.csv"))) {
+            runs.write("configuration,populationSize,crossoverRate,mutationRate,tournamentSize,seed,"
+                + "fitness,activeHosts,energyKWh,unplacedVms,gaMillis,simulationMillis");
+            runs.newLine();
+            runs.flush();
+
+            CompletionService<RunResult> completion = new ExecutorCompletionService<>(pool);
+            for (int c = 0; c < configurations.size(); c++) {
+                for (long seed : seeds) {
+                    int index = c;
+                    Configuration configuration = configurations.get(c);
+                    completion.submit(() -> runOnce(index, configuration, seed));
+                }
+            }
+
+            for (int done = 1; done <= total; done++) {
+                RunResult result = takeResult(completion);
+                results.get(result.configurationIndex()).add(result);
+                writeRun(runs, result);
+                System.out.printf("[%d/%d] %s semente %d: fitness %.4f, %d hosts ativos, %.0f ms%n",
+                    done, total, result.configuration(), result.seed(), result.fitness(),
+                    result.activeHosts(), result.totalMillis());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        List<Summary> summaries = new ArrayList<>(configurations.size());
+        for (int c = 0; c < configurations.size(); c++) {
+            summaries.add(summarize(configurations.get(c), results.get(c)));
+        }
+        writeSummaryCsv(outputDirectory.resolve("summary.csv"), summaries);
+        writeSummaryJson(outputDirectory.resolve("summary.json"), summaries);
+        return summaries;
+    }
+
+    /** Uma execução isolada: cenário próprio, algoritmo genético e simulação completa. */
+    RunResult runOnce(int configurationIndex, Configuration configuration, long seed) {
+        CloudSimPlus cloudsim = new CloudSimPlus();
+        ScenarioGenerator generator = new ScenarioGenerator(scenarioSeed);
+        List<Host> hosts = generator.createHosts(hostCount);
+        List<Vm> vms = generator.createVms(vmCount);
+        List<Cloudlet> cloudlets = generator.createCloudlets(cloudletCount);
+
+        GeneticVmAllocationPolicy allocationPolicy =
+            new GeneticVmAllocationPolicy(GeneticVmAllocationPolicy.Fallback.BEST_FIT);
+        Datacenter datacenter = new DatacenterSimple(cloudsim, hosts, allocationPolicy);
+        PowerMeter powerMeter = new PowerMeter(cloudsim, datacenter);
+
+        long start = System.nanoTime();
+        EnergyAwareGeneticAlgorithm ga = new EnergyAwareGeneticAlgorithm(vms, hosts,
+            configuration.populationSize(), maxGenerations, configuration.crossoverRate(),
+            configuration.mutationRate(), configuration.tournamentSize(), seed);
+        ga.setConsoleOutput(false);
+        ga.setSeeding(0.2);
+        ga.setEnergyObjective(EnergyAwareGeneticAlgorithm.EnergyObjective.POWER_MODEL);
+        EnergyAwareGeneticAlgorithm.AllocationSolution solution = ga.run();
+        long gaEnd = System.nanoTime();
+
+        DatacenterBroker broker = new DatacenterBrokerSimple(cloudsim);
+        broker.getVmCreation().setRetryDelay(-1);
+        broker.submitVmList(vms);
+        broker.submitCloudletList(cloudlets);
+        allocationPolicy.setSolution(solution);
+        cloudsim.start();
+        long simulationEnd = System.nanoTime();
+
+        return new RunResult(configurationIndex, configuration, seed, solution.getFitness(),
+            solution.getActiveHostsCount(), CloudSimSimulation.measuredEnergyKWh(powerMeter),
+            allocationPolicy.getUnplacedCount(), (gaEnd - start) / 1e6, (simulationEnd - gaEnd) / 1e6);
+    }
+
+    private static RunResult takeResult(CompletionService<RunResult> completion) throws IOException {
+        try {
+            return completion.take().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Experimento interrompido", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Falha numa execução do experimento", e.getCause());
+        }
+    }
+
+    static Summary summarize(Configuration configuration, List<RunResult> runs) {
+        double[] fitness = new double[runs.size()];
+        double[] activeHosts = new double[runs.size()];
+        double[] energy = new double[runs.size()];
+        double[] runtime = new double[runs.size()];
+        for (int i = 0; i < runs.size(); i++) {
+            RunResult run = runs.get(i);
+            fitness[i] = run.fitness();
+            activeHosts[i] = run.activeHosts();
+            energy[i] = run.energyKWh();
+            runtime[i] = run.totalMillis();
+        }
+        return new Summary(configuration, runs.size(), Statistics.of(fitness), Statistics.of(activeHosts),
+            Statistics.of(energy), Statistics.of(runtime));
+    }
+
+    private static void writeRun(BufferedWriter writer, RunResult run) throws IOException {
+        Configuration configuration = run.configuration();
+        writer.write(run.configurationIndex() + "," + configuration.populationSize() + ","
+            + configuration.crossoverRate() + "," + configuration.mutationRate() + ","
+            + configuration.tournamentSize() + "," + run.seed() + "," + run.fitness() + ","
+            + run.activeHosts() + "," + run.energyKWh() + "," + run.unplacedVms() + ","
+            + run.gaMillis() + "," + run.simulationMillis());
+        writer.newLine();
+        writer.flush();
+    }
+
+    private static void writeSummaryCsv(Path file, List<Summary> summaries) throws IOException {
+        String[] metrics = {"fitness", "activeHosts", "energyKWh", "runtimeMillis"};
+        String[] fields = {"mean", "stddev", "min", "p50", "p90", "p95", "max"};
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            StringBuilder header = new StringBuilder("populationSize,crossoverRate,mutationRate,tournamentSize,runs");
+            for (String metric : metrics) {
+                for (String field : fields) {
+                    header.append(',').append(metric).append('_').append(field);
+                }
+            }
+            writer.write(header.toString());
+            writer.newLine();
+            for (Summary summary : summaries) {
+                Configuration configuration = summary.configuration();
+                StringBuilder line = new StringBuilder()
+                    .append(configuration.populationSize()).append(',')
+                    .append(configuration.crossoverRate()).append(',')
+                    .append(configuration.mutationRate()).append(',')
+                    .append(configuration.tournamentSize()).append(',')
+                    .append(summary.runs());
+                for (Statistics statistics : List.of(summary.fitness(), summary.activeHosts(),
+                        summary.energyKWh(), summary.runtimeMillis())) {
+                    for (double value : values(statistics)) {
+                        line.append(',').append(value);
+                    }
+                }
+                writer.write(line.toString());
+                writer.newLine();
+            }
+        }
+    }
+
+    private static void writeSummaryJson(Path file, List<Summary> summaries) throws IOException {
+        try (JsonGenerator generator = JSON.createGenerator(file.toFile(), JsonEncoding.UTF8)) {
+            generator.useDefaultPrettyPrinter();
+            generator.writeStartArray();
+            for (Summary summary : summaries) {
+                Configuration configuration = summary.configuration();
+                generator.writeStartObject();
+                generator.writeNumberField("populationSize", configuration.populationSize());
+                generator.writeNumberField("crossoverRate", configuration.crossoverRate());
+                generator.writeNumberField("mutationRate", configuration.mutationRate());
+                generator.writeNumberField("tournamentSize", configuration.tournamentSize());
+                generator.writeNumberField("runs", summary.runs());
+                writeStatistics(generator, "fitness", summary.fitness());
+                writeStatistics(generator, "activeHosts", summary.activeHosts());
+                writeStatistics(generator, "energyKWh", summary.energyKWh());
+                writeStatistics(generator, "runtimeMillis", summary.runtimeMillis());
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    private static void writeStatistics(JsonGenerator generator, String name, Statistics statistics)
+        throws IOException {
+        generator.writeObjectFieldStart(name);
+        generator.writeNumberField("mean", statistics.mean());
+        generator.writeNumberField("stddev", statistics.stddev());
+        generator.writeNumberField("min", statistics.min());
+        generator.writeNumberField("p50", statistics.p50());
+        generator.writeNumberField("p90", statistics.p90());
+        generator.writeNumberField("p95", statistics.p95());
+        generator.writeNumberField("max", statistics.max());
+        generator.writeEndObject();
+    }
+
+    private static double[] values(Statistics statistics) {
+        return new double[] {statistics.mean(), statistics.stddev(), statistics.min(),
+            statistics.p50(), statistics.p90(), statistics.p95(), statistics.max()};
+    }
+
+    /**
+     * {@code <hosts> <vms> <cloudlets> <gerações> <populações> <crossovers> <mutações>
+     * <torneios> <sementes> <diretório> [threads] [semente do cenário]}, com as listas
+     * separadas por vírgulas. Sementes podem ser uma lista ou um intervalo {@code início-fim}.
+     * Exemplo: {@code 20 60 80 20 30,50 0.7,0.9 0.1,0.3 3 1-10 resultados}.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 10) {
+            System.out.println("Uso: ExperimentRunner <hosts> <vms> <cloudlets> <gerações> <populações> "
+                + "<crossovers> <mutações> <torneios> <sementes> <diretório> [threads] [semente do cenário]");
+            return;
+        }
+        long scenarioSeed = args.length >= 12 ? Long.parseLong(args[11]) : 42L;
+        ExperimentRunner runner = new ExperimentRunner(Integer.parseInt(args[0]), Integer.parseInt(args[1]),
+            Integer.parseInt(args[2]), scenarioSeed, Integer.parseInt(args[3]));
+        if (args.length >= 11) {
+            runner.setThreads(Integer.parseInt(args[10]));
+        }
+        List<Configuration> configurations = grid(parseInts(args[4]), parseDoubles(args[5]),
+            parseDoubles(args[6]), parseInts(args[7]));
+        long[] seeds = parseSeeds(args[8]);
+        Path outputDirectory = Path.of(args[9]);
+
+        System.out.printf("=== Experimento: %d configurações × %d sementes ===%n", configurations.size(), seeds.length);
+        List<Summary> summaries = runner.run(configurations, seeds, outputDirectory);
+
+        System.out.println("\nRESUMO POR CONFIGURAÇÃO:");
+        System.out.println("-".repeat(60));
+        for (Summary summary : summaries) {
+            System.out.printf("%s: fitness %.4f ± %.4f (p50 %.4f), hosts ativos %.1f ± %.1f, %.0f ms%n",
+                summary.configuration(), summary.fitness().mean(), summary.fitness().stddev(),
+                summary.fitness().p50(), summary.activeHosts().mean(), summary.activeHosts().stddev(),
+                summary.runtimeMillis().mean());
+        }
+        System.out.println("\nResultados gravados em " + outputDirectory);
+    }
+
+    private static int[] parseInts(String list) {
+        return Arrays.stream(list.split(",")).mapToInt(value -> Integer.parseInt(value.strip())).toArray();
+    }
+
+    private static double[] parseDoubles(String list) {
+        return Arrays.stream(list.split(",")).mapToDouble(value -> Double.parseDouble(value.strip())).toArray();
+    }
+
+    private static long[] parseSeeds(String seeds) {
+        int dash = seeds.indexOf('-', 1);
+        if (!seeds.contains(",") && dash > 0) {
+            long first = Long.parseLong(seeds.substring(0, dash).strip());
+            long last = Long.parseLong(seeds.substring(dash + 1).strip());
+            if (last < first) {
+                throw new IllegalArgumentException("Intervalo de sementes vazio: " + seeds);
+            }
+            long[] range = new long[(int) (last - first + 1)];
+            for (int i = 0; i < range.length; i++) {
+                range[i] = first + i;
+            }
+            return range;
+        }
+        return Arrays.stream(seeds.split(",")).mapToLong(value -> Long.parseLong(value.strip())).toArray();
+    }
+}
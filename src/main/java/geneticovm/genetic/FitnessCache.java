@@ -0,0 +1,123 @@
+package geneticovm.genetic;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache limitado de fitness indexado pelo hash de Zobrist do genoma. É associativo por
+ * conjuntos ({@value #WAYS} entradas por conjunto) e, num conjunto cheio, a entrada
+ * substituída é escolhida pelo algoritmo CLOCK (segunda chance). Cada entrada guarda,
+ * além do hash, um checksum independente do genoma, então uma coincidência é confirmada
+ * em O(1), sem comparar os genes. Os conjuntos são protegidos por locks particionados,
+ * para que workers e ilhas possam compartilhar o cache.
+ */
+final class FitnessCache {
+    private static final int WAYS = 4;
+    private static final int STRIPES = 64;
+
+    private final int setMask;
+    private final long[] hashes;
+    private final long[] checksums;
+    private final double[] fitness;
+    private final boolean[] occupied;
+    private final boolean[] referenced;
+    private final byte[] hands;
+    private final Object[] locks = new Object[STRIPES];
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /** Cache com pelo menos {@code capacity} entradas (arredondado para potência de 2). */
+    FitnessCache(int capacity) {
+        int sets = Integer.highestOneBit(Math.max(1, (capacity + WAYS - 1) / WAYS));
+        if (sets * WAYS < capacity) {
+            sets <<= 1;
+        }
+        this.setMask = sets - 1;
+        this.hashes = new long[sets * WAYS];
+        this.checksums = new long[sets * WAYS];
+        this.fitness = new double[sets * WAYS];
+        this.occupied = new boolean[sets * WAYS];
+        this.referenced = new boolean[sets * WAYS];
+        this.hands = new byte[sets];
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /** Fitness guardado para o genoma, ou {@link Double#NaN} se ele não estiver no cache. */
+    double get(long hash, long checksum) {
+        int set = setOf(hash);
+        int base = set * WAYS;
+        synchronized (locks[set & (STRIPES - 1)]) {
+            for (int slot = base; slot < base + WAYS; slot++) {
+                if (occupied[slot] && hashes[slot] == hash && checksums[slot] == checksum) {
+                    referenced[slot] = true;
+                    hits.increment();
+                    return fitness[slot];
+                }
+            }
+        }
+        misses.increment();
+        return Double.NaN;
+    }
+
+    void put(long hash, long checksum, double value) {
+        int set = setOf(hash);
+        int base = set * WAYS;
+        synchronized (locks[set & (STRIPES - 1)]) {
+            int free = -1;
+            for (int slot = base; slot < base + WAYS; slot++) {
+                if (!occupied[slot]) {
+                    if (free < 0) {
+                        free = slot;
+                    }
+                } else if (hashes[slot] == hash && checksums[slot] == checksum) {
+                    fitness[slot] = value;
+                    referenced[slot] = true;
+                    return;
+                }
+            }
+            if (free < 0) {
+                free = evict(set, base);
+            }
+            hashes[free] = hash;
+            checksums[free] = checksum;
+            fitness[free] = value;
+            occupied[free] = true;
+            referenced[free] = false;
+        }
+    }
+
+    /** Avança o ponteiro do conjunto, dando segunda chance às entradas referenciadas. */
+    private int evict(int set, int base) {
+        int hand = hands[set];
+        while (referenced[base + hand]) {
+            referenced[base + hand] = false;
+            hand = (hand + 1) % WAYS;
+        }
+        hands[set] = (byte) ((hand + 1) % WAYS);
+        evictions.increment();
+        return base + hand;
+    }
+
+    private int setOf(long hash) {
+        return (int) (hash ^ (hash >>> 32)) & setMask;
+    }
+
+    int getCapacity() {
+        return hashes.length;
+    }
+
+    long getHits() {
+        return hits.sum();
+    }
+
+    long getMisses() {
+        return misses.sum();
+    }
+
+    long getEvictions() {
+        return evictions.sum();
+    }
+}
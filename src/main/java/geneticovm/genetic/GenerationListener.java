@@ -0,0 +1,28 @@
+package geneticovm.genetic;
+
+import geneticovm.genetic.EnergyAwareGeneticAlgorithm.AllocationSolution;
+
+/**
+ * Observador de uma execução de {@link EnergyAwareGeneticAlgorithm#run()} ou
+ * {@link EnergyAwareGeneticAlgorithm#runNsga2()}. As chamadas acontecem na thread que
+ * iniciou a execução, entre uma geração e a seguinte; no modo de ilhas,
+ * {@code generationCompleted} é chamado pela thread de cada ilha, uma chamada por vez,
+ * com {@link GenerationStats#getIsland()} indicando a ilha. Sem nenhum listener
+ * registrado (e sem gravação JFR ativa), as estatísticas nem são coletadas.
+ */
+public interface GenerationListener {
+
+    /** Antes da criação da população inicial. */
+    default void runStarted(EnergyAwareGeneticAlgorithm ga) {
+    }
+
+    /**
+     * Ao fim de cada geração; {@link GenerationStats#getGeneration()} é 0 para a população
+     * inicial, já avaliada.
+     */
+    void generationCompleted(GenerationStats stats);
+
+    /** Depois da última geração, com o critério de parada já disponível em {@code ga}. */
+    default void runFinished(EnergyAwareGeneticAlgorithm ga, AllocationSolution best, long elapsedNanos) {
+    }
+}
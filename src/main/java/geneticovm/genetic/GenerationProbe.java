@@ -0,0 +1,165 @@
+package geneticovm.genetic;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores de uma geração em observação: tempo por fase e avaliações, acumulados pelos
+ * workers em {@link LongAdder}s. Só existe enquanto há listener registrado ou gravação
+ * JFR com os eventos do algoritmo ativos; caso contrário o algoritmo não mede nada.
+ */
+final class GenerationProbe {
+    private static final EventType GENERATION_EVENT = EventType.getEventType(GenerationEvent.class);
+    private static final EventType PHASE_EVENT = EventType.getEventType(PhaseEvent.class);
+
+    final LongAdder selectionNanos = new LongAdder();
+    final LongAdder crossoverNanos = new LongAdder();
+    final LongAdder mutationNanos = new LongAdder();
+    final LongAdder evaluationNanos = new LongAdder();
+    final LongAdder evaluations = new LongAdder();
+    final LongAdder feasibleEvaluations = new LongAdder();
+    final LongAdder repairedEvaluations = new LongAdder();
+    final LongAdder repairMoves = new LongAdder();
+
+    private GenerationEvent generationEvent;
+
+    /** Algum evento JFR do algoritmo está habilitado numa gravação em andamento. */
+    static boolean eventsEnabled() {
+        return GENERATION_EVENT.isEnabled() || PHASE_EVENT.isEnabled();
+    }
+
+    /**
+     * Sonda da próxima geração, já iniciada: {@code reused} (ou uma nova) se há observadores
+     * ou eventos JFR habilitados, {@code null} se ninguém observa.
+     */
+    static GenerationProbe observe(List<GenerationListener> observers, GenerationProbe reused) {
+        if (observers.isEmpty() && !eventsEnabled()) {
+            return null;
+        }
+        GenerationProbe probe = reused != null ? reused : new GenerationProbe();
+        probe.startGeneration();
+        return probe;
+    }
+
+    /** Zera os contadores e abre o evento JFR da geração, se habilitado. */
+    void startGeneration() {
+        selectionNanos.reset();
+        crossoverNanos.reset();
+        mutationNanos.reset();
+        evaluationNanos.reset();
+        evaluations.reset();
+        feasibleEvaluations.reset();
+        repairedEvaluations.reset();
+        repairMoves.reset();
+        generationEvent = null;
+        if (GENERATION_EVENT.isEnabled()) {
+            generationEvent = new GenerationEvent();
+            generationEvent.begin();
+        }
+    }
+
+    /** Uma avaliação completa, depois de o reparo mover {@code moves} VMs. */
+    void evaluated(boolean feasible, int moves) {
+        evaluations.increment();
+        if (feasible) {
+            feasibleEvaluations.increment();
+        }
+        if (moves > 0) {
+            repairedEvaluations.increment();
+            repairMoves.add(moves);
+        }
+    }
+
+    /** Fração das avaliações da geração que o reparo alterou. */
+    double repairRate() {
+        long evaluated = evaluations.sum();
+        return evaluated == 0 ? 0.0 : (double) repairedEvaluations.sum() / evaluated;
+    }
+
+    /** Fecha os eventos JFR da geração descrita por {@code stats}. */
+    void commit(GenerationStats stats) {
+        if (generationEvent != null) {
+            generationEvent.end();
+            if (generationEvent.shouldCommit()) {
+                generationEvent.generation = stats.getGeneration();
+                generationEvent.island = stats.getIsland();
+                generationEvent.bestFitness = stats.getBestFitness();
+                generationEvent.meanFitness = stats.getMeanFitness();
+                generationEvent.worstFitness = stats.getWorstFitness();
+                generationEvent.activeHosts = stats.getBestActiveHosts();
+                generationEvent.evaluationsPerSecond = stats.getEvaluationsPerSecond();
+                generationEvent.feasibilityRate = stats.getFeasibilityRate();
+                generationEvent.repairRate = stats.getRepairRate();
+                generationEvent.commit();
+            }
+            generationEvent = null;
+        }
+        if (PHASE_EVENT.isEnabled()) {
+            commitPhase(stats, "selection", stats.getSelectionNanos());
+            commitPhase(stats, "crossover", stats.getCrossoverNanos());
+            commitPhase(stats, "mutation", stats.getMutationNanos());
+            commitPhase(stats, "evaluation", stats.getEvaluationNanos());
+        }
+    }
+
+    private static void commitPhase(GenerationStats stats, String phase, long nanos) {
+        PhaseEvent event = new PhaseEvent();
+        event.generation = stats.getGeneration();
+        event.island = stats.getIsland();
+        event.phase = phase;
+        event.time = nanos;
+        event.commit();
+    }
+
+    /** Uma geração; a duração do evento é o tempo de parede da geração. */
+    @Name("geneticovm.Generation")
+    @Label("Geração do AG")
+    @Category({"Genetic VM Allocation"})
+    @Description("Estatísticas de uma geração do algoritmo genético (a diversidade fica de fora por ser O(P·V))")
+    static final class GenerationEvent extends Event {
+        @Label("Geração")
+        int generation;
+        @Label("Ilha")
+        @Description("Ilha de origem no modo de ilhas; -1 nos demais modos")
+        int island;
+        @Label("Melhor fitness")
+        double bestFitness;
+        @Label("Fitness médio")
+        double meanFitness;
+        @Label("Pior fitness")
+        double worstFitness;
+        @Label("Hosts ativos da melhor solução")
+        int activeHosts;
+        @Label("Avaliações por segundo")
+        double evaluationsPerSecond;
+        @Label("Fração de avaliações viáveis")
+        double feasibilityRate;
+        @Label("Fração de reparados")
+        double repairRate;
+    }
+
+    /** Tempo de uma fase numa geração, somado sobre filhos e workers. */
+    @Name("geneticovm.Phase")
+    @Label("Fase do AG")
+    @Category({"Genetic VM Allocation"})
+    @Description("Tempo somado de uma fase (seleção, crossover, mutação ou avaliação) numa geração")
+    static final class PhaseEvent extends Event {
+        @Label("Geração")
+        int generation;
+        @Label("Ilha")
+        int island;
+        @Label("Fase")
+        String phase;
+        @Label("Tempo")
+        @Timespan(Timespan.NANOSECONDS)
+        long time;
+    }
+}
@@ -0,0 +1,157 @@
+package geneticovm.genetic;
+
+import geneticovm.genetic.EnergyAwareGeneticAlgorithm.AllocationSolution;
+
+import java.util.List;
+
+/**
+ * Estatísticas de uma geração entregues a {@link GenerationListener#generationCompleted}.
+ * Os tempos por fase são somados sobre todos os filhos (e, no modo paralelo, sobre todos
+ * os workers), então podem passar do tempo de parede da geração. A diversidade é
+ * calculada só quando pedida, e só durante a chamada ao listener. No modo de ilhas cada
+ * ilha publica as próprias gerações ({@link #getIsland()}); no NSGA-II a melhor solução é
+ * a de menor fitness escalar da população atual.
+ */
+public final class GenerationStats {
+    private final int generation;
+    private final int island;
+    private final int paretoFrontSize;
+    private final double bestFitness;
+    private final double meanFitness;
+    private final double worstFitness;
+    private final int bestActiveHosts;
+    private final long evaluations;
+    private final long feasibleEvaluations;
+    private final double repairRate;
+    private final long repairMoves;
+    private final long selectionNanos;
+    private final long crossoverNanos;
+    private final long mutationNanos;
+    private final long evaluationNanos;
+    private final long generationNanos;
+    private final long elapsedNanos;
+    private final List<AllocationSolution> population;
+    private final AllocationSolution best;
+
+    GenerationStats(int generation, int island, int paretoFrontSize, List<AllocationSolution> population,
+                    AllocationSolution best, GenerationProbe probe, double repairRate, long repairMoves,
+                    long generationNanos, long elapsedNanos) {
+        this.generation = generation;
+        this.island = island;
+        this.paretoFrontSize = paretoFrontSize;
+        this.population = population;
+        this.best = best;
+        double sum = 0.0;
+        double worst = -Double.MAX_VALUE;
+        for (AllocationSolution individual : population) {
+            sum += individual.getFitness();
+            worst = Math.max(worst, individual.getFitness());
+        }
+        this.bestFitness = best.getFitness();
+        this.meanFitness = population.isEmpty() ? bestFitness : sum / population.size();
+        this.worstFitness = population.isEmpty() ? bestFitness : worst;
+        this.bestActiveHosts = best.getActiveHostsCount();
+        this.evaluations = probe.evaluations.sum();
+        this.feasibleEvaluations = probe.feasibleEvaluations.sum();
+        this.repairRate = repairRate;
+        this.repairMoves = repairMoves;
+        this.selectionNanos = probe.selectionNanos.sum();
+        this.crossoverNanos = probe.crossoverNanos.sum();
+        this.mutationNanos = probe.mutationNanos.sum();
+        this.evaluationNanos = probe.evaluationNanos.sum();
+        this.generationNanos = generationNanos;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /** Número da geração (1, 2, ...); 0 para a população inicial. */
+    public int getGeneration() {
+        return generation;
+    }
+
+    /** Ilha que evoluiu a geração no modo de ilhas; -1 nos demais modos. */
+    public int getIsland() {
+        return island;
+    }
+
+    /** Soluções não dominadas da população no modo NSGA-II; 0 nos demais modos. */
+    public int getParetoFrontSize() {
+        return paretoFrontSize;
+    }
+
+    /** Melhor fitness encontrado até esta geração (inclusive elite). */
+    public double getBestFitness() {
+        return bestFitness;
+    }
+
+    public double getMeanFitness() {
+        return meanFitness;
+    }
+
+    public double getWorstFitness() {
+        return worstFitness;
+    }
+
+    /** Hosts ativos da melhor solução. */
+    public int getBestActiveHosts() {
+        return bestActiveHosts;
+    }
+
+    /**
+     * Fração média de genes em que a população difere da melhor solução (ver
+     * {@link TerminationMonitor#diversity}); O(P·V), calculada a cada chamada.
+     */
+    public double getDiversity() {
+        return TerminationMonitor.diversity(population, best);
+    }
+
+    /** Avaliações de fitness feitas na geração (acertos do cache não contam). */
+    public long getEvaluations() {
+        return evaluations;
+    }
+
+    public double getEvaluationsPerSecond() {
+        return generationNanos == 0 ? 0.0 : evaluations * 1e9 / generationNanos;
+    }
+
+    /** Fração das avaliações cuja solução, já reparada, não tem host sobrecarregado. */
+    public double getFeasibilityRate() {
+        return evaluations == 0 ? 1.0 : (double) feasibleEvaluations / evaluations;
+    }
+
+    /** Fração dos indivíduos pontuados que o reparo alterou. */
+    public double getRepairRate() {
+        return repairRate;
+    }
+
+    public long getRepairMoves() {
+        return repairMoves;
+    }
+
+    /** Tempo somado na seleção por torneio. */
+    public long getSelectionNanos() {
+        return selectionNanos;
+    }
+
+    public long getCrossoverNanos() {
+        return crossoverNanos;
+    }
+
+    public long getMutationNanos() {
+        return mutationNanos;
+    }
+
+    /** Tempo somado em cargas, reparo, pontuação e consultas ao cache. */
+    public long getEvaluationNanos() {
+        return evaluationNanos;
+    }
+
+    /** Tempo de parede da geração. */
+    public long getGenerationNanos() {
+        return generationNanos;
+    }
+
+    /** Tempo de parede desde o início da execução. */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+}
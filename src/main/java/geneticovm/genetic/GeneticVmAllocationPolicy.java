@@ -0,0 +1,98 @@
+package geneticovm.genetic;
+
+import org.cloudsimplus.allocationpolicies.VmAllocationPolicyAbstract;
+import org.cloudsimplus.hosts.Host;
+import org.cloudsimplus.vms.Vm;
+
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Política de alocação que aplica no datacenter a alocação encontrada pelo algoritmo
+ * genético. O host de cada VM é consultado em O(1) no genoma da
+ * {@link EnergyAwareGeneticAlgorithm.AllocationSolution}; se ele não comportar a VM no
+ * momento da criação (ou se a VM não fizer parte da solução), a escolha é delegada à
+ * heurística de {@link Fallback}.
+ */
+public class GeneticVmAllocationPolicy extends VmAllocationPolicyAbstract {
+
+    /** Heurística usada quando o host escolhido pelo algoritmo genético não comporta a VM. */
+    public enum Fallback {
+        /** Primeiro host da lista que comporta a VM. */
+        FIRST_FIT,
+        /** Host adequado com menos PEs livres (consolida mais). */
+        BEST_FIT,
+        /** Host adequado com mais PEs livres (espalha a carga). */
+        WORST_FIT
+    }
+
+    private final Fallback fallback;
+    private EnergyAwareGeneticAlgorithm.AllocationSolution solution;
+
+    private int honoredCount;
+    private int fallbackCount;
+    private int unplacedCount;
+
+    public GeneticVmAllocationPolicy(Fallback fallback) {
+        this.fallback = Objects.requireNonNull(fallback);
+    }
+
+    public GeneticVmAllocationPolicy(EnergyAwareGeneticAlgorithm.AllocationSolution solution, Fallback fallback) {
+        this(fallback);
+        this.solution = solution;
+    }
+
+    /**
+     * Define a solução a ser aplicada. Pode ser chamada depois de o datacenter ter sido
+     * criado, desde que antes do início da simulação.
+     */
+    public void setSolution(EnergyAwareGeneticAlgorithm.AllocationSolution solution) {
+        this.solution = solution;
+    }
+
+    @Override
+    protected Optional<Host> defaultFindHostForVm(Vm vm) {
+        Host target = solution == null ? null : solution.getHostForVM(vm);
+        if (target != null && target.isSuitableForVm(vm)) {
+            honoredCount++;
+            return Optional.of(target);
+        }
+
+        Optional<Host> host = findFallbackHost(vm);
+        if (host.isPresent()) {
+            fallbackCount++;
+        } else {
+            unplacedCount++;
+        }
+        return host;
+    }
+
+    private Optional<Host> findFallbackHost(Vm vm) {
+        var suitableHosts = getHostList().stream().filter(host -> host.isSuitableForVm(vm));
+        return switch (fallback) {
+            case FIRST_FIT -> suitableHosts.findFirst();
+            case BEST_FIT -> suitableHosts.min(Comparator.comparingInt(Host::getFreePesNumber));
+            case WORST_FIT -> suitableHosts.max(Comparator.comparingInt(Host::getFreePesNumber));
+        };
+    }
+
+    /** VMs colocadas exatamente no host escolhido pelo algoritmo genético. */
+    public int getHonoredCount() {
+        return honoredCount;
+    }
+
+    /** VMs colocadas pela heurística de fallback. */
+    public int getFallbackCount() {
+        return fallbackCount;
+    }
+
+    /** Tentativas em que nem o algoritmo genético nem o fallback encontraram host. */
+    public int getUnplacedCount() {
+        return unplacedCount;
+    }
+
+    public Fallback getFallback() {
+        return fallback;
+    }
+}
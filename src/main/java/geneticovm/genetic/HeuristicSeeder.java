@@ -0,0 +1,214 @@
+package geneticovm.genetic;
+
+import geneticovm.genetic.EnergyAwareGeneticAlgorithm.AllocationSolution;
+import geneticovm.genetic.EnergyAwareGeneticAlgorithm.SeedingHeuristic;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Heurísticas gulosas de empacotamento usadas para semear parte da população inicial.
+ * As VMs são percorridas em ordem decrescente de demanda multidimensional (soma das
+ * demandas normalizadas pela capacidade média dos hosts), obtida ordenando um único
+ * {@code long[]} com a chave e a posição da VM: O(V log V). Cada VM só é comparada com
+ * os hosts já abertos que ainda comportam a menor VM do cenário; um host novo só é
+ * aberto quando nenhum deles serve. Empates na ordenação das VMs e a ordem dos hosts
+ * são sorteados, de modo que cada indivíduo semeado seja diferente.
+ */
+final class HeuristicSeeder {
+    private final ResourceTable resources;
+    private final double[] vmSize;
+    private final double minCpu;
+    private final long minRam;
+    private final long minStorage;
+    private final long minBw;
+    private final double[] dynamicPowerPerMips;
+    private final double[] hostEfficiency;
+
+    HeuristicSeeder(ResourceTable resources, PowerTable power) {
+        this.resources = resources;
+        int vmCount = resources.vmCount;
+        int hostCount = resources.hostCount;
+
+        double avgCpu = 0, avgRam = 0, avgStorage = 0, avgBw = 0;
+        for (int h = 0; h < hostCount; h++) {
+            avgCpu += resources.hostCpu[h];
+            avgRam += resources.hostRam[h];
+            avgStorage += resources.hostStorage[h];
+            avgBw += resources.hostBw[h];
+        }
+        avgCpu = Math.max(avgCpu / hostCount, 1);
+        avgRam = Math.max(avgRam / hostCount, 1);
+        avgStorage = Math.max(avgStorage / hostCount, 1);
+        avgBw = Math.max(avgBw / hostCount, 1);
+
+        this.vmSize = new double[vmCount];
+        double cpu = Double.MAX_VALUE;
+        long ram = Long.MAX_VALUE, storage = Long.MAX_VALUE, bw = Long.MAX_VALUE;
+        for (int vm = 0; vm < vmCount; vm++) {
+            vmSize[vm] = resources.vmCpu[vm] / avgCpu + resources.vmRam[vm] / avgRam
+                + resources.vmStorage[vm] / avgStorage + resources.vmBw[vm] / avgBw;
+            cpu = Math.min(cpu, resources.vmCpu[vm]);
+            ram = Math.min(ram, resources.vmRam[vm]);
+            storage = Math.min(storage, resources.vmStorage[vm]);
+            bw = Math.min(bw, resources.vmBw[vm]);
+        }
+        this.minCpu = cpu;
+        this.minRam = ram;
+        this.minStorage = storage;
+        this.minBw = bw;
+
+        // Aproximação linear do modelo de energia: custo de cada MIPS alocado e watts por MIPS a plena carga
+        this.dynamicPowerPerMips = new double[hostCount];
+        this.hostEfficiency = new double[hostCount];
+        for (int h = 0; h < hostCount; h++) {
+            double capacity = Math.max(resources.hostCpu[h], 1);
+            dynamicPowerPerMips[h] = (power.maxPower(h) - power.staticPower(h)) / capacity;
+            hostEfficiency[h] = power.maxPower(h) / capacity;
+        }
+    }
+
+    /** Preenche a solução (vazia) com a alocação produzida pela heurística. */
+    void seed(SeedingHeuristic heuristic, AllocationSolution solution, RandomGenerator rng) {
+        int hostCount = resources.hostCount;
+        if (hostCount == 0) {
+            return;
+        }
+        double[] cpuLoad = new double[hostCount];
+        long[] ramLoad = new long[hostCount];
+        long[] storageLoad = new long[hostCount];
+        long[] bwLoad = new long[hostCount];
+
+        // Hosts ainda fechados, na ordem em que serão abertos
+        int[] closed = heuristic == SeedingHeuristic.POWER_AWARE_BEST_FIT
+            ? sortedOrder(hostEfficiency, false, rng)
+            : shuffledHosts(rng);
+        int nextClosed = 0;
+        // Hosts abertos que ainda comportam a menor VM, na ordem de abertura
+        int[] open = new int[hostCount];
+        int openCount = 0;
+
+        for (int vm : sortedOrder(vmSize, true, rng)) {
+            int chosen = -1;
+            double bestPower = Double.MAX_VALUE;
+            double bestResidual = Double.MAX_VALUE;
+            for (int i = 0; i < openCount; i++) {
+                int host = open[i];
+                if (!fits(host, vm, cpuLoad, ramLoad, storageLoad, bwLoad)) {
+                    continue;
+                }
+                if (heuristic == SeedingHeuristic.FIRST_FIT_DECREASING) {
+                    chosen = host;
+                    break;
+                }
+                // Best fit: menor sobra; power-aware: menor aumento de potência, desempatado pela sobra
+                double power = heuristic == SeedingHeuristic.POWER_AWARE_BEST_FIT
+                    ? dynamicPowerPerMips[host] * resources.vmCpu[vm]
+                    : 0.0;
+                double residual = residualAfter(host, vm, cpuLoad, ramLoad, storageLoad, bwLoad);
+                if (power < bestPower || (power == bestPower && residual < bestResidual)) {
+                    bestPower = power;
+                    bestResidual = residual;
+                    chosen = host;
+                }
+            }
+
+            if (chosen < 0) {
+                // Abre o primeiro host fechado que comporta a VM; os que foram pulados avançam
+                // uma posição e continuam na mesma ordem relativa
+                for (int i = nextClosed; i < hostCount; i++) {
+                    if (fits(closed[i], vm, cpuLoad, ramLoad, storageLoad, bwLoad)) {
+                        chosen = closed[i];
+                        System.arraycopy(closed, nextClosed, closed, nextClosed + 1, i - nextClosed);
+                        closed[nextClosed++] = chosen;
+                        open[openCount++] = chosen;
+                        break;
+                    }
+                }
+            }
+            if (chosen < 0) {
+                // Nenhum host comporta a VM: fica num host sorteado e o reparo tenta resolver
+                chosen = rng.nextInt(hostCount);
+            }
+
+            solution.assign(vm, chosen);
+            cpuLoad[chosen] += resources.vmCpu[vm];
+            ramLoad[chosen] += resources.vmRam[vm];
+            storageLoad[chosen] += resources.vmStorage[vm];
+            bwLoad[chosen] += resources.vmBw[vm];
+
+            if (!canFitSmallest(chosen, cpuLoad, ramLoad, storageLoad, bwLoad)) {
+                for (int i = 0; i < openCount; i++) {
+                    if (open[i] == chosen) {
+                        System.arraycopy(open, i + 1, open, i, openCount - i - 1);
+                        openCount--;
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    private boolean fits(int host, int vm, double[] cpuLoad, long[] ramLoad, long[] storageLoad, long[] bwLoad) {
+        return cpuLoad[host] + resources.vmCpu[vm] <= resources.hostCpu[host]
+            && ramLoad[host] + resources.vmRam[vm] <= resources.hostRam[host]
+            && storageLoad[host] + resources.vmStorage[vm] <= resources.hostStorage[host]
+            && bwLoad[host] + resources.vmBw[vm] <= resources.hostBw[host];
+    }
+
+    private boolean canFitSmallest(int host, double[] cpuLoad, long[] ramLoad, long[] storageLoad, long[] bwLoad) {
+        return cpuLoad[host] + minCpu <= resources.hostCpu[host]
+            && ramLoad[host] + minRam <= resources.hostRam[host]
+            && storageLoad[host] + minStorage <= resources.hostStorage[host]
+            && bwLoad[host] + minBw <= resources.hostBw[host];
+    }
+
+    /** Capacidade que sobraria no host após receber a VM, normalizada por dimensão. */
+    private double residualAfter(int host, int vm, double[] cpuLoad, long[] ramLoad, long[] storageLoad, long[] bwLoad) {
+        return (resources.hostCpu[host] - cpuLoad[host] - resources.vmCpu[vm]) / resources.hostCpu[host]
+            + (double) (resources.hostRam[host] - ramLoad[host] - resources.vmRam[vm]) / resources.hostRam[host]
+            + (double) (resources.hostStorage[host] - storageLoad[host] - resources.vmStorage[vm]) / resources.hostStorage[host]
+            + (double) (resources.hostBw[host] - bwLoad[host] - resources.vmBw[vm]) / resources.hostBw[host];
+    }
+
+    /**
+     * Índices ordenados pela chave (não negativa). Cada elemento vira um {@code long} com a
+     * chave em precisão simples nos 32 bits altos e uma posição sorteada nos 32 bits baixos,
+     * então um único {@link Arrays#sort(long[])} ordena pela chave e desempata ao acaso.
+     */
+    private static int[] sortedOrder(double[] keys, boolean descending, RandomGenerator rng) {
+        int n = keys.length;
+        int[] permutation = shuffled(n, rng);
+        long[] packed = new long[n];
+        for (int p = 0; p < n; p++) {
+            long key = Float.floatToIntBits((float) keys[permutation[p]]);
+            packed[p] = key << 32 | p;
+        }
+        Arrays.sort(packed);
+
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            int position = (int) packed[descending ? n - 1 - i : i];
+            order[i] = permutation[position];
+        }
+        return order;
+    }
+
+    private int[] shuffledHosts(RandomGenerator rng) {
+        return shuffled(resources.hostCount, rng);
+    }
+
+    private static int[] shuffled(int n, RandomGenerator rng) {
+        int[] values = new int[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = rng.nextInt(i + 1);
+            int tmp = values[i];
+            values[i] = values[j];
+            values[j] = tmp;
+        }
+        return values;
+    }
+}
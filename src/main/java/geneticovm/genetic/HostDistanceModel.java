@@ -0,0 +1,28 @@
+package geneticovm.genetic;
+
+import org.cloudsimplus.hosts.Host;
+
+import java.util.List;
+
+/**
+ * Distância de rede entre hosts usada no custo de comunicação. Os hosts são
+ * identificados pela posição na lista passada ao algoritmo, e a distância de um host
+ * para ele mesmo deve ser zero (VMs no mesmo host não geram tráfego de rede).
+ */
+@FunctionalInterface
+public interface HostDistanceModel {
+
+    int distance(int host1, int host2);
+
+    /**
+     * Modelo padrão: {@code |id1 - id2| + 1} entre hosts diferentes, com os ids
+     * copiados para um array na criação.
+     */
+    static HostDistanceModel byHostId(List<Host> hosts) {
+        long[] ids = new long[hosts.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = hosts.get(i).getId();
+        }
+        return (host1, host2) -> host1 == host2 ? 0 : Math.abs((int) (ids[host1] - ids[host2])) + 1;
+    }
+}
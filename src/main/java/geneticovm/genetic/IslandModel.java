@@ -0,0 +1,208 @@
+package geneticovm.genetic;
+
+import geneticovm.genetic.EnergyAwareGeneticAlgorithm.AllocationSolution;
+import geneticovm.genetic.EnergyAwareGeneticAlgorithm.IslandTelemetry;
+import geneticovm.genetic.EnergyAwareGeneticAlgorithm.MigrationTopology;
+import geneticovm.genetic.EnergyAwareGeneticAlgorithm.TerminationReason;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.random.RandomGenerator;
+
+/**
+ * Modelo de ilhas do algoritmo genético: cada ilha evolui sua própria população numa
+ * tarefa do executor e, periodicamente, publica cópias dos seus melhores indivíduos na
+ * caixa de entrada de outra ilha. As caixas são referências atômicas: quem envia
+ * substitui o lote pendente e quem recebe o retira com {@code getAndSet}, sem locks.
+ * Cada ilha mede as próprias gerações numa {@link GenerationProbe} e as entrega aos
+ * listeners da sua thread; as entregas das várias ilhas são serializadas.
+ */
+final class IslandModel {
+    private final EnergyAwareGeneticAlgorithm ga;
+    private final int islandCount;
+    private final int migrationInterval;
+    private final int migrationSize;
+    private final MigrationTopology topology;
+    private final AtomicReferenceArray<List<AllocationSolution>> inboxes;
+    private final List<GenerationListener> observers;
+    private final List<IslandTelemetry> telemetry = new ArrayList<>();
+    private TerminationReason terminationReason;
+
+    IslandModel(EnergyAwareGeneticAlgorithm ga, int islandCount, int migrationInterval, int migrationSize,
+                MigrationTopology topology, List<GenerationListener> observers) {
+        this.ga = ga;
+        this.islandCount = islandCount;
+        this.migrationInterval = migrationInterval;
+        this.migrationSize = migrationSize;
+        this.topology = topology;
+        this.inboxes = new AtomicReferenceArray<>(islandCount);
+        this.observers = List.copyOf(observers);
+    }
+
+    /**
+     * Evolui todas as ilhas por {@code maxGenerations} gerações, cada uma com o gerador
+     * correspondente em {@code islandRandoms}, e devolve a melhor solução entre elas.
+     */
+    AllocationSolution evolve(ExecutorService threads, List<RandomGenerator> islandRandoms, int maxGenerations) {
+        long start = System.nanoTime();
+        List<Callable<Island>> tasks = new ArrayList<>(islandCount);
+        for (int i = 0; i < islandCount; i++) {
+            Island island = new Island(i, islandRandoms.get(i));
+            tasks.add(() -> {
+                island.evolve(maxGenerations, start);
+                return island;
+            });
+        }
+
+        AllocationSolution best = null;
+        for (Island island : EnergyAwareGeneticAlgorithm.invokeAll(threads, tasks)) {
+            telemetry.add(new IslandTelemetry(island.index, island.bestFitnessByGeneration,
+                island.elapsedNanosByGeneration, island.immigrantsReceived, island.terminationReason));
+            if (best == null || island.best.getFitness() < best.getFitness()) {
+                best = island.best;
+                terminationReason = island.terminationReason;
+            }
+        }
+        return best;
+    }
+
+    List<IslandTelemetry> getTelemetry() {
+        return List.copyOf(telemetry);
+    }
+
+    /** Critério que encerrou a ilha de onde veio a melhor solução. */
+    TerminationReason getTerminationReason() {
+        return terminationReason;
+    }
+
+    private final class Island {
+        private final int index;
+        private final RandomGenerator rng;
+        private List<AllocationSolution> population;
+        private AllocationSolution best;
+        private double[] bestFitnessByGeneration;
+        private long[] elapsedNanosByGeneration;
+        private int immigrantsReceived;
+        private TerminationReason terminationReason;
+        private GenerationProbe probe;
+
+        Island(int index, RandomGenerator rng) {
+            this.index = index;
+            this.rng = rng;
+        }
+
+        void evolve(int maxGenerations, long start) {
+            TerminationMonitor monitor = ga.newTerminationMonitor(start);
+            bestFitnessByGeneration = new double[maxGenerations];
+            elapsedNanosByGeneration = new long[maxGenerations];
+
+            population = ga.initializePopulation(rng);
+            List<AllocationSolution> next = ga.newPopulationBuffer();
+            long generationStart = startObservation();
+            for (AllocationSolution individual : population) {
+                ga.repairAndScore(individual, probe);
+                offerBest(individual);
+            }
+            if (probe != null) {
+                probe.evaluationNanos.add(System.nanoTime() - generationStart);
+            }
+            publish(0, generationStart, start);
+
+            int generation = 0;
+            while ((terminationReason = monitor.check(generation, best.getFitness(), population, best)) == null) {
+                generationStart = startObservation();
+                ga.nextGeneration(population, best, next, rng, probe);
+                List<AllocationSolution> previous = population;
+                population = next;
+                next = previous;
+                for (int i = 1; i < population.size(); i++) {
+                    offerBest(population.get(i));
+                }
+
+                if ((generation + 1) % migrationInterval == 0) {
+                    migrate();
+                }
+
+                bestFitnessByGeneration[generation] = best.getFitness();
+                elapsedNanosByGeneration[generation] = System.nanoTime() - start;
+                generation++;
+                publish(generation, generationStart, start);
+            }
+            bestFitnessByGeneration = Arrays.copyOf(bestFitnessByGeneration, generation);
+            elapsedNanosByGeneration = Arrays.copyOf(elapsedNanosByGeneration, generation);
+        }
+
+        private long startObservation() {
+            probe = GenerationProbe.observe(observers, probe);
+            return probe == null ? 0L : System.nanoTime();
+        }
+
+        private void publish(int generation, long generationStart, long runStart) {
+            if (probe == null) {
+                return;
+            }
+            long now = System.nanoTime();
+            GenerationStats stats = new GenerationStats(generation, index, 0, population, best, probe,
+                probe.repairRate(), probe.repairMoves.sum(), now - generationStart, now - runStart);
+            synchronized (observers) {
+                for (GenerationListener observer : observers) {
+                    observer.generationCompleted(stats);
+                }
+            }
+            probe.commit(stats);
+        }
+
+        /**
+         * Envia os melhores indivíduos para a ilha de destino e substitui os piores pelos
+         * imigrantes que estiverem pendentes na própria caixa de entrada.
+         */
+        private void migrate() {
+            population.sort(Comparator.comparingDouble(AllocationSolution::getFitness));
+
+            int emigrants = Math.min(migrationSize, population.size());
+            if (emigrants > 0) {
+                List<AllocationSolution> batch = new ArrayList<>(emigrants);
+                for (int i = 0; i < emigrants; i++) {
+                    batch.add(new AllocationSolution(population.get(i)));
+                }
+                inboxes.set(destination(), batch);
+            }
+
+            List<AllocationSolution> immigrants = inboxes.getAndSet(index, null);
+            if (immigrants == null) {
+                return;
+            }
+            // O primeiro indivíduo (o melhor da ilha) nunca é substituído
+            int slot = population.size() - 1;
+            for (AllocationSolution immigrant : immigrants) {
+                if (slot < 1) {
+                    break;
+                }
+                population.set(slot--, immigrant);
+                immigrantsReceived++;
+                offerBest(immigrant);
+            }
+        }
+
+        private int destination() {
+            if (topology == MigrationTopology.RING) {
+                return (index + 1) % islandCount;
+            }
+            int target = rng.nextInt(islandCount - 1);
+            return target >= index ? target + 1 : target;
+        }
+
+        private void offerBest(AllocationSolution candidate) {
+            if (best == null) {
+                best = new AllocationSolution(candidate);
+            } else if (candidate.getFitness() < best.getFitness()) {
+                best.copyFrom(candidate);
+            }
+        }
+    }
+}
@@ -0,0 +1,298 @@
+package geneticovm.genetic;
+
+import geneticovm.genetic.EnergyAwareGeneticAlgorithm.AllocationSolution;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * Modo multiobjetivo NSGA-II. Os {@value #OBJECTIVES} objetivos minimizados são os de
+ * {@link AllocationSolution#getObjectives()}; a sobrecarga não é um objetivo, e sim uma
+ * restrição: soluções viáveis dominam as inviáveis, e entre inviáveis vence a de menor
+ * violação (dominância com restrições de Deb).
+ *
+ * <p>Pais e filhos ocupam um único vetor de 2N soluções: depois de cada seleção os
+ * sobreviventes são movidos para as N primeiras posições e os filhos da geração seguinte
+ * sobrescrevem as N últimas. A ordenação não dominada usa o ENS-BS (Efficient
+ * Non-dominated Sort com busca binária, Zhang et al. 2015): as soluções são ordenadas
+ * lexicograficamente e cada uma só é comparada com membros das frentes visitadas pela
+ * busca binária, em vez das N² comparações da versão original.
+ */
+final class Nsga2 {
+    static final int OBJECTIVES = 3;
+
+    private final EnergyAwareGeneticAlgorithm ga;
+    private final int populationSize;
+    private final AllocationSolution[] slots;
+    private final int[] rank;
+    private final double[] crowding;
+    // Áreas de trabalho da ordenação, reaproveitadas a cada geração
+    private final int[] order;
+    private final int[] scratch;
+    private final int[] frontSizes;
+    private final int[][] fronts;
+    private final AllocationSolution[] reorderedSlots;
+    private final int[] reorderedRank;
+    private final double[] reorderedCrowding;
+
+    Nsga2(EnergyAwareGeneticAlgorithm ga, int populationSize) {
+        this.ga = ga;
+        this.populationSize = populationSize;
+        int capacity = 2 * populationSize;
+        this.slots = new AllocationSolution[capacity];
+        this.rank = new int[capacity];
+        this.crowding = new double[capacity];
+        this.order = new int[capacity];
+        this.scratch = new int[capacity];
+        this.frontSizes = new int[capacity];
+        this.fronts = new int[capacity][];
+        this.reorderedSlots = new AllocationSolution[capacity];
+        this.reorderedRank = new int[capacity];
+        this.reorderedCrowding = new double[capacity];
+    }
+
+    /** Inicializa a população com {@code initial} (já avaliada) e ordena em frentes. */
+    void initialize(List<AllocationSolution> initial, List<AllocationSolution> offspringBuffer) {
+        for (int i = 0; i < populationSize; i++) {
+            slots[i] = initial.get(i);
+            slots[populationSize + i] = offspringBuffer.get(i);
+        }
+        rankAndCrowd(populationSize);
+    }
+
+    /** Gera N filhos, ordena pais e filhos em frentes e mantém os N melhores. */
+    void step(RandomGenerator rng) {
+        GenerationProbe observing = ga.currentProbe();
+        for (int i = populationSize; i < slots.length; i++) {
+            long selectionStart = observing != null ? System.nanoTime() : 0L;
+            AllocationSolution parent1 = slots[crowdedTournament(rng)];
+            AllocationSolution parent2 = slots[crowdedTournament(rng)];
+            if (observing != null) {
+                observing.selectionNanos.add(System.nanoTime() - selectionStart);
+            }
+            ga.breedMultiObjective(parent1, parent2, slots[i], rng);
+        }
+        rankAndCrowd(slots.length);
+        selectSurvivors();
+    }
+
+    /** Soluções não dominadas da população atual, copiadas e sem genomas repetidos. */
+    List<AllocationSolution> paretoFront() {
+        List<AllocationSolution> front = new ArrayList<>();
+        for (int i = 0; i < populationSize; i++) {
+            if (rank[i] != 0) {
+                continue;
+            }
+            AllocationSolution candidate = slots[i];
+            boolean duplicate = false;
+            for (AllocationSolution member : front) {
+                if (member.hash() == candidate.hash() && member.checksum() == candidate.checksum()) {
+                    duplicate = true;
+                    break;
+                }
+            }
+            if (!duplicate) {
+                front.add(new AllocationSolution(candidate));
+            }
+        }
+        front.sort(Comparator.comparingDouble((AllocationSolution s) -> s.objective(0))
+            .thenComparingDouble(s -> s.objective(1))
+            .thenComparingDouble(s -> s.objective(2)));
+        return front;
+    }
+
+    /** Visão das N soluções da população atual, válida até a próxima geração. */
+    List<AllocationSolution> population() {
+        return Arrays.asList(slots).subList(0, populationSize);
+    }
+
+    /** Frente (0 = não dominada) da solução na posição {@code slot}. */
+    int rank(int slot) {
+        return rank[slot];
+    }
+
+    int frontSize() {
+        int size = 0;
+        for (int i = 0; i < populationSize; i++) {
+            if (rank[i] == 0) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    /** Torneio binário pelo operador de comparação com aglomeração (rank, depois distância). */
+    private int crowdedTournament(RandomGenerator rng) {
+        int a = rng.nextInt(populationSize);
+        int b = rng.nextInt(populationSize);
+        if (rank[a] != rank[b]) {
+            return rank[a] < rank[b] ? a : b;
+        }
+        return crowding[a] >= crowding[b] ? a : b;
+    }
+
+    /** Ordenação não dominada (ENS-BS) e distância de aglomeração das {@code n} primeiras posições. */
+    private void rankAndCrowd(int n) {
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        sort(order, n, this::compareLexicographically);
+
+        int frontCount = 0;
+        for (int k = 0; k < n; k++) {
+            int p = order[k];
+            // Primeira frente em que nenhum membro domina p: como as anteriores na ordem
+            // lexicográfica não podem ser dominadas por p, basta compará-lo com elas
+            int low = 0;
+            int high = frontCount;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (dominatedByFront(p, mid)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            if (low == frontCount) {
+                if (fronts[frontCount] == null) {
+                    fronts[frontCount] = new int[slots.length];
+                }
+                frontSizes[frontCount++] = 0;
+            }
+            fronts[low][frontSizes[low]++] = p;
+            rank[p] = low;
+        }
+
+        for (int f = 0; f < frontCount; f++) {
+            assignCrowding(fronts[f], frontSizes[f]);
+        }
+    }
+
+    private boolean dominatedByFront(int p, int front) {
+        int[] members = fronts[front];
+        for (int i = frontSizes[front] - 1; i >= 0; i--) {
+            if (dominates(slots[members[i]], slots[p])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Dominância com restrições: viabilidade primeiro, depois dominância de Pareto. */
+    static boolean dominates(AllocationSolution a, AllocationSolution b) {
+        double violationA = a.constraintViolation();
+        double violationB = b.constraintViolation();
+        if (violationA != violationB) {
+            return violationA < violationB;
+        }
+        if (violationA > 0) {
+            return false;
+        }
+        boolean strictlyBetter = false;
+        for (int m = 0; m < OBJECTIVES; m++) {
+            double x = a.objective(m);
+            double y = b.objective(m);
+            if (x > y) {
+                return false;
+            }
+            if (x < y) {
+                strictlyBetter = true;
+            }
+        }
+        return strictlyBetter;
+    }
+
+    private int compareLexicographically(int i, int j) {
+        int byViolation = Double.compare(slots[i].constraintViolation(), slots[j].constraintViolation());
+        if (byViolation != 0) {
+            return byViolation;
+        }
+        for (int m = 0; m < OBJECTIVES; m++) {
+            int byObjective = Double.compare(slots[i].objective(m), slots[j].objective(m));
+            if (byObjective != 0) {
+                return byObjective;
+            }
+        }
+        return 0;
+    }
+
+    private void assignCrowding(int[] front, int size) {
+        for (int i = 0; i < size; i++) {
+            crowding[front[i]] = 0.0;
+        }
+        if (size <= 2) {
+            for (int i = 0; i < size; i++) {
+                crowding[front[i]] = Double.POSITIVE_INFINITY;
+            }
+            return;
+        }
+        for (int m = 0; m < OBJECTIVES; m++) {
+            int objective = m;
+            sort(front, size, (i, j) -> Double.compare(slots[i].objective(objective), slots[j].objective(objective)));
+            double min = slots[front[0]].objective(m);
+            double max = slots[front[size - 1]].objective(m);
+            crowding[front[0]] = Double.POSITIVE_INFINITY;
+            crowding[front[size - 1]] = Double.POSITIVE_INFINITY;
+            if (max == min) {
+                continue;
+            }
+            for (int i = 1; i < size - 1; i++) {
+                crowding[front[i]] += (slots[front[i + 1]].objective(m) - slots[front[i - 1]].objective(m)) / (max - min);
+            }
+        }
+    }
+
+    /**
+     * Mantém as N melhores soluções (frentes inteiras e, na última, as de maior distância
+     * de aglomeração) nas primeiras posições, com rank e aglomeração acompanhando.
+     */
+    private void selectSurvivors() {
+        // Ordem de sobrevivência: rank crescente, aglomeração decrescente
+        for (int i = 0; i < slots.length; i++) {
+            order[i] = i;
+        }
+        sort(order, slots.length, (i, j) -> rank[i] != rank[j]
+            ? Integer.compare(rank[i], rank[j])
+            : Double.compare(crowding[j], crowding[i]));
+
+        for (int k = 0; k < slots.length; k++) {
+            reorderedSlots[k] = slots[order[k]];
+            reorderedRank[k] = rank[order[k]];
+            reorderedCrowding[k] = crowding[order[k]];
+        }
+        System.arraycopy(reorderedSlots, 0, slots, 0, slots.length);
+        System.arraycopy(reorderedRank, 0, rank, 0, slots.length);
+        System.arraycopy(reorderedCrowding, 0, crowding, 0, slots.length);
+    }
+
+    @FunctionalInterface
+    private interface IndexComparator {
+        int compare(int i, int j);
+    }
+
+    /** Merge sort estável de índices, sem boxing. */
+    private void sort(int[] values, int n, IndexComparator comparator) {
+        for (int width = 1; width < n; width *= 2) {
+            for (int low = 0; low < n - width; low += 2 * width) {
+                int mid = low + width;
+                int high = Math.min(low + 2 * width, n);
+                int i = low;
+                int j = mid;
+                int k = low;
+                while (i < mid && j < high) {
+                    scratch[k++] = comparator.compare(values[j], values[i]) < 0 ? values[j++] : values[i++];
+                }
+                while (i < mid) {
+                    scratch[k++] = values[i++];
+                }
+                while (j < high) {
+                    scratch[k++] = values[j++];
+                }
+                System.arraycopy(scratch, low, values, low, high - low);
+            }
+        }
+    }
+}
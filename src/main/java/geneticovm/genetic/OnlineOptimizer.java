@@ -0,0 +1,376 @@
+package geneticovm.genetic;
+
+import geneticovm.genetic.EnergyAwareGeneticAlgorithm.AllocationSolution;
+import org.cloudsimplus.hosts.Host;
+import org.cloudsimplus.vms.Vm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+
+/**
+ * Otimizador de longa duração para um datacenter com chegadas e saídas contínuas de VMs.
+ * Em vez de criar um {@link EnergyAwareGeneticAlgorithm} do zero a cada evento, mantém a
+ * população evoluída entre as reotimizações: {@link #addVm}, {@link #removeVm},
+ * {@link #addHost} e {@link #drainHost} corrigem os genomas no lugar e
+ * {@link #reoptimize(int)} roda só algumas gerações a partir deles.
+ *
+ * <p>Os genomas ficam em vetores com folga que crescem por duplicação, então a chegada e
+ * a saída de uma VM custam O(P) amortizado (P = tamanho da população); a saída troca a VM
+ * removida pela última. A alocação devolvida por cada reotimização passa a ser a
+ * alocação atual: a próxima reotimização paga o custo de cada migração ao vivo a partir
+ * dela e {@link #setMigrationLimit} limita quantas VMs alocadas podem ser migradas.
+ *
+ * <p>O tráfego entre VMs ({@link #addTraffic}, {@link #setCommunicationGraph}) acompanha
+ * as chegadas e saídas, então todas as reotimizações otimizam o mesmo objetivo. VMs e
+ * hosts são identificados pela referência, não por {@code equals}: entidades do CloudSim
+ * Plus ainda fora de um datacenter têm todas id -1, e o hash de uma VM muda quando ela é
+ * submetida a um broker.
+ */
+public class OnlineOptimizer {
+    private static final int MIN_CAPACITY = 16;
+    // Tentativas de colocar uma VM junto de outra VM sorteada antes de sortear um host
+    private static final int PEER_ATTEMPTS = 8;
+
+    private final int populationSize;
+    private final double crossoverRate;
+    private final double mutationRate;
+    private final int tournamentSize;
+    private final SplittableRandom random;
+
+    private final List<Vm> vms = new ArrayList<>();
+    private final List<Host> hosts = new ArrayList<>();
+    private final Map<Vm, Integer> vmIndex = new IdentityHashMap<>();
+    private final Map<Host, Integer> hostIndex = new IdentityHashMap<>();
+    // Tráfego de cada VM (na posição dela em vms) para as VMs com que se comunica
+    private final List<Map<Vm, Double>> traffic = new ArrayList<>();
+    private Function<List<Host>, HostDistanceModel> distanceModel = HostDistanceModel::byHostId;
+    private boolean consoleOutput;
+
+    // Genomas da população aquecida (vazio antes da primeira reotimização) e alocação atual,
+    // todos com capacidade >= número de VMs
+    private int[][] genomes = new int[0][];
+    private int[] placement = new int[MIN_CAPACITY];
+
+    private double migrationCostWeight = 0.1;
+    private int migrationLimit = Integer.MAX_VALUE;
+    private int lastMigrations;
+    private List<EnergyAwareGeneticAlgorithm.MigrationStep> lastPlan = List.of();
+
+    public OnlineOptimizer(int populationSize, double crossoverRate, double mutationRate,
+                           int tournamentSize, long seed) {
+        this.populationSize = populationSize;
+        this.crossoverRate = crossoverRate;
+        this.mutationRate = mutationRate;
+        this.tournamentSize = tournamentSize;
+        this.random = new SplittableRandom(seed);
+    }
+
+    /**
+     * Máximo de VMs já alocadas que cada reotimização pode migrar (padrão: sem limite).
+     * VMs novas e VMs de hosts em drenagem não contam.
+     */
+    public void setMigrationLimit(int migrationLimit) {
+        if (migrationLimit < 0) {
+            throw new IllegalArgumentException("migrationLimit deve ser não negativo: " + migrationLimit);
+        }
+        this.migrationLimit = migrationLimit;
+    }
+
+    /** Peso do custo de migração ao vivo no fitness (ver {@link EnergyAwareGeneticAlgorithm#setMigrationCostWeight}). */
+    public void setMigrationCostWeight(double migrationCostWeight) {
+        if (migrationCostWeight < 0) {
+            throw new IllegalArgumentException("migrationCostWeight deve ser não negativo: " + migrationCostWeight);
+        }
+        this.migrationCostWeight = migrationCostWeight;
+    }
+
+    /**
+     * Modelo de distância entre hosts, criado a cada reotimização para a lista atual de
+     * hosts (que muda com {@link #addHost} e {@link #drainHost}). O padrão é
+     * {@link HostDistanceModel#byHostId}.
+     */
+    public void setHostDistanceModel(Function<List<Host>, HostDistanceModel> distanceModel) {
+        this.distanceModel = Objects.requireNonNull(distanceModel);
+    }
+
+    /** Liga ou desliga o andamento de cada reotimização no console (padrão: desligado). */
+    public void setConsoleOutput(boolean consoleOutput) {
+        this.consoleOutput = consoleOutput;
+    }
+
+    /**
+     * Substitui todo o tráfego conhecido pelo do grafo, indexado pela posição das VMs em
+     * {@link #getVms()}.
+     */
+    public void setCommunicationGraph(CommunicationGraph graph) {
+        if (graph.getVmCount() != vms.size()) {
+            throw new IllegalArgumentException(String.format(
+                "Grafo de comunicação tem %d VMs, mas o otimizador tem %d", graph.getVmCount(), vms.size()));
+        }
+        for (Map<Vm, Double> peers : traffic) {
+            peers.clear();
+        }
+        for (int vm = 0; vm < vms.size(); vm++) {
+            for (int e = graph.offsets[vm]; e < graph.offsets[vm + 1]; e++) {
+                traffic.get(vm).merge(vms.get(graph.neighbors[e]), graph.weights[e], Double::sum);
+            }
+        }
+    }
+
+    /**
+     * Soma {@code amount} ao tráfego entre duas VMs do otimizador. O tráfego sai do grafo
+     * junto com a VM em {@link #removeVm}.
+     */
+    public void addTraffic(Vm vm1, Vm vm2, double amount) {
+        int index1 = requireVm(vm1);
+        int index2 = requireVm(vm2);
+        if (index1 == index2) {
+            throw new IllegalArgumentException("Tráfego de uma VM para ela mesma: " + vm1.getId());
+        }
+        if (amount < 0) {
+            throw new IllegalArgumentException("Tráfego negativo entre VMs " + vm1.getId() + " e " + vm2.getId());
+        }
+        if (amount > 0) {
+            traffic.get(index1).merge(vm2, amount, Double::sum);
+            traffic.get(index2).merge(vm1, amount, Double::sum);
+        }
+    }
+
+    /** Adiciona um host vazio; os genomas não mudam. */
+    public void addHost(Host host) {
+        if (hostIndex.putIfAbsent(host, hosts.size()) != null) {
+            throw new IllegalArgumentException("Host " + host.getId() + " já faz parte do otimizador");
+        }
+        hosts.add(host);
+    }
+
+    /**
+     * Adiciona uma VM ainda não alocada. Em cada genoma ela vai para o host de outra VM
+     * sorteada (tende a cair num host ativo), e o reparo da próxima reotimização resolve
+     * eventuais sobrecargas.
+     */
+    public void addVm(Vm vm) {
+        if (hosts.isEmpty()) {
+            throw new IllegalStateException("Nenhum host disponível para a VM " + vm.getId());
+        }
+        if (vmIndex.putIfAbsent(vm, vms.size()) != null) {
+            throw new IllegalArgumentException("VM " + vm.getId() + " já faz parte do otimizador");
+        }
+        int index = vms.size();
+        vms.add(vm);
+        traffic.add(new IdentityHashMap<>());
+        ensureCapacity(index + 1);
+        placement[index] = AllocationSolution.UNASSIGNED;
+        for (int[] genome : genomes) {
+            genome[index] = nearPeer(genome, index, -1);
+        }
+    }
+
+    /** Remove a VM; a última VM ocupa a posição dela em todos os genomas. */
+    public void removeVm(Vm vm) {
+        Integer removed = vmIndex.remove(vm);
+        if (removed == null) {
+            throw new IllegalArgumentException("VM " + vm.getId() + " não faz parte do otimizador");
+        }
+        for (Vm peer : traffic.get(removed).keySet()) {
+            traffic.get(vmIndex.get(peer)).remove(vm);
+        }
+        int last = vms.size() - 1;
+        Vm moved = vms.remove(last);
+        Map<Vm, Double> movedTraffic = traffic.remove(last);
+        if (removed != last) {
+            vms.set(removed, moved);
+            traffic.set(removed, movedTraffic);
+            vmIndex.put(moved, removed);
+            placement[removed] = placement[last];
+            for (int[] genome : genomes) {
+                genome[removed] = genome[last];
+            }
+        }
+    }
+
+    /**
+     * Retira o host do otimizador. Em cada genoma, as VMs dele vão para hosts de outras
+     * VMs; na alocação atual elas passam a não alocadas, para que sua migração obrigatória
+     * não conte no limite. O último host ocupa a posição do host removido.
+     */
+    public void drainHost(Host host) {
+        Integer drained = hostIndex.remove(host);
+        if (drained == null) {
+            throw new IllegalArgumentException("Host " + host.getId() + " não faz parte do otimizador");
+        }
+        int vmCount = vms.size();
+        if (vmCount > 0 && hosts.size() == 1) {
+            hostIndex.put(host, drained);
+            throw new IllegalStateException("Não é possível drenar o último host com VMs alocadas");
+        }
+        int last = hosts.size() - 1;
+        for (int vm = 0; vm < vmCount; vm++) {
+            if (placement[vm] == drained) {
+                placement[vm] = AllocationSolution.UNASSIGNED;
+            }
+        }
+        for (int[] genome : genomes) {
+            for (int vm = 0; vm < vmCount; vm++) {
+                if (genome[vm] == drained) {
+                    genome[vm] = nearPeer(genome, vm, drained);
+                }
+            }
+        }
+
+        Host moved = hosts.remove(last);
+        if (drained != last) {
+            hosts.set(drained, moved);
+            hostIndex.put(moved, drained);
+            for (int vm = 0; vm < vmCount; vm++) {
+                if (placement[vm] == last) {
+                    placement[vm] = drained;
+                }
+            }
+            for (int[] genome : genomes) {
+                for (int vm = 0; vm < vmCount; vm++) {
+                    if (genome[vm] == last) {
+                        genome[vm] = drained;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Evolui a população aquecida por {@code generations} gerações, respeitando o limite
+     * de migrações em relação à alocação atual, e adota a melhor solução como nova
+     * alocação atual. A primeira chamada parte de uma população aleatória.
+     */
+    public AllocationSolution reoptimize(int generations) {
+        int vmCount = vms.size();
+        if (vmCount > 0 && hosts.isEmpty()) {
+            throw new IllegalStateException("Nenhum host disponível para " + vmCount + " VMs");
+        }
+        EnergyAwareGeneticAlgorithm ga = new EnergyAwareGeneticAlgorithm(vms, hosts, populationSize,
+            generations, crossoverRate, mutationRate, tournamentSize, random.nextLong(), communicationGraph());
+        ga.setHostDistanceModel(distanceModel.apply(List.copyOf(hosts)));
+        ga.setConsoleOutput(consoleOutput);
+
+        int[] current = Arrays.copyOf(placement, vmCount);
+        ga.setCurrentPlacement(current);
+        ga.setMigrationCostWeight(migrationCostWeight);
+        ga.setMigrationLimit(migrationLimit);
+        List<int[]> warm = new ArrayList<>(genomes.length);
+        for (int[] genome : genomes) {
+            warm.add(Arrays.copyOf(genome, vmCount));
+        }
+        ga.setInitialPopulation(warm);
+
+        AllocationSolution best = ga.run();
+        lastPlan = ga.planMigrations(best);
+
+        List<AllocationSolution> population = ga.getFinalPopulation();
+        int capacity = placement.length;
+        genomes = new int[population.size()][];
+        for (int i = 0; i < genomes.length; i++) {
+            genomes[i] = Arrays.copyOf(population.get(i).genes(), capacity);
+        }
+        int[] bestGenes = best.genes();
+        System.arraycopy(bestGenes, 0, placement, 0, vmCount);
+        lastMigrations = best.getMigrationCount();
+        return best;
+    }
+
+    /**
+     * Migrações (e alocações de VMs novas) da última reotimização, na ordem em que devem
+     * ser executadas (ver {@link EnergyAwareGeneticAlgorithm#planMigrations}).
+     */
+    public List<EnergyAwareGeneticAlgorithm.MigrationStep> getMigrationPlan() {
+        return lastPlan;
+    }
+
+    /** Número de VMs já alocadas que a última reotimização migrou. */
+    public int getLastMigrationCount() {
+        return lastMigrations;
+    }
+
+    /**
+     * Alocação atual, num mapa por identidade; VMs que ainda não passaram por uma
+     * reotimização não aparecem.
+     */
+    public Map<Vm, Host> getPlacement() {
+        Map<Vm, Host> result = new IdentityHashMap<>();
+        for (int vm = 0; vm < vms.size(); vm++) {
+            if (placement[vm] != AllocationSolution.UNASSIGNED) {
+                result.put(vms.get(vm), hosts.get(placement[vm]));
+            }
+        }
+        return result;
+    }
+
+    public List<Vm> getVms() {
+        return List.copyOf(vms);
+    }
+
+    public List<Host> getHosts() {
+        return List.copyOf(hosts);
+    }
+
+    /** Cópias dos genomas da população aquecida, com uma posição por VM atual. */
+    List<int[]> getWarmGenomes() {
+        List<int[]> copies = new ArrayList<>(genomes.length);
+        for (int[] genome : genomes) {
+            copies.add(Arrays.copyOf(genome, vms.size()));
+        }
+        return copies;
+    }
+
+    /** Grafo do tráfego conhecido, indexado pela posição atual das VMs. */
+    CommunicationGraph communicationGraph() {
+        CommunicationGraph.Builder builder = new CommunicationGraph.Builder(vms.size());
+        for (int vm = 0; vm < vms.size(); vm++) {
+            for (Map.Entry<Vm, Double> edge : traffic.get(vm).entrySet()) {
+                int peer = vmIndex.get(edge.getKey());
+                if (vm < peer) {
+                    builder.addEdge(vm, peer, edge.getValue());
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    private int requireVm(Vm vm) {
+        Integer index = vmIndex.get(vm);
+        if (index == null) {
+            throw new IllegalArgumentException("VM " + vm.getId() + " não faz parte do otimizador");
+        }
+        return index;
+    }
+
+    /** Host de outra VM sorteada do genoma, diferente de {@code excludedHost}, ou um host sorteado. */
+    private int nearPeer(int[] genome, int vm, int excludedHost) {
+        int vmCount = vms.size();
+        for (int attempt = 0; attempt < PEER_ATTEMPTS && vmCount > 1; attempt++) {
+            int peer = random.nextInt(vmCount);
+            if (peer != vm && genome[peer] != excludedHost && genome[peer] != AllocationSolution.UNASSIGNED) {
+                return genome[peer];
+            }
+        }
+        int hostCount = excludedHost < 0 ? hosts.size() : hosts.size() - 1;
+        int host = random.nextInt(hostCount);
+        return excludedHost >= 0 && host >= excludedHost ? host + 1 : host;
+    }
+
+    private void ensureCapacity(int vmCount) {
+        if (vmCount <= placement.length) {
+            return;
+        }
+        int capacity = Math.max(MIN_CAPACITY, Math.max(vmCount, 2 * placement.length));
+        placement = Arrays.copyOf(placement, capacity);
+        for (int i = 0; i < genomes.length; i++) {
+            genomes[i] = Arrays.copyOf(genomes[i], capacity);
+        }
+    }
+}
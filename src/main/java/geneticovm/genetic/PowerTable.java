@@ -0,0 +1,86 @@
+package geneticovm.genetic;
+
+import org.cloudsimplus.hosts.Host;
+import org.cloudsimplus.power.models.PowerModelHost;
+import org.cloudsimplus.power.models.PowerModelHostSpec;
+
+import java.util.List;
+
+/**
+ * Potência de cada host, em watts, tabelada uma única vez em {@value #POINTS} pontos de
+ * utilização de CPU (0%, 10%, ..., 100%, como nas tabelas do SPECpower) num único vetor
+ * plano. No laço de fitness a potência sai de uma interpolação linear entre dois pontos
+ * da tabela, sem chamar o {@link PowerModelHost} do CloudSim Plus.
+ *
+ * <p>Hosts com {@link PowerModelHostSpec} usam a própria tabela (reamostrada, se tiver
+ * outro número de pontos); outros modelos são amostrados com
+ * {@link PowerModelHost#getPower(double)}. Hosts sem modelo recebem um modelo linear
+ * aproximado, proporcional à capacidade de CPU.
+ */
+final class PowerTable {
+    static final int POINTS = 11;
+
+    // Aproximação para hosts sem modelo de energia
+    private static final double DEFAULT_WATTS_PER_MIPS = 0.05;
+    private static final double DEFAULT_STATIC_POWER_FRACTION = 0.7;
+
+    private final int hostCount;
+    private final double[] watts;
+
+    PowerTable(List<Host> hosts, ResourceTable resources) {
+        this.hostCount = hosts.size();
+        this.watts = new double[hostCount * POINTS];
+        for (int h = 0; h < hostCount; h++) {
+            PowerModelHost model = hosts.get(h).getPowerModel();
+            int base = h * POINTS;
+            if (model instanceof PowerModelHostSpec spec) {
+                resample(spec.getPowerSpecs(), base);
+            } else if (model == null || model == PowerModelHost.NULL) {
+                double maxPower = DEFAULT_WATTS_PER_MIPS * resources.hostCpu[h];
+                double staticPower = DEFAULT_STATIC_POWER_FRACTION * maxPower;
+                for (int p = 0; p < POINTS; p++) {
+                    watts[base + p] = staticPower + (maxPower - staticPower) * p / (POINTS - 1);
+                }
+            } else {
+                for (int p = 0; p < POINTS; p++) {
+                    watts[base + p] = model.getPower((double) p / (POINTS - 1));
+                }
+            }
+        }
+    }
+
+    private void resample(double[] specs, int base) {
+        int last = specs.length - 1;
+        for (int p = 0; p < POINTS; p++) {
+            double position = (double) p / (POINTS - 1) * last;
+            int i = Math.min((int) position, Math.max(last - 1, 0));
+            double fraction = last == 0 ? 0.0 : position - i;
+            watts[base + p] = last == 0 ? specs[0] : specs[i] + (specs[i + 1] - specs[i]) * fraction;
+        }
+    }
+
+    /** Potência do host ligado com a utilização de CPU informada (limitada a [0, 1]). */
+    double power(int host, double utilization) {
+        double position = Math.min(Math.max(utilization, 0.0), 1.0) * (POINTS - 1);
+        int i = Math.min((int) position, POINTS - 2);
+        int base = host * POINTS + i;
+        return watts[base] + (watts[base + 1] - watts[base]) * (position - i);
+    }
+
+    double staticPower(int host) {
+        return watts[host * POINTS];
+    }
+
+    double maxPower(int host) {
+        return watts[host * POINTS + POINTS - 1];
+    }
+
+    /** Potência máxima média dos hosts, usada para normalizar o termo de energia do fitness. */
+    double meanMaxPower() {
+        double sum = 0.0;
+        for (int h = 0; h < hostCount; h++) {
+            sum += maxPower(h);
+        }
+        return hostCount == 0 ? 1.0 : Math.max(sum / hostCount, Double.MIN_NORMAL);
+    }
+}
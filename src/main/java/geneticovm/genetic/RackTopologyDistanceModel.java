@@ -0,0 +1,93 @@
+package geneticovm.genetic;
+
+/**
+ * Distância em saltos numa árvore rack/pod/spine. Cada host pertence a um rack e cada
+ * rack a um pod; a distância sai do rack dos dois hosts e do pod desses racks, então
+ * cada consulta são até quatro leituras de array e a memória é O(hosts + racks).
+ */
+public final class RackTopologyDistanceModel implements HostDistanceModel {
+    /** Saltos host → ToR → host. */
+    public static final int SAME_RACK_HOPS = 2;
+    /** Saltos host → ToR → agregação → ToR → host. */
+    public static final int SAME_POD_HOPS = 4;
+    /** Saltos passando pelo spine. */
+    public static final int CROSS_POD_HOPS = 6;
+
+    private final int[] rackOfHost;
+    private final int[] podOfRack;
+    private final int sameRackHops;
+    private final int samePodHops;
+    private final int crossPodHops;
+
+    public RackTopologyDistanceModel(int[] rackOfHost, int[] podOfRack) {
+        this(rackOfHost, podOfRack, SAME_RACK_HOPS, SAME_POD_HOPS, CROSS_POD_HOPS);
+    }
+
+    /**
+     * @param rackOfHost rack de cada host, indexado pela posição do host na lista
+     * @param podOfRack  pod (não negativo) de cada rack
+     */
+    public RackTopologyDistanceModel(int[] rackOfHost, int[] podOfRack,
+                                     int sameRackHops, int samePodHops, int crossPodHops) {
+        this.rackOfHost = rackOfHost.clone();
+        this.podOfRack = podOfRack.clone();
+        for (int rack : this.rackOfHost) {
+            if (rack < 0 || rack >= this.podOfRack.length) {
+                throw new IllegalArgumentException("Rack inexistente: " + rack);
+            }
+        }
+        for (int rack = 0; rack < this.podOfRack.length; rack++) {
+            if (this.podOfRack[rack] < 0) {
+                throw new IllegalArgumentException("Pod inválido para o rack " + rack + ": " + this.podOfRack[rack]);
+            }
+        }
+        this.sameRackHops = sameRackHops;
+        this.samePodHops = samePodHops;
+        this.crossPodHops = crossPodHops;
+    }
+
+    /**
+     * Distribui {@code hostCount} hosts em racks de {@code hostsPerRack} hosts consecutivos
+     * e os racks em pods de {@code racksPerPod} racks consecutivos.
+     */
+    public static RackTopologyDistanceModel uniform(int hostCount, int hostsPerRack, int racksPerPod) {
+        if (hostsPerRack < 1 || racksPerPod < 1) {
+            throw new IllegalArgumentException("hostsPerRack e racksPerPod devem ser >= 1");
+        }
+        int[] rackOfHost = new int[hostCount];
+        for (int host = 0; host < hostCount; host++) {
+            rackOfHost[host] = host / hostsPerRack;
+        }
+        int rackCount = (hostCount + hostsPerRack - 1) / hostsPerRack;
+        int[] podOfRack = new int[rackCount];
+        for (int rack = 0; rack < rackCount; rack++) {
+            podOfRack[rack] = rack / racksPerPod;
+        }
+        return new RackTopologyDistanceModel(rackOfHost, podOfRack);
+    }
+
+    @Override
+    public int distance(int host1, int host2) {
+        if (host1 == host2) {
+            return 0;
+        }
+        int rack1 = rackOfHost[host1];
+        int rack2 = rackOfHost[host2];
+        if (rack1 == rack2) {
+            return sameRackHops;
+        }
+        return podOfRack[rack1] == podOfRack[rack2] ? samePodHops : crossPodHops;
+    }
+
+    public int getHostCount() {
+        return rackOfHost.length;
+    }
+
+    public int getRackOf(int host) {
+        return rackOfHost[host];
+    }
+
+    public int getRackCount() {
+        return podOfRack.length;
+    }
+}
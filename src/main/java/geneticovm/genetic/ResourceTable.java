@@ -0,0 +1,56 @@
+package geneticovm.genetic;
+
+import org.cloudsimplus.hosts.Host;
+import org.cloudsimplus.vms.Vm;
+
+import java.util.List;
+
+/**
+ * Demandas das VMs e capacidades dos hosts copiadas uma única vez para colunas
+ * primitivas (structure-of-arrays), indexadas pela posição da VM/host na lista
+ * original. Assim o cálculo de fitness e as checagens de viabilidade não passam
+ * pelos getters dos recursos do CloudSim Plus a cada geração.
+ */
+final class ResourceTable {
+    final int vmCount;
+    final int hostCount;
+
+    final double[] vmCpu;
+    final long[] vmRam;
+    final long[] vmStorage;
+    final long[] vmBw;
+
+    final double[] hostCpu;
+    final long[] hostRam;
+    final long[] hostStorage;
+    final long[] hostBw;
+
+    ResourceTable(List<Vm> vms, List<Host> hosts) {
+        this.vmCount = vms.size();
+        this.hostCount = hosts.size();
+
+        this.vmCpu = new double[vmCount];
+        this.vmRam = new long[vmCount];
+        this.vmStorage = new long[vmCount];
+        this.vmBw = new long[vmCount];
+        for (int i = 0; i < vmCount; i++) {
+            Vm vm = vms.get(i);
+            vmCpu[i] = vm.getTotalMipsCapacity();
+            vmRam[i] = vm.getRam().getCapacity();
+            vmStorage[i] = vm.getStorage().getCapacity();
+            vmBw[i] = vm.getBw().getCapacity();
+        }
+
+        this.hostCpu = new double[hostCount];
+        this.hostRam = new long[hostCount];
+        this.hostStorage = new long[hostCount];
+        this.hostBw = new long[hostCount];
+        for (int i = 0; i < hostCount; i++) {
+            Host host = hosts.get(i);
+            hostCpu[i] = host.getTotalMipsCapacity();
+            hostRam[i] = host.getRam().getCapacity();
+            hostStorage[i] = host.getStorage().getCapacity();
+            hostBw[i] = host.getBw().getCapacity();
+        }
+    }
+}
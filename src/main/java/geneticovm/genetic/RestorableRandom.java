@@ -0,0 +1,45 @@
+package geneticovm.genetic;
+
+import java.util.Random;
+
+/**
+ * {@link Random} com o mesmo gerador congruencial linear de 48 bits documentado na classe
+ * original (e, portanto, a mesma sequência para a mesma semente), mas cujo estado pode ser
+ * lido e restaurado, para que uma execução retomada de um checkpoint continue exatamente
+ * de onde parou. Não é thread-safe: é usado só pela thread que conduz a execução.
+ */
+final class RestorableRandom extends Random {
+    private static final long serialVersionUID = 1L;
+
+    private static final long MULTIPLIER = 0x5DEECE66DL;
+    private static final long ADDEND = 0xBL;
+    private static final long MASK = (1L << 48) - 1;
+
+    // Inicializado por setSeed, chamado pelo construtor de Random
+    private long state;
+
+    RestorableRandom(long seed) {
+        super(seed);
+    }
+
+    @Override
+    public synchronized void setSeed(long seed) {
+        super.setSeed(seed);
+        state = (seed ^ MULTIPLIER) & MASK;
+    }
+
+    @Override
+    protected int next(int bits) {
+        state = (state * MULTIPLIER + ADDEND) & MASK;
+        return (int) (state >>> (48 - bits));
+    }
+
+    /** Estado interno de 48 bits. */
+    long getState() {
+        return state;
+    }
+
+    void setState(long state) {
+        this.state = state & MASK;
+    }
+}
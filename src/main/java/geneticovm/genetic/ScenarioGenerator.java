@@ -0,0 +1,253 @@
+package geneticovm.genetic;
+
+import org.cloudsimplus.cloudlets.Cloudlet;
+import org.cloudsimplus.cloudlets.CloudletSimple;
+import org.cloudsimplus.hosts.Host;
+import org.cloudsimplus.hosts.HostSimple;
+import org.cloudsimplus.power.models.PowerModelHostSimple;
+import org.cloudsimplus.resources.Pe;
+import org.cloudsimplus.resources.PeSimple;
+import org.cloudsimplus.utilizationmodels.UtilizationModelFull;
+import org.cloudsimplus.vms.Vm;
+import org.cloudsimplus.vms.VmSimple;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Gerador de cenários sintéticos (frota de hosts heterogênea, VMs e cloudlets) com
+ * semente fixa. Cada objeto é criado sob demanda a partir de um gerador aleatório
+ * derivado da semente e do seu índice, então os streams podem ser consumidos em
+ * qualquer ordem (inclusive em paralelo) sem cópias intermediárias e sempre produzem
+ * o mesmo cenário.
+ */
+public final class ScenarioGenerator {
+    private static final long HOST_STREAM = 0x9E3779B97F4A7C15L;
+    private static final long VM_STREAM = 0xC2B2AE3D27D4EB4FL;
+    private static final long CLOUDLET_STREAM = 0x165667B19E3779F9L;
+
+    private final long seed;
+
+    private Distribution hostPes = Distribution.choice(2, 4, 8, 16);
+    private Distribution hostMipsPerPe = Distribution.choice(1000, 1500, 2000);
+    private Distribution hostRam = Distribution.choice(8192, 16384, 32768, 65536);
+    private Distribution hostStorage = Distribution.choice(500_000, 1_000_000, 2_000_000);
+    private Distribution hostBw = Distribution.choice(5000, 10000, 20000);
+    // Modelo de energia linear: potência máxima (W) e potência ociosa (% da máxima)
+    private Distribution hostMaxPower = Distribution.uniform(150, 350);
+    private Distribution hostIdlePowerPercent = Distribution.constant(70);
+
+    private Distribution vmPes = Distribution.choice(1, 2);
+    private Distribution vmMipsPerPe = Distribution.choice(500, 1000);
+    private Distribution vmRam = Distribution.choice(1024, 2048, 4096);
+    private Distribution vmStorage = Distribution.choice(50_000, 100_000, 200_000);
+    private Distribution vmBw = Distribution.choice(500, 1000, 2000);
+
+    private Distribution cloudletLength = Distribution.uniform(10_000, 100_000);
+    private Distribution cloudletPes = Distribution.constant(1);
+
+    public ScenarioGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    public Stream<Host> hosts(int count) {
+        return IntStream.range(0, count).mapToObj(this::createHost);
+    }
+
+    public Stream<Vm> vms(int count) {
+        return IntStream.range(0, count).mapToObj(this::createVm);
+    }
+
+    public Stream<Cloudlet> cloudlets(int count) {
+        return IntStream.range(0, count).mapToObj(this::createCloudlet);
+    }
+
+    public List<Host> createHosts(int count) {
+        return hosts(count).collect(Collectors.toCollection(() -> new ArrayList<>(count)));
+    }
+
+    public List<Vm> createVms(int count) {
+        return vms(count).collect(Collectors.toCollection(() -> new ArrayList<>(count)));
+    }
+
+    public List<Cloudlet> createCloudlets(int count) {
+        return cloudlets(count).collect(Collectors.toCollection(() -> new ArrayList<>(count)));
+    }
+
+    /** Host de índice {@code index}; o id do host é o próprio índice. */
+    public Host createHost(int index) {
+        RandomGenerator rng = randomFor(HOST_STREAM, index);
+        int peCount = (int) hostPes.sample(rng);
+        long mips = hostMipsPerPe.sample(rng);
+        List<Pe> pes = new ArrayList<>(peCount);
+        for (int p = 0; p < peCount; p++) {
+            pes.add(new PeSimple(mips));
+        }
+        long ram = hostRam.sample(rng);
+        long bw = hostBw.sample(rng);
+        long storage = hostStorage.sample(rng);
+        double maxPower = hostMaxPower.sample(rng);
+        double idlePower = maxPower * hostIdlePowerPercent.sample(rng) / 100.0;
+
+        Host host = new HostSimple(ram, bw, storage, pes);
+        host.setPowerModel(new PowerModelHostSimple(maxPower, idlePower));
+        host.setId(index);
+        return host;
+    }
+
+    /** VM de índice {@code index}; o id da VM é o próprio índice. */
+    public Vm createVm(int index) {
+        RandomGenerator rng = randomFor(VM_STREAM, index);
+        long mips = vmMipsPerPe.sample(rng);
+        long peCount = vmPes.sample(rng);
+
+        Vm vm = new VmSimple(mips, peCount);
+        vm.setRam(vmRam.sample(rng)).setBw(vmBw.sample(rng)).setSize(vmStorage.sample(rng));
+        vm.setId(index);
+        return vm;
+    }
+
+    /** Cloudlet de índice {@code index}; o id do cloudlet é o próprio índice. */
+    public Cloudlet createCloudlet(int index) {
+        RandomGenerator rng = randomFor(CLOUDLET_STREAM, index);
+        Cloudlet cloudlet = new CloudletSimple(cloudletLength.sample(rng), cloudletPes.sample(rng));
+        cloudlet.setUtilizationModel(new UtilizationModelFull());
+        cloudlet.setId(index);
+        return cloudlet;
+    }
+
+    private RandomGenerator randomFor(long stream, int index) {
+        return new SplittableRandom(seed ^ (stream * (index + 1L)));
+    }
+
+    public ScenarioGenerator setHostPes(Distribution hostPes) {
+        this.hostPes = Objects.requireNonNull(hostPes);
+        return this;
+    }
+
+    public ScenarioGenerator setHostMipsPerPe(Distribution hostMipsPerPe) {
+        this.hostMipsPerPe = Objects.requireNonNull(hostMipsPerPe);
+        return this;
+    }
+
+    public ScenarioGenerator setHostRam(Distribution hostRam) {
+        this.hostRam = Objects.requireNonNull(hostRam);
+        return this;
+    }
+
+    public ScenarioGenerator setHostStorage(Distribution hostStorage) {
+        this.hostStorage = Objects.requireNonNull(hostStorage);
+        return this;
+    }
+
+    public ScenarioGenerator setHostBw(Distribution hostBw) {
+        this.hostBw = Objects.requireNonNull(hostBw);
+        return this;
+    }
+
+    public ScenarioGenerator setHostMaxPower(Distribution hostMaxPower) {
+        this.hostMaxPower = Objects.requireNonNull(hostMaxPower);
+        return this;
+    }
+
+    public ScenarioGenerator setHostIdlePowerPercent(Distribution hostIdlePowerPercent) {
+        this.hostIdlePowerPercent = Objects.requireNonNull(hostIdlePowerPercent);
+        return this;
+    }
+
+    public ScenarioGenerator setVmPes(Distribution vmPes) {
+        this.vmPes = Objects.requireNonNull(vmPes);
+        return this;
+    }
+
+    public ScenarioGenerator setVmMipsPerPe(Distribution vmMipsPerPe) {
+        this.vmMipsPerPe = Objects.requireNonNull(vmMipsPerPe);
+        return this;
+    }
+
+    public ScenarioGenerator setVmRam(Distribution vmRam) {
+        this.vmRam = Objects.requireNonNull(vmRam);
+        return this;
+    }
+
+    public ScenarioGenerator setVmStorage(Distribution vmStorage) {
+        this.vmStorage = Objects.requireNonNull(vmStorage);
+        return this;
+    }
+
+    public ScenarioGenerator setVmBw(Distribution vmBw) {
+        this.vmBw = Objects.requireNonNull(vmBw);
+        return this;
+    }
+
+    public ScenarioGenerator setCloudletLength(Distribution cloudletLength) {
+        this.cloudletLength = Objects.requireNonNull(cloudletLength);
+        return this;
+    }
+
+    public ScenarioGenerator setCloudletPes(Distribution cloudletPes) {
+        this.cloudletPes = Objects.requireNonNull(cloudletPes);
+        return this;
+    }
+
+    /** Distribuição de um atributo inteiro (PEs, MIPS, RAM, storage, BW, potência, comprimento). */
+    @FunctionalInterface
+    public interface Distribution {
+
+        long sample(RandomGenerator rng);
+
+        static Distribution constant(long value) {
+            return rng -> value;
+        }
+
+        /** Uniforme no intervalo fechado {@code [min, max]}. */
+        static Distribution uniform(long min, long max) {
+            if (min > max) {
+                throw new IllegalArgumentException("min > max: " + min + " > " + max);
+            }
+            return rng -> rng.nextLong(min, max + 1);
+        }
+
+        /** Um dos valores, com a mesma probabilidade. */
+        static Distribution choice(long... values) {
+            if (values.length == 0) {
+                throw new IllegalArgumentException("Nenhum valor informado");
+            }
+            long[] copy = values.clone();
+            return rng -> copy[rng.nextInt(copy.length)];
+        }
+
+        /** Um dos valores, com probabilidade proporcional ao peso correspondente. */
+        static Distribution weighted(long[] values, double[] weights) {
+            if (values.length == 0 || values.length != weights.length) {
+                throw new IllegalArgumentException("values e weights devem ter o mesmo tamanho, não nulo");
+            }
+            long[] copy = values.clone();
+            double[] cumulative = new double[weights.length];
+            double total = 0.0;
+            for (int i = 0; i < weights.length; i++) {
+                if (weights[i] < 0) {
+                    throw new IllegalArgumentException("Peso negativo: " + weights[i]);
+                }
+                total += weights[i];
+                cumulative[i] = total;
+            }
+            double sum = total;
+            return rng -> {
+                double target = rng.nextDouble() * sum;
+                for (int i = 0; i < cumulative.length - 1; i++) {
+                    if (target < cumulative[i]) {
+                        return copy[i];
+                    }
+                }
+                return copy[copy.length - 1];
+            };
+        }
+    }
+}
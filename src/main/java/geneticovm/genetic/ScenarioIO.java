@@ -0,0 +1,428 @@
+package geneticovm.genetic;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import geneticovm.genetic.EnergyAwareGeneticAlgorithm.AllocationSolution;
+import org.cloudsimplus.hosts.Host;
+import org.cloudsimplus.hosts.HostSimple;
+import org.cloudsimplus.power.models.PowerModelHostSimple;
+import org.cloudsimplus.resources.Pe;
+import org.cloudsimplus.resources.PeSimple;
+import org.cloudsimplus.vms.Vm;
+import org.cloudsimplus.vms.VmSimple;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Importação e exportação de cenários (hosts e VMs) e de alocações.
+ *
+ * <p>O formato JSON é lido e escrito com a API de streaming do Jackson: cada host ou VM é
+ * criado assim que seu objeto termina de ser lido, sem árvore do documento nem cópia
+ * intermediária do inventário. O formato é
+ * <pre>
+ * {"hosts": [{"id": 0, "pes": 4, "mipsPerPe": 1000, "ram": 16384, "bw": 10000,
+ *             "storage": 1000000, "maxPower": 200, "idlePower": 140}, ...],
+ *  "vms":   [{"id": 0, "pes": 2, "mipsPerPe": 1000, "ram": 2048, "bw": 1000,
+ *             "storage": 100000}, ...]}
+ * </pre>
+ * {@code maxPower}/{@code idlePower} (em watts) são opcionais; sem eles o host não recebe
+ * modelo de energia. Campos desconhecidos são ignorados.
+ *
+ * <p>O formato binário é colunar: um cabeçalho com {@value #MAGIC} e as contagens,
+ * seguido de uma coluna de 8 bytes por atributo, na ordem de {@link #HOST_COLUMNS} e
+ * {@link #VM_COLUMNS}. {@link #mapBinary} mapeia o arquivo em memória
+ * ({@link MappedByteBuffer}) e lê as colunas diretamente, sem parsing: abrir um cenário de
+ * 100 mil VMs leva milissegundos, e o custo restante é só o de criar as VMs do CloudSim
+ * Plus que forem usadas.
+ */
+public final class ScenarioIO {
+    /** "GVMS" em ASCII. */
+    static final int MAGIC = 0x47564D53;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 16;
+    static final int HOST_COLUMNS = 8;
+    static final int VM_COLUMNS = 6;
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private ScenarioIO() {
+    }
+
+    /** Hosts e VMs de um cenário importado. */
+    public record Scenario(List<Host> hosts, List<Vm> vms) {
+    }
+
+    /** Lê o cenário JSON inteiro para listas. */
+    public static Scenario readJson(Path file) throws IOException {
+        List<Host> hosts = new ArrayList<>();
+        List<Vm> vms = new ArrayList<>();
+        readJson(file, hosts::add, vms::add);
+        return new Scenario(hosts, vms);
+    }
+
+    /**
+     * Lê o cenário JSON entregando cada host e cada VM ao consumidor correspondente assim
+     * que são lidos; nada do arquivo é mantido depois disso.
+     */
+    public static void readJson(Path file, Consumer<Host> hostSink, Consumer<Vm> vmSink) throws IOException {
+        try (JsonParser parser = JSON.createParser(file.toFile())) {
+            expect(parser, parser.nextToken(), JsonToken.START_OBJECT);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken token = parser.nextToken();
+                if ("hosts".equals(field)) {
+                    expect(parser, token, JsonToken.START_ARRAY);
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        hostSink.accept(readHost(parser));
+                    }
+                } else if ("vms".equals(field)) {
+                    expect(parser, token, JsonToken.START_ARRAY);
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        vmSink.accept(readVm(parser));
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+    }
+
+    private static Host readHost(JsonParser parser) throws IOException {
+        long id = -1, pes = 1, ram = 0, bw = 0, storage = 0;
+        double mipsPerPe = 0, maxPower = 0, idlePower = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            switch (field) {
+                case "id" -> id = parser.getLongValue();
+                case "pes" -> pes = parser.getLongValue();
+                case "mipsPerPe" -> mipsPerPe = parser.getDoubleValue();
+                case "ram" -> ram = parser.getLongValue();
+                case "bw" -> bw = parser.getLongValue();
+                case "storage" -> storage = parser.getLongValue();
+                case "maxPower" -> maxPower = parser.getDoubleValue();
+                case "idlePower" -> idlePower = parser.getDoubleValue();
+                default -> parser.skipChildren();
+            }
+        }
+        return createHost(id, pes, mipsPerPe, ram, bw, storage, maxPower, idlePower);
+    }
+
+    private static Vm readVm(JsonParser parser) throws IOException {
+        long id = -1, pes = 1, ram = 0, bw = 0, storage = 0;
+        double mipsPerPe = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            switch (field) {
+                case "id" -> id = parser.getLongValue();
+                case "pes" -> pes = parser.getLongValue();
+                case "mipsPerPe" -> mipsPerPe = parser.getDoubleValue();
+                case "ram" -> ram = parser.getLongValue();
+                case "bw" -> bw = parser.getLongValue();
+                case "storage" -> storage = parser.getLongValue();
+                default -> parser.skipChildren();
+            }
+        }
+        return createVm(id, pes, mipsPerPe, ram, bw, storage);
+    }
+
+    private static void expect(JsonParser parser, JsonToken actual, JsonToken expected) throws IOException {
+        if (actual != expected) {
+            throw new IOException(String.format("Esperado %s, encontrado %s em %s",
+                expected, actual, parser.getCurrentLocation()));
+        }
+    }
+
+    /** Escreve o cenário em JSON, um host ou VM por vez. */
+    public static void writeJson(Path file, List<Host> hosts, List<Vm> vms) throws IOException {
+        try (JsonGenerator generator = JSON.createGenerator(file.toFile(), JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("hosts");
+            for (Host host : hosts) {
+                generator.writeStartObject();
+                generator.writeNumberField("id", host.getId());
+                generator.writeNumberField("pes", host.getPesNumber());
+                generator.writeNumberField("mipsPerPe", mipsPerPe(host));
+                generator.writeNumberField("ram", host.getRam().getCapacity());
+                generator.writeNumberField("bw", host.getBw().getCapacity());
+                generator.writeNumberField("storage", host.getStorage().getCapacity());
+                if (host.getPowerModel() instanceof PowerModelHostSimple model) {
+                    generator.writeNumberField("maxPower", model.getMaxPower());
+                    generator.writeNumberField("idlePower", model.getStaticPower());
+                }
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.writeArrayFieldStart("vms");
+            for (Vm vm : vms) {
+                generator.writeStartObject();
+                generator.writeNumberField("id", vm.getId());
+                generator.writeNumberField("pes", vm.getPesNumber());
+                generator.writeNumberField("mipsPerPe", vm.getMips());
+                generator.writeNumberField("ram", vm.getRam().getCapacity());
+                generator.writeNumberField("bw", vm.getBw().getCapacity());
+                generator.writeNumberField("storage", vm.getStorage().getCapacity());
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+    }
+
+    /**
+     * Exporta a alocação em JSON: fitness, hosts ativos e um par {@code {"vm", "host"}} (ids)
+     * por VM alocada, percorrendo o genoma diretamente.
+     */
+    public static void writePlacementJson(Path file, AllocationSolution solution) throws IOException {
+        List<Vm> vms = solution.vms();
+        List<Host> hosts = solution.hosts();
+        int[] genes = solution.genes();
+        try (JsonGenerator generator = JSON.createGenerator(file.toFile(), JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            generator.writeNumberField("fitness", solution.getFitness());
+            generator.writeNumberField("activeHosts", solution.getActiveHostsCount());
+            generator.writeArrayFieldStart("placements");
+            for (int vm = 0; vm < genes.length; vm++) {
+                if (genes[vm] == AllocationSolution.UNASSIGNED) {
+                    continue;
+                }
+                generator.writeStartObject();
+                generator.writeNumberField("vm", vms.get(vm).getId());
+                generator.writeNumberField("host", hosts.get(genes[vm]).getId());
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+    }
+
+    /**
+     * Escreve o cenário no formato binário colunar.
+     *
+     * @throws IOException também se o arquivo passar de 2 GB, o maior mapeamento possível
+     */
+    public static void writeBinary(Path file, List<Host> hosts, List<Vm> vms) throws IOException {
+        int hostCount = hosts.size();
+        int vmCount = vms.size();
+        long size = HEADER_BYTES + 8L * (HOST_COLUMNS * (long) hostCount + VM_COLUMNS * (long) vmCount);
+        requireMappable(file, size);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(hostCount).putInt(vmCount);
+
+            for (Host host : hosts) {
+                buffer.putLong(host.getId());
+            }
+            for (Host host : hosts) {
+                buffer.putLong(host.getPesNumber());
+            }
+            for (Host host : hosts) {
+                buffer.putDouble(mipsPerPe(host));
+            }
+            for (Host host : hosts) {
+                buffer.putLong(host.getRam().getCapacity());
+            }
+            for (Host host : hosts) {
+                buffer.putLong(host.getBw().getCapacity());
+            }
+            for (Host host : hosts) {
+                buffer.putLong(host.getStorage().getCapacity());
+            }
+            for (Host host : hosts) {
+                buffer.putDouble(host.getPowerModel() instanceof PowerModelHostSimple model ? model.getMaxPower() : 0.0);
+            }
+            for (Host host : hosts) {
+                buffer.putDouble(host.getPowerModel() instanceof PowerModelHostSimple model ? model.getStaticPower() : 0.0);
+            }
+
+            for (Vm vm : vms) {
+                buffer.putLong(vm.getId());
+            }
+            for (Vm vm : vms) {
+                buffer.putLong(vm.getPesNumber());
+            }
+            for (Vm vm : vms) {
+                buffer.putDouble(vm.getMips());
+            }
+            for (Vm vm : vms) {
+                buffer.putLong(vm.getRam().getCapacity());
+            }
+            for (Vm vm : vms) {
+                buffer.putLong(vm.getBw().getCapacity());
+            }
+            for (Vm vm : vms) {
+                buffer.putLong(vm.getStorage().getCapacity());
+            }
+            buffer.force();
+        }
+    }
+
+    /** Lê um cenário do formato binário colunar, criando todos os hosts e VMs. */
+    public static Scenario readBinary(Path file) throws IOException {
+        BinaryScenario scenario = mapBinary(file);
+        return new Scenario(scenario.createHosts(), scenario.createVms());
+    }
+
+    /**
+     * Mapeia um cenário binário em memória sem criar nenhum objeto do CloudSim Plus: os
+     * atributos são lidos direto das colunas mapeadas, e hosts e VMs só são criados sob
+     * demanda. O mapeamento continua válido depois que o método retorna.
+     *
+     * @throws IOException se o arquivo não for um cenário binário válido ou passar de 2 GB,
+     *     o maior mapeamento possível
+     */
+    public static BinaryScenario mapBinary(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES) {
+                throw new IOException(file + " não é um cenário binário");
+            }
+            requireMappable(file, size);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.getInt(0) != MAGIC) {
+                throw new IOException(file + " não é um cenário binário");
+            }
+            if (buffer.getInt(4) != VERSION) {
+                throw new IOException(file + ": versão " + buffer.getInt(4) + " não suportada");
+            }
+            int hostCount = buffer.getInt(8);
+            int vmCount = buffer.getInt(12);
+            long expected = HEADER_BYTES + 8L * (HOST_COLUMNS * (long) hostCount + VM_COLUMNS * (long) vmCount);
+            if (size != expected) {
+                throw new IOException(String.format("%s: esperados %d bytes, encontrados %d", file, expected, size));
+            }
+            return new BinaryScenario(buffer, hostCount, vmCount);
+        }
+    }
+
+    /** Um único {@link MappedByteBuffer} (e seus deslocamentos {@code int}) cobre o arquivo. */
+    private static void requireMappable(Path file, long size) throws IOException {
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException(String.format(
+                "%s: cenário de %d bytes excede o tamanho máximo de um mapeamento (%d)", file, size, Integer.MAX_VALUE));
+        }
+    }
+
+    /** Cenário binário mapeado em memória, com acesso aos atributos por índice. */
+    public static final class BinaryScenario {
+        private final ByteBuffer buffer;
+        private final int hostCount;
+        private final int vmCount;
+        private final int vmOffset;
+
+        private BinaryScenario(ByteBuffer buffer, int hostCount, int vmCount) {
+            this.buffer = buffer;
+            this.hostCount = hostCount;
+            this.vmCount = vmCount;
+            this.vmOffset = HEADER_BYTES + 8 * HOST_COLUMNS * hostCount;
+        }
+
+        public int getHostCount() {
+            return hostCount;
+        }
+
+        public int getVmCount() {
+            return vmCount;
+        }
+
+        private long hostLong(int column, int host) {
+            return buffer.getLong(HEADER_BYTES + 8 * (column * hostCount + host));
+        }
+
+        private double hostDouble(int column, int host) {
+            return buffer.getDouble(HEADER_BYTES + 8 * (column * hostCount + host));
+        }
+
+        private long vmLong(int column, int vm) {
+            return buffer.getLong(vmOffset + 8 * (column * vmCount + vm));
+        }
+
+        private double vmDouble(int column, int vm) {
+            return buffer.getDouble(vmOffset + 8 * (column * vmCount + vm));
+        }
+
+        /** MIPS totais da VM (PEs vezes MIPS por PE). */
+        public double getVmMips(int vm) {
+            return vmLong(1, vm) * vmDouble(2, vm);
+        }
+
+        public long getVmRam(int vm) {
+            return vmLong(3, vm);
+        }
+
+        /** MIPS totais do host (PEs vezes MIPS por PE). */
+        public double getHostMips(int host) {
+            return hostLong(1, host) * hostDouble(2, host);
+        }
+
+        public long getHostRam(int host) {
+            return hostLong(3, host);
+        }
+
+        public Host createHost(int host) {
+            return ScenarioIO.createHost(hostLong(0, host), hostLong(1, host), hostDouble(2, host),
+                hostLong(3, host), hostLong(4, host), hostLong(5, host), hostDouble(6, host), hostDouble(7, host));
+        }
+
+        public Vm createVm(int vm) {
+            return ScenarioIO.createVm(vmLong(0, vm), vmLong(1, vm), vmDouble(2, vm),
+                vmLong(3, vm), vmLong(4, vm), vmLong(5, vm));
+        }
+
+        public List<Host> createHosts() {
+            List<Host> hosts = new ArrayList<>(hostCount);
+            for (int h = 0; h < hostCount; h++) {
+                hosts.add(createHost(h));
+            }
+            return hosts;
+        }
+
+        public List<Vm> createVms() {
+            List<Vm> vms = new ArrayList<>(vmCount);
+            for (int v = 0; v < vmCount; v++) {
+                vms.add(createVm(v));
+            }
+            return vms;
+        }
+    }
+
+    private static double mipsPerPe(Host host) {
+        return host.getPesNumber() == 0 ? 0.0 : host.getTotalMipsCapacity() / host.getPesNumber();
+    }
+
+    private static Host createHost(long id, long peCount, double mipsPerPe, long ram, long bw, long storage,
+                                   double maxPower, double idlePower) {
+        List<Pe> pes = new ArrayList<>((int) peCount);
+        for (int p = 0; p < peCount; p++) {
+            pes.add(new PeSimple(mipsPerPe));
+        }
+        Host host = new HostSimple(ram, bw, storage, pes);
+        if (maxPower > 0) {
+            host.setPowerModel(new PowerModelHostSimple(maxPower, idlePower));
+        }
+        host.setId(id);
+        return host;
+    }
+
+    private static Vm createVm(long id, long pes, double mipsPerPe, long ram, long bw, long storage) {
+        Vm vm = new VmSimple(id, mipsPerPe, pes);
+        vm.setRam(ram).setBw(bw).setSize(storage);
+        return vm;
+    }
+}
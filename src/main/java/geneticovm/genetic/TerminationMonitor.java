@@ -0,0 +1,104 @@
+package geneticovm.genetic;
+
+import geneticovm.genetic.EnergyAwareGeneticAlgorithm.AllocationSolution;
+import geneticovm.genetic.EnergyAwareGeneticAlgorithm.TerminationReason;
+
+import java.util.List;
+
+/**
+ * Acompanha uma execução (ou uma ilha) e decide, ao fim de cada geração, se ela deve
+ * parar antes de {@code maxGenerations}: prazo de relógio esgotado, melhor fitness
+ * estagnado por uma janela de gerações ou população sem diversidade.
+ */
+final class TerminationMonitor {
+    private final int maxGenerations;
+    private final int stagnationWindow;
+    private final double stagnationEpsilon;
+    private final double diversityFloor;
+    private final long deadlineNanos;
+
+    private double referenceFitness = Double.MAX_VALUE;
+    private int lastImprovement;
+
+    /**
+     * @param stagnationWindow gerações sem melhora para parar (0 desativa)
+     * @param diversityFloor   diversidade mínima da população (0 desativa)
+     * @param deadlineNanos    instante, em {@link System#nanoTime()}, em que a execução
+     *                         deve parar ({@link Long#MAX_VALUE} desativa)
+     */
+    TerminationMonitor(int maxGenerations, int stagnationWindow, double stagnationEpsilon,
+                       double diversityFloor, long deadlineNanos) {
+        this.maxGenerations = maxGenerations;
+        this.stagnationWindow = stagnationWindow;
+        this.stagnationEpsilon = stagnationEpsilon;
+        this.diversityFloor = diversityFloor;
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /** Retoma o critério de estagnação de uma execução gravada num checkpoint. */
+    void restore(double referenceFitness, int lastImprovement) {
+        this.referenceFitness = referenceFitness;
+        this.lastImprovement = lastImprovement;
+    }
+
+    double referenceFitness() {
+        return referenceFitness;
+    }
+
+    int lastImprovement() {
+        return lastImprovement;
+    }
+
+    /** Prazo esgotado; consultado também durante a inicialização. */
+    boolean deadlinePassed() {
+        return deadlineNanos != Long.MAX_VALUE && System.nanoTime() - deadlineNanos >= 0;
+    }
+
+    /**
+     * Critério que encerra a execução depois de {@code generationsRun} gerações, ou
+     * {@code null} se ela deve continuar.
+     */
+    TerminationReason check(int generationsRun, double bestFitness, List<AllocationSolution> population,
+                            AllocationSolution best) {
+        // Só melhoras maiores que epsilon reiniciam a janela de estagnação
+        if (bestFitness < referenceFitness - stagnationEpsilon) {
+            referenceFitness = bestFitness;
+            lastImprovement = generationsRun;
+        }
+
+        if (generationsRun >= maxGenerations) {
+            return TerminationReason.MAX_GENERATIONS;
+        }
+        if (deadlinePassed()) {
+            return TerminationReason.DEADLINE;
+        }
+        if (stagnationWindow > 0 && generationsRun - lastImprovement >= stagnationWindow) {
+            return TerminationReason.STAGNATION;
+        }
+        if (diversityFloor > 0 && diversity(population, best) < diversityFloor) {
+            return TerminationReason.DIVERSITY;
+        }
+        return null;
+    }
+
+    /**
+     * Fração média de genes em que os indivíduos diferem do melhor (0 = população toda
+     * igual ao melhor, 1 = nenhuma VM no mesmo host): O(P·V).
+     */
+    static double diversity(List<AllocationSolution> population, AllocationSolution best) {
+        int[] reference = best.genes();
+        if (population.isEmpty() || reference.length == 0) {
+            return 0.0;
+        }
+        long differing = 0;
+        for (AllocationSolution individual : population) {
+            int[] genes = individual.genes();
+            for (int vm = 0; vm < genes.length; vm++) {
+                if (genes[vm] != reference[vm]) {
+                    differing++;
+                }
+            }
+        }
+        return (double) differing / ((long) population.size() * reference.length);
+    }
+}
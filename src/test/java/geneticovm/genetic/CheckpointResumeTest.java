@@ -0,0 +1,131 @@
+package geneticovm.genetic;
+
+import geneticovm.genetic.EnergyAwareGeneticAlgorithm.AllocationSolution;
+import org.cloudsimplus.hosts.Host;
+import org.cloudsimplus.vms.Vm;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Uma execução interrompida e retomada do checkpoint chega exatamente à mesma solução que
+ * a execução sem interrupção.
+ */
+class CheckpointResumeTest {
+    private static final int GENERATIONS = 30;
+    private static final int CHECKPOINT_INTERVAL = 7;
+    private static final int CRASH_GENERATION = 20;
+
+    private final List<Host> hosts = new ScenarioGenerator(5L).createHosts(20);
+    private final List<Vm> vms = new ScenarioGenerator(5L).createVms(60);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void resumedRunMatchesUninterruptedRun() throws IOException {
+        assertResumeMatches(1);
+    }
+
+    @Test
+    void resumedParallelRunMatchesUninterruptedRun() throws IOException {
+        assertResumeMatches(4);
+    }
+
+    @Test
+    void resumeRejectsCheckpointOfAnotherConfiguration() {
+        Path file = directory.resolve("ga.ckpt");
+        runUntilCrash(newAlgorithm(42L, 1), file);
+
+        EnergyAwareGeneticAlgorithm other = newAlgorithm(43L, 1);
+        assertThrows(IllegalArgumentException.class, () -> other.resume(file));
+    }
+
+    @Test
+    void resumeRejectsCheckpointOfAnotherScenarioWithSameIds() {
+        Path file = directory.resolve("ga.ckpt");
+        runUntilCrash(newAlgorithm(42L, 1), file);
+
+        // Mesmos ids (a posição na lista), recursos diferentes
+        List<Host> otherHosts = new ScenarioGenerator(6L).createHosts(hosts.size());
+        EnergyAwareGeneticAlgorithm other = new EnergyAwareGeneticAlgorithm(
+            vms, otherHosts, 30, GENERATIONS, 0.8, 0.3, 3, 42L);
+        other.setConsoleOutput(false);
+        assertThrows(IllegalArgumentException.class, () -> other.resume(file));
+    }
+
+    @Test
+    void resumeRejectsCheckpointOfAnotherCommunicationGraph() {
+        Path file = directory.resolve("ga.ckpt");
+        runUntilCrash(withGraph(new CommunicationGraph.Builder(vms.size()).addEdge(0, 1, 1.0).build()), file);
+
+        EnergyAwareGeneticAlgorithm other =
+            withGraph(new CommunicationGraph.Builder(vms.size()).addEdge(0, 2, 1.0).build());
+        assertThrows(IllegalArgumentException.class, () -> other.resume(file));
+    }
+
+    @Test
+    void resumeRejectsCheckpointOfAnotherSeedingOrStoppingRule() {
+        Path file = directory.resolve("ga.ckpt");
+        runUntilCrash(newAlgorithm(42L, 1), file);
+
+        EnergyAwareGeneticAlgorithm seeded = newAlgorithm(42L, 1);
+        seeded.setSeeding(0.2);
+        assertThrows(IllegalArgumentException.class, () -> seeded.resume(file));
+
+        EnergyAwareGeneticAlgorithm stagnating = newAlgorithm(42L, 1);
+        stagnating.setStagnationWindow(5, 1e-3);
+        assertThrows(IllegalArgumentException.class, () -> stagnating.resume(file));
+
+        EnergyAwareGeneticAlgorithm racks = newAlgorithm(42L, 1);
+        racks.setHostDistanceModel(RackTopologyDistanceModel.uniform(hosts.size(), 4, 2));
+        assertThrows(IllegalArgumentException.class, () -> racks.resume(file));
+    }
+
+    private EnergyAwareGeneticAlgorithm withGraph(CommunicationGraph graph) {
+        EnergyAwareGeneticAlgorithm ga = new EnergyAwareGeneticAlgorithm(
+            vms, hosts, 30, GENERATIONS, 0.8, 0.3, 3, 42L, graph);
+        ga.setConsoleOutput(false);
+        return ga;
+    }
+
+    private void assertResumeMatches(int parallelism) throws IOException {
+        AllocationSolution uninterrupted = newAlgorithm(42L, parallelism).run();
+
+        Path file = directory.resolve("ga-" + parallelism + ".ckpt");
+        runUntilCrash(newAlgorithm(42L, parallelism), file);
+        EnergyAwareGeneticAlgorithm resumed = newAlgorithm(42L, parallelism);
+        resumed.setCheckpoint(file, CHECKPOINT_INTERVAL);
+        AllocationSolution result = resumed.resume(file);
+
+        assertArrayEquals(uninterrupted.genes(), result.genes());
+        assertEquals(uninterrupted.getFitness(), result.getFitness());
+        assertEquals(GENERATIONS, resumed.getGenerationsRun());
+    }
+
+    /** Executa com checkpoint até um listener interromper a execução no meio. */
+    private static void runUntilCrash(EnergyAwareGeneticAlgorithm ga, Path file) {
+        ga.setCheckpoint(file, CHECKPOINT_INTERVAL);
+        ga.addGenerationListener(stats -> {
+            if (stats.getGeneration() == CRASH_GENERATION) {
+                throw new IllegalStateException("interrupção simulada");
+            }
+        });
+        assertThrows(IllegalStateException.class, ga::run);
+    }
+
+    private EnergyAwareGeneticAlgorithm newAlgorithm(long seed, int parallelism) {
+        EnergyAwareGeneticAlgorithm ga = new EnergyAwareGeneticAlgorithm(
+            vms, hosts, 30, GENERATIONS, 0.8, 0.3, 3, seed);
+        ga.setConsoleOutput(false);
+        ga.setParallelism(parallelism);
+        return ga;
+    }
+}
@@ -0,0 +1,110 @@
+package geneticovm.genetic;
+
+import geneticovm.genetic.EnergyAwareGeneticAlgorithm.AllocationSolution;
+import org.cloudsimplus.hosts.Host;
+import org.cloudsimplus.vms.Vm;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Partições, cobertura e determinismo do {@link DecompositionSolver}. */
+class DecompositionSolverTest {
+    private static final int PARTITIONS = 4;
+
+    private final List<Host> hosts = new ScenarioGenerator(13L).createHosts(48);
+    private final List<Vm> vms = new ScenarioGenerator(13L).createVms(256);
+
+    @Test
+    void resultDoesNotDependOnExecutor() {
+        AllocationSolution ownPool = newSolver().solve();
+
+        DecompositionSolver sequential = newSolver();
+        sequential.setParallelism(1);
+        AllocationSolution single = sequential.solve();
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        AllocationSolution shared;
+        try {
+            DecompositionSolver external = newSolver();
+            external.setExecutor(executor);
+            shared = external.solve();
+        } finally {
+            executor.shutdown();
+        }
+
+        assertArrayEquals(ownPool.genes(), single.genes());
+        assertEquals(ownPool.getFitness(), single.getFitness());
+        assertArrayEquals(ownPool.genes(), shared.genes());
+        assertEquals(ownPool.getFitness(), shared.getFitness());
+    }
+
+    @Test
+    void everyVmIsAssigned() {
+        DecompositionSolver solver = newSolver();
+        AllocationSolution solution = solver.solve();
+
+        int[] partitions = solver.getVmPartitions();
+        assertEquals(vms.size(), partitions.length);
+        int[] perPartition = new int[PARTITIONS];
+        for (int part : partitions) {
+            perPartition[part]++;
+        }
+        for (int p = 0; p < PARTITIONS; p++) {
+            assertTrue(perPartition[p] > 0, "parte " + p + " sem VMs");
+        }
+        assertEquals(vms.size(), solution.genes().length);
+        for (int vm = 0; vm < vms.size(); vm++) {
+            int host = solution.genes()[vm];
+            assertNotEquals(AllocationSolution.UNASSIGNED, host, "VM " + vm + " sem host");
+            assertTrue(host >= 0 && host < hosts.size(), "host fora da faixa: " + host);
+        }
+    }
+
+    @Test
+    void everyPartGetsAHostWhenPartsMatchHosts() {
+        // A primeira parte concentra quase toda a demanda e consumiria os hosts sem a reserva
+        ResourceTable resources = new ResourceTable(vms, hosts);
+        int k = hosts.size();
+        int[] vmPartition = new int[vms.size()];
+        SplittableRandom rng = new SplittableRandom(9L);
+        for (int vm = k; vm < vms.size(); vm++) {
+            vmPartition[vm] = rng.nextInt(4) == 0 ? rng.nextInt(k) : 0;
+        }
+        for (int p = 0; p < k; p++) {
+            vmPartition[p] = p;
+        }
+
+        DecompositionSolver byId = newSolver();
+        assertEveryPartHasAHost(byId.partitionHosts(resources, vmPartition, k), k);
+
+        DecompositionSolver byRack = newSolver();
+        byRack.setHostDistanceModel(RackTopologyDistanceModel.uniform(hosts.size(), 8, 2));
+        assertEveryPartHasAHost(byRack.partitionHosts(resources, vmPartition, k), k);
+    }
+
+    private static void assertEveryPartHasAHost(int[] hostPartition, int k) {
+        int[] perPartition = new int[k];
+        for (int part : hostPartition) {
+            assertTrue(part >= 0 && part < k, "parte fora da faixa: " + part);
+            perPartition[part]++;
+        }
+        for (int p = 0; p < k; p++) {
+            assertEquals(1, perPartition[p], "hosts da parte " + p);
+        }
+    }
+
+    private DecompositionSolver newSolver() {
+        DecompositionSolver solver = new DecompositionSolver(vms, hosts, 16, 8, 0.8, 0.3, 3, 42L);
+        solver.setPartitionCount(PARTITIONS);
+        solver.setParallelism(PARTITIONS);
+        return solver;
+    }
+}
@@ -0,0 +1,77 @@
+package geneticovm.genetic;
+
+import geneticovm.genetic.EnergyAwareGeneticAlgorithm.AllocationSolution;
+import org.cloudsimplus.hosts.Host;
+import org.cloudsimplus.vms.Vm;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Sequências aleatórias de {@code moveVm} sobre uma solução pontuada, com a conferência
+ * incremental ligada, comparadas passo a passo com a avaliação completa.
+ */
+class DeltaEvaluationTest {
+    private static final int HOSTS = 12;
+    private static final int VMS = 60;
+    private static final int MOVES = 2000;
+
+    @Test
+    void deltaMatchesFullEvaluation() {
+        checkRandomMoves(newAlgorithm(), 1L);
+    }
+
+    @Test
+    void deltaMatchesFullEvaluationWithPowerModelAndRacks() {
+        EnergyAwareGeneticAlgorithm ga = newAlgorithm();
+        ga.setEnergyObjective(EnergyAwareGeneticAlgorithm.EnergyObjective.POWER_MODEL);
+        ga.setHostDistanceModel(RackTopologyDistanceModel.uniform(HOSTS, 4, 2));
+        checkRandomMoves(ga, 2L);
+    }
+
+    @Test
+    void deltaMatchesFullEvaluationWithMigrationCost() {
+        EnergyAwareGeneticAlgorithm ga = newAlgorithm();
+        SplittableRandom rng = new SplittableRandom(3L);
+        int[] current = new int[VMS];
+        for (int vm = 0; vm < VMS; vm++) {
+            // Parte das VMs ainda não está alocada
+            current[vm] = rng.nextInt(4) == 0 ? AllocationSolution.UNASSIGNED : rng.nextInt(HOSTS);
+        }
+        ga.setCurrentPlacement(current);
+        ga.setMigrationCostWeight(0.5);
+        checkRandomMoves(ga, 4L);
+    }
+
+    private static EnergyAwareGeneticAlgorithm newAlgorithm() {
+        ScenarioGenerator generator = new ScenarioGenerator(11L);
+        List<Host> hosts = generator.createHosts(HOSTS);
+        List<Vm> vms = generator.createVms(VMS);
+        EnergyAwareGeneticAlgorithm ga = new EnergyAwareGeneticAlgorithm(vms, hosts, 10, 5, 0.8, 0.1, 3, 42L);
+        ga.setConsoleOutput(false);
+        ga.setDeltaValidation(true);
+        return ga;
+    }
+
+    private static void checkRandomMoves(EnergyAwareGeneticAlgorithm ga, long seed) {
+        SplittableRandom rng = new SplittableRandom(seed);
+        AllocationSolution solution = ga.newSolution();
+        for (int vm = 0; vm < VMS; vm++) {
+            solution.assign(vm, rng.nextInt(HOSTS));
+        }
+        solution.setFitness(ga.evaluateFitness(solution));
+
+        for (int move = 0; move < MOVES; move++) {
+            // Metade dos movimentos concentra VMs em poucos hosts, para passar por sobrecargas
+            int host = rng.nextBoolean() ? rng.nextInt(3) : rng.nextInt(HOSTS);
+            ga.moveVm(solution, rng.nextInt(VMS), host);
+
+            double full = ga.evaluateFitness(new AllocationSolution(solution));
+            assertEquals(full, solution.getFitness(), 1e-9 * Math.max(1.0, Math.abs(full)),
+                "movimento " + move);
+        }
+    }
+}
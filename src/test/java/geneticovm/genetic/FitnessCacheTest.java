@@ -0,0 +1,76 @@
+package geneticovm.genetic;
+
+import geneticovm.genetic.EnergyAwareGeneticAlgorithm.AllocationSolution;
+import org.cloudsimplus.hosts.Host;
+import org.cloudsimplus.vms.Vm;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * O cache de fitness só evita reavaliações: com a mesma semente e o mesmo número de
+ * workers, a execução com cache chega exatamente à mesma solução que a execução sem cache.
+ */
+class FitnessCacheTest {
+    private final List<Host> hosts = new ScenarioGenerator(13L).createHosts(15);
+    private final List<Vm> vms = new ScenarioGenerator(13L).createVms(50);
+
+    @Test
+    void cacheDoesNotChangeSequentialResult() {
+        assertCacheTransparent(1);
+    }
+
+    @Test
+    void cacheDoesNotChangeParallelResult() {
+        assertCacheTransparent(4);
+    }
+
+    @Test
+    void smallCacheWithEvictionsDoesNotChangeResult() {
+        EnergyAwareGeneticAlgorithm withoutCache = newAlgorithm(1, 0);
+        EnergyAwareGeneticAlgorithm tinyCache = newAlgorithm(1, 16);
+        AllocationSolution expected = withoutCache.run();
+        AllocationSolution actual = tinyCache.run();
+
+        assertTrue(tinyCache.getFitnessCacheEvictions() > 0, "o cache deveria ter substituído entradas");
+        assertArrayEquals(expected.genes(), actual.genes());
+        assertEquals(expected.getFitness(), actual.getFitness());
+    }
+
+    @Test
+    void nsga2BypassesCache() {
+        EnergyAwareGeneticAlgorithm ga = newAlgorithm(1, 16384);
+        List<AllocationSolution> front = ga.runNsga2();
+        List<AllocationSolution> expected = newAlgorithm(1, 0).runNsga2();
+
+        assertEquals(0, ga.getFitnessCacheHits() + ga.getFitnessCacheMisses());
+        assertEquals(expected.size(), front.size());
+        for (int i = 0; i < front.size(); i++) {
+            assertArrayEquals(expected.get(i).getObjectives(), front.get(i).getObjectives());
+        }
+    }
+
+    private void assertCacheTransparent(int parallelism) {
+        EnergyAwareGeneticAlgorithm withoutCache = newAlgorithm(parallelism, 0);
+        EnergyAwareGeneticAlgorithm withCache = newAlgorithm(parallelism, 16384);
+        AllocationSolution expected = withoutCache.run();
+        AllocationSolution actual = withCache.run();
+
+        assertTrue(withCache.getFitnessCacheHits() > 0, "o cache deveria ter sido usado");
+        assertArrayEquals(expected.genes(), actual.genes());
+        assertEquals(expected.getFitness(), actual.getFitness());
+    }
+
+    private EnergyAwareGeneticAlgorithm newAlgorithm(int parallelism, int cacheSize) {
+        // Mutação baixa: muitos filhos são cópias de genomas já avaliados
+        EnergyAwareGeneticAlgorithm ga = new EnergyAwareGeneticAlgorithm(vms, hosts, 40, 30, 0.5, 0.1, 3, 42L);
+        ga.setConsoleOutput(false);
+        ga.setParallelism(parallelism);
+        ga.setFitnessCacheSize(cacheSize);
+        return ga;
+    }
+}
@@ -0,0 +1,112 @@
+package geneticovm.genetic;
+
+import geneticovm.genetic.EnergyAwareGeneticAlgorithm.AllocationSolution;
+import geneticovm.genetic.EnergyAwareGeneticAlgorithm.IslandTelemetry;
+import geneticovm.genetic.EnergyAwareGeneticAlgorithm.MigrationTopology;
+import org.cloudsimplus.hosts.Host;
+import org.cloudsimplus.vms.Vm;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Os modos NSGA-II e de ilhas entregam suas gerações aos listeners. */
+class GenerationListenerTest {
+    private static final int GENERATIONS = 12;
+
+    private final List<Host> hosts = new ScenarioGenerator(3L).createHosts(15);
+    private final List<Vm> vms = new ScenarioGenerator(3L).createVms(40);
+
+    @Test
+    void nsga2ReportsEveryGenerationWithoutChangingTheFront() {
+        List<AllocationSolution> unobserved = newAlgorithm().runNsga2();
+
+        EnergyAwareGeneticAlgorithm ga = newAlgorithm();
+        Recorder recorder = new Recorder();
+        ga.addGenerationListener(recorder);
+        List<AllocationSolution> front = ga.runNsga2();
+
+        assertEquals(1, recorder.started);
+        assertEquals(1, recorder.finished);
+        List<GenerationStats> stats = recorder.byIsland.get(-1);
+        assertEquals(GENERATIONS + 1, stats.size());
+        for (int g = 0; g < stats.size(); g++) {
+            assertEquals(g, stats.get(g).getGeneration());
+            assertTrue(stats.get(g).getParetoFrontSize() > 0);
+        }
+        assertTrue(stats.get(GENERATIONS).getEvaluations() > 0);
+        assertSame(ga.getParetoFront(), front);
+
+        assertEquals(unobserved.size(), front.size());
+        for (int i = 0; i < front.size(); i++) {
+            assertArrayEquals(unobserved.get(i).genes(), front.get(i).genes());
+        }
+    }
+
+    @Test
+    void islandsReportTheirGenerationsOneCallAtATime() {
+        EnergyAwareGeneticAlgorithm ga = newAlgorithm();
+        ga.setIslandModel(3, 4, 2, MigrationTopology.RING);
+        Recorder recorder = new Recorder();
+        ga.addGenerationListener(recorder);
+        ga.run();
+
+        assertFalse(recorder.overlapped, "listener chamado por duas ilhas ao mesmo tempo");
+        assertEquals(1, recorder.started);
+        assertEquals(1, recorder.finished);
+        assertEquals(3, recorder.byIsland.size());
+        for (IslandTelemetry island : ga.getIslandTelemetry()) {
+            List<GenerationStats> stats = recorder.byIsland.get(island.island());
+            assertEquals(island.bestFitnessByGeneration().length + 1, stats.size());
+            for (int g = 0; g < stats.size(); g++) {
+                assertEquals(g, stats.get(g).getGeneration());
+                assertEquals(0, stats.get(g).getParetoFrontSize());
+            }
+            assertEquals(island.bestFitness(), stats.get(stats.size() - 1).getBestFitness());
+        }
+    }
+
+    private EnergyAwareGeneticAlgorithm newAlgorithm() {
+        EnergyAwareGeneticAlgorithm ga = new EnergyAwareGeneticAlgorithm(vms, hosts, 20, GENERATIONS, 0.8, 0.3, 3, 11L);
+        ga.setConsoleOutput(false);
+        return ga;
+    }
+
+    /** Guarda as estatísticas por ilha e detecta chamadas simultâneas. */
+    private static final class Recorder implements GenerationListener {
+        final Map<Integer, List<GenerationStats>> byIsland = new HashMap<>();
+        final AtomicBoolean inCall = new AtomicBoolean();
+        volatile boolean overlapped;
+        int started;
+        int finished;
+
+        @Override
+        public void runStarted(EnergyAwareGeneticAlgorithm ga) {
+            started++;
+        }
+
+        @Override
+        public void generationCompleted(GenerationStats stats) {
+            if (!inCall.compareAndSet(false, true)) {
+                overlapped = true;
+            }
+            byIsland.computeIfAbsent(stats.getIsland(), island -> new ArrayList<>()).add(stats);
+            Thread.yield();
+            inCall.set(false);
+        }
+
+        @Override
+        public void runFinished(EnergyAwareGeneticAlgorithm ga, AllocationSolution best, long elapsedNanos) {
+            finished++;
+        }
+    }
+}
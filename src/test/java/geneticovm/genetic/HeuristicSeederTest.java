@@ -0,0 +1,69 @@
+package geneticovm.genetic;
+
+import geneticovm.genetic.EnergyAwareGeneticAlgorithm.AllocationSolution;
+import geneticovm.genetic.EnergyAwareGeneticAlgorithm.SeedingHeuristic;
+import org.cloudsimplus.hosts.Host;
+import org.cloudsimplus.hosts.HostSimple;
+import org.cloudsimplus.power.models.PowerModelHostSimple;
+import org.cloudsimplus.resources.Pe;
+import org.cloudsimplus.resources.PeSimple;
+import org.cloudsimplus.vms.Vm;
+import org.cloudsimplus.vms.VmSimple;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/** Ordem de abertura de hosts das heurísticas de semeadura. */
+class HeuristicSeederTest {
+    // Hosts em ordem de eficiência (watts por MIPS): A (0.1), B (0.2), C (0.3), D (0.4)
+    private static final int A = 0;
+    private static final int B = 1;
+    private static final int C = 2;
+
+    @Test
+    void powerAwareBestFitOpensHostsInEfficiencyOrder() {
+        List<Host> hosts = List.of(
+            host(A, 1, 100), host(B, 4, 800), host(C, 8, 2400), host(3, 8, 3200));
+        // A VM grande só cabe em C ou D; C a recebe e, depois de C encher, o próximo host
+        // aberto deve ser A, o mais eficiente ainda fechado, e não B
+        List<Vm> vms = new ArrayList<>();
+        vms.add(vm(0, 6));
+        for (int i = 1; i <= 3; i++) {
+            vms.add(vm(i, 1));
+        }
+        ResourceTable resources = new ResourceTable(vms, hosts);
+        HeuristicSeeder seeder = new HeuristicSeeder(resources, new PowerTable(hosts, resources));
+
+        for (long seed = 0; seed < 20; seed++) {
+            AllocationSolution solution = new AllocationSolution(vms, hosts);
+            seeder.seed(SeedingHeuristic.POWER_AWARE_BEST_FIT, solution, new SplittableRandom(seed));
+
+            assertEquals(C, solution.getHostIndex(0));
+            assertEquals(3, solution.getVmCountOnHost(C));
+            assertEquals(1, solution.getVmCountOnHost(A), "o host mais eficiente deveria abrir em seguida");
+            assertEquals(0, solution.getVmCountOnHost(B));
+        }
+    }
+
+    private static Host host(int id, int pes, double maxPower) {
+        List<Pe> peList = new ArrayList<>();
+        for (int p = 0; p < pes; p++) {
+            peList.add(new PeSimple(1000));
+        }
+        Host host = new HostSimple(65536, 100_000, 10_000_000, peList);
+        host.setPowerModel(new PowerModelHostSimple(maxPower, 0.7 * maxPower));
+        host.setId(id);
+        return host;
+    }
+
+    private static Vm vm(int id, int pes) {
+        Vm vm = new VmSimple(1000, pes);
+        vm.setRam(1024).setBw(1000).setSize(10_000);
+        vm.setId(id);
+        return vm;
+    }
+}
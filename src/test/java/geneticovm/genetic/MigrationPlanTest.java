@@ -0,0 +1,171 @@
+package geneticovm.genetic;
+
+import geneticovm.genetic.EnergyAwareGeneticAlgorithm.AllocationSolution;
+import geneticovm.genetic.EnergyAwareGeneticAlgorithm.MigrationStep;
+import org.cloudsimplus.hosts.Host;
+import org.cloudsimplus.hosts.HostSimple;
+import org.cloudsimplus.power.models.PowerModelHostSimple;
+import org.cloudsimplus.resources.Pe;
+import org.cloudsimplus.resources.PeSimple;
+import org.cloudsimplus.vms.Vm;
+import org.cloudsimplus.vms.VmSimple;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Ordem do plano de {@link EnergyAwareGeneticAlgorithm#planMigrations}. */
+class MigrationPlanTest {
+
+    @Test
+    void migrationWaitsUntilDestinationFits() {
+        // y (índice 0) quer ir para A, que está cheio com x; x sai para C, que está vazio
+        List<Host> hosts = List.of(host(0, 4), host(1, 4), host(2, 4));
+        List<Vm> vms = List.of(vm(0, 2), vm(1, 4));
+        EnergyAwareGeneticAlgorithm ga = newAlgorithm(vms, hosts, new int[] {1, 0});
+
+        List<MigrationStep> plan = ga.planMigrations(target(ga, 0, 2));
+
+        assertEquals(2, plan.size());
+        assertStep(plan.get(0), vms.get(1), hosts.get(0), hosts.get(2));
+        assertStep(plan.get(1), vms.get(0), hosts.get(1), hosts.get(0));
+    }
+
+    @Test
+    void swapCycleForcesLeastExcessMigrationFirst() {
+        // a (índice 1, 3 PEs) em A (5 PEs) e b (índice 0, 5 PEs) em B (6 PEs) trocam de
+        // host. Nenhuma cabe antes da outra sair; a → B sobrecarrega B em 1/3 e b → A
+        // sobrecarrega A em 3/5, então a vai primeiro, mesmo vindo depois na ordem das VMs
+        List<Host> hosts = List.of(host(0, 5), host(1, 6));
+        List<Vm> vms = List.of(vm(0, 5), vm(1, 3));
+        EnergyAwareGeneticAlgorithm ga = newAlgorithm(vms, hosts, new int[] {1, 0});
+
+        List<MigrationStep> plan = ga.planMigrations(target(ga, 0, 1));
+
+        assertEquals(2, plan.size());
+        assertStep(plan.get(0), vms.get(1), hosts.get(0), hosts.get(1));
+        assertStep(plan.get(1), vms.get(0), hosts.get(1), hosts.get(0));
+    }
+
+    @Test
+    void everyStepFitsUnlessNoPendingMigrationDoes() {
+        List<Host> hosts = new ScenarioGenerator(31L).createHosts(12);
+        List<Vm> vms = new ScenarioGenerator(31L).createVms(60);
+        SplittableRandom rng = new SplittableRandom(3L);
+        for (int round = 0; round < 10; round++) {
+            int[] current = new int[vms.size()];
+            int[] target = new int[vms.size()];
+            for (int vm = 0; vm < vms.size(); vm++) {
+                current[vm] = rng.nextInt(hosts.size());
+                target[vm] = rng.nextBoolean() ? current[vm] : rng.nextInt(hosts.size());
+            }
+            current[0] = AllocationSolution.UNASSIGNED;
+            EnergyAwareGeneticAlgorithm ga = newAlgorithm(vms, hosts, current);
+
+            List<MigrationStep> plan = ga.planMigrations(target(ga, target));
+            assertPlanOrdered(vms, hosts, current, target, plan);
+        }
+    }
+
+    /** Reexecuta o plano conferindo que cada passo coube ou que nenhum pendente cabia. */
+    private static void assertPlanOrdered(List<Vm> vms, List<Host> hosts, int[] current, int[] target,
+                                          List<MigrationStep> plan) {
+        ResourceTable resources = new ResourceTable(vms, hosts);
+        Map<Vm, Integer> vmIndex = new IdentityHashMap<>();
+        Map<Host, Integer> hostIndex = new IdentityHashMap<>();
+        vms.forEach(vm -> vmIndex.put(vm, vmIndex.size()));
+        hosts.forEach(host -> hostIndex.put(host, hostIndex.size()));
+
+        double[][] load = new double[hosts.size()][4];
+        List<Integer> pending = new ArrayList<>();
+        for (int vm = 0; vm < vms.size(); vm++) {
+            if (current[vm] != AllocationSolution.UNASSIGNED) {
+                add(resources, load, current[vm], vm, 1);
+                if (target[vm] != current[vm]) {
+                    pending.add(vm);
+                }
+            }
+        }
+        int migrations = pending.size();
+        for (int step = 0; step < migrations; step++) {
+            MigrationStep migration = plan.get(step);
+            int vm = vmIndex.get(migration.vm());
+            int destination = hostIndex.get(migration.target());
+            assertEquals(current[vm], hostIndex.get(migration.source()));
+            assertEquals(target[vm], destination);
+            if (!fits(resources, load, destination, vm)) {
+                for (int other : pending) {
+                    assertTrue(!fits(resources, load, target[other], other),
+                        "passo " + step + " forçado com a VM " + other + " cabendo no destino");
+                }
+            }
+            add(resources, load, current[vm], vm, -1);
+            add(resources, load, destination, vm, 1);
+            pending.remove(Integer.valueOf(vm));
+        }
+        assertTrue(pending.isEmpty());
+        assertEquals(migrations + 1, plan.size());
+        assertNull(plan.get(migrations).source());
+    }
+
+    private static boolean fits(ResourceTable resources, double[][] load, int host, int vm) {
+        return load[host][0] + resources.vmCpu[vm] <= resources.hostCpu[host]
+            && load[host][1] + resources.vmRam[vm] <= resources.hostRam[host]
+            && load[host][2] + resources.vmStorage[vm] <= resources.hostStorage[host]
+            && load[host][3] + resources.vmBw[vm] <= resources.hostBw[host];
+    }
+
+    private static void add(ResourceTable resources, double[][] load, int host, int vm, int sign) {
+        load[host][0] += sign * resources.vmCpu[vm];
+        load[host][1] += sign * resources.vmRam[vm];
+        load[host][2] += sign * resources.vmStorage[vm];
+        load[host][3] += sign * resources.vmBw[vm];
+    }
+
+    private static EnergyAwareGeneticAlgorithm newAlgorithm(List<Vm> vms, List<Host> hosts, int[] current) {
+        EnergyAwareGeneticAlgorithm ga = new EnergyAwareGeneticAlgorithm(vms, hosts, 10, 1, 0.8, 0.3, 3, 1L);
+        ga.setConsoleOutput(false);
+        ga.setCurrentPlacement(current);
+        return ga;
+    }
+
+    private static AllocationSolution target(EnergyAwareGeneticAlgorithm ga, int... hostOfVm) {
+        AllocationSolution solution = ga.newSolution();
+        for (int vm = 0; vm < hostOfVm.length; vm++) {
+            solution.assign(vm, hostOfVm[vm]);
+        }
+        return solution;
+    }
+
+    private static void assertStep(MigrationStep step, Vm vm, Host source, Host target) {
+        assertSame(vm, step.vm());
+        assertSame(source, step.source());
+        assertSame(target, step.target());
+    }
+
+    private static Host host(int id, int pes) {
+        List<Pe> peList = new ArrayList<>();
+        for (int p = 0; p < pes; p++) {
+            peList.add(new PeSimple(1000));
+        }
+        Host host = new HostSimple(65536, 100_000, 10_000_000, peList);
+        host.setPowerModel(new PowerModelHostSimple(200, 100));
+        host.setId(id);
+        return host;
+    }
+
+    private static Vm vm(int id, int pes) {
+        Vm vm = new VmSimple(1000, pes);
+        vm.setRam(1024).setBw(1000).setSize(10_000);
+        vm.setId(id);
+        return vm;
+    }
+}
@@ -0,0 +1,123 @@
+package geneticovm.genetic;
+
+import geneticovm.genetic.EnergyAwareGeneticAlgorithm.AllocationSolution;
+import org.cloudsimplus.hosts.Host;
+import org.cloudsimplus.vms.Vm;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+/**
+ * A ordenação ENS-BS do {@link Nsga2} comparada com a ordenação ingênua O(MN²) sobre
+ * vetores de objetivos aleatórios, com empates, duplicatas e soluções inviáveis.
+ */
+class Nsga2Test {
+    private static final List<Host> HOSTS = new ScenarioGenerator(1L).createHosts(2);
+    private static final List<Vm> VMS = new ScenarioGenerator(1L).createVms(2);
+
+    @Test
+    void ranksMatchNaiveSortWithTies() {
+        // Poucos valores distintos por objetivo: muitos empates e soluções idênticas
+        for (long seed = 0; seed < 50; seed++) {
+            assertRanksMatch(new SplittableRandom(seed), 120, 4, 0.0);
+        }
+    }
+
+    @Test
+    void ranksMatchNaiveSortWithInfeasibleSolutions() {
+        for (long seed = 0; seed < 50; seed++) {
+            assertRanksMatch(new SplittableRandom(seed), 120, 6, 0.4);
+        }
+    }
+
+    @Test
+    void ranksMatchNaiveSortWithContinuousObjectives() {
+        for (long seed = 0; seed < 20; seed++) {
+            assertRanksMatch(new SplittableRandom(seed), 300, 0, 0.2);
+        }
+    }
+
+    /**
+     * @param levels         valores distintos por objetivo (0 = contínuos)
+     * @param infeasibleRate fração de soluções com violação positiva
+     */
+    private static void assertRanksMatch(SplittableRandom rng, int n, int levels, double infeasibleRate) {
+        EnergyAwareGeneticAlgorithm ga = new EnergyAwareGeneticAlgorithm(VMS, HOSTS, n, 1, 0.8, 0.1, 3, 1L);
+        List<AllocationSolution> population = new ArrayList<>(n);
+        List<AllocationSolution> offspring = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            double[] objectives = new double[Nsga2.OBJECTIVES];
+            for (int m = 0; m < objectives.length; m++) {
+                objectives[m] = levels > 0 ? rng.nextInt(levels) : rng.nextDouble();
+            }
+            // Violações também repetidas, para haver empates entre inviáveis
+            double violation = rng.nextDouble() < infeasibleRate ? 0.5 * (1 + rng.nextInt(3)) : 0.0;
+            AllocationSolution solution = ga.newSolution();
+            solution.setObjectives(objectives, violation);
+            population.add(solution);
+            offspring.add(ga.newSolution());
+        }
+
+        Nsga2 nsga2 = new Nsga2(ga, n);
+        nsga2.initialize(population, offspring);
+        int[] actual = new int[n];
+        for (int i = 0; i < n; i++) {
+            actual[i] = nsga2.rank(i);
+        }
+        assertArrayEquals(naiveRanks(population), actual);
+    }
+
+    /** Remove repetidamente as soluções que nenhuma das restantes domina. */
+    private static int[] naiveRanks(List<AllocationSolution> population) {
+        int n = population.size();
+        int[] rank = new int[n];
+        boolean[] assigned = new boolean[n];
+        int remaining = n;
+        for (int front = 0; remaining > 0; front++) {
+            List<Integer> members = new ArrayList<>();
+            for (int p = 0; p < n; p++) {
+                if (assigned[p]) {
+                    continue;
+                }
+                boolean dominated = false;
+                for (int q = 0; q < n && !dominated; q++) {
+                    dominated = !assigned[q] && constrainedDominates(population.get(q), population.get(p));
+                }
+                if (!dominated) {
+                    members.add(p);
+                }
+            }
+            for (int p : members) {
+                rank[p] = front;
+                assigned[p] = true;
+            }
+            remaining -= members.size();
+        }
+        return rank;
+    }
+
+    /** Dominância com restrições de Deb, escrita de forma independente do {@link Nsga2}. */
+    private static boolean constrainedDominates(AllocationSolution a, AllocationSolution b) {
+        double violationA = a.getConstraintViolation();
+        double violationB = b.getConstraintViolation();
+        if (violationA == 0 && violationB > 0) {
+            return true;
+        }
+        if (violationA > 0 || violationB > 0) {
+            return violationA < violationB;
+        }
+        double[] x = a.getObjectives();
+        double[] y = b.getObjectives();
+        boolean noWorse = true;
+        boolean better = false;
+        for (int m = 0; m < x.length; m++) {
+            noWorse &= x[m] <= y[m];
+            better |= x[m] < y[m];
+        }
+        return noWorse && better;
+    }
+}
@@ -0,0 +1,159 @@
+package geneticovm.genetic;
+
+import org.cloudsimplus.hosts.Host;
+import org.cloudsimplus.vms.Vm;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Correções incrementais dos genomas, do tráfego e da alocação atual do {@link OnlineOptimizer}. */
+class OnlineOptimizerTest {
+    private final List<Host> hosts = new ScenarioGenerator(21L).createHosts(10);
+    private final List<Vm> vms = new ScenarioGenerator(21L).createVms(30);
+
+    @Test
+    void removeVmKeepsGenomesAligned() {
+        OnlineOptimizer optimizer = warmOptimizer();
+        List<Map<Vm, Integer>> before = hostsByVm(optimizer);
+
+        Vm removed = vms.get(4);
+        optimizer.removeVm(removed);
+
+        List<Vm> remaining = optimizer.getVms();
+        assertEquals(vms.size() - 1, remaining.size());
+        assertFalse(remaining.contains(removed));
+        // A última VM ocupa a posição da removida, e cada genoma continua com o host dela
+        assertSame(vms.get(vms.size() - 1), remaining.get(4));
+        List<Map<Vm, Integer>> after = hostsByVm(optimizer);
+        assertEquals(before.size(), after.size());
+        for (int g = 0; g < after.size(); g++) {
+            Map<Vm, Integer> expected = before.get(g);
+            expected.remove(removed);
+            assertEquals(expected, after.get(g));
+        }
+    }
+
+    @Test
+    void drainedHostKeepsNoVm() {
+        OnlineOptimizer optimizer = warmOptimizer();
+        Host drained = busiestHost(optimizer.getPlacement());
+        optimizer.drainHost(drained);
+
+        int hostCount = optimizer.getHosts().size();
+        assertEquals(hosts.size() - 1, hostCount);
+        assertFalse(optimizer.getHosts().contains(drained));
+        assertFalse(optimizer.getPlacement().containsValue(drained));
+        for (int[] genome : optimizer.getWarmGenomes()) {
+            for (int host : genome) {
+                assertTrue(host >= 0 && host < hostCount, "gene fora dos hosts restantes: " + host);
+            }
+        }
+
+        optimizer.reoptimize(5);
+        Map<Vm, Host> placement = optimizer.getPlacement();
+        assertEquals(vms.size(), placement.size());
+        assertFalse(placement.containsValue(drained));
+    }
+
+    @Test
+    void reoptimizationRespectsMigrationLimit() {
+        // Alocação de uma única geração e migração gratuita: sem limite, a próxima
+        // reotimização migraria mais de 2 VMs
+        OnlineOptimizer optimizer = warmOptimizer(1);
+        optimizer.setMigrationCostWeight(0.0);
+        optimizer.setMigrationLimit(2);
+
+        int total = 0;
+        for (int round = 0; round < 3; round++) {
+            Map<Vm, Host> previous = optimizer.getPlacement();
+            optimizer.reoptimize(20);
+            Map<Vm, Host> current = optimizer.getPlacement();
+
+            int moved = 0;
+            for (Map.Entry<Vm, Host> entry : previous.entrySet()) {
+                if (current.get(entry.getKey()) != entry.getValue()) {
+                    moved++;
+                }
+            }
+            assertTrue(optimizer.getLastMigrationCount() <= 2, "migrações: " + optimizer.getLastMigrationCount());
+            assertEquals(optimizer.getLastMigrationCount(), moved);
+            total += moved;
+        }
+        assertTrue(total > 0, "nenhuma reotimização migrou VMs");
+    }
+
+    @Test
+    void trafficLeavesWithItsVm() {
+        OnlineOptimizer optimizer = new OnlineOptimizer(10, 0.8, 0.3, 3, 1L);
+        hosts.forEach(optimizer::addHost);
+        for (int vm = 0; vm < 4; vm++) {
+            optimizer.addVm(vms.get(vm));
+        }
+        optimizer.addTraffic(vms.get(0), vms.get(1), 5.0);
+        optimizer.addTraffic(vms.get(1), vms.get(2), 3.0);
+        optimizer.addTraffic(vms.get(3), vms.get(0), 2.0);
+
+        // A VM 1 sai com suas duas arestas; a VM 3 vai para a posição 1 com a aresta dela
+        optimizer.removeVm(vms.get(1));
+        CommunicationGraph graph = optimizer.communicationGraph();
+        assertEquals(1, graph.getEdgeCount());
+        assertSame(vms.get(3), optimizer.getVms().get(1));
+        assertEquals(1, graph.getDegree(0));
+        assertEquals(1, graph.getDegree(1));
+        assertEquals(0, graph.getDegree(2));
+        assertEquals(2.0, graph.weights[graph.offsets[1]]);
+
+        optimizer.removeVm(vms.get(0));
+        assertEquals(0, optimizer.communicationGraph().getEdgeCount());
+        assertEquals(2, optimizer.reoptimize(2).genes().length);
+    }
+
+    private OnlineOptimizer warmOptimizer() {
+        return warmOptimizer(5);
+    }
+
+    /** Otimizador com todas as VMs já alocadas por uma primeira reotimização. */
+    private OnlineOptimizer warmOptimizer(int generations) {
+        OnlineOptimizer optimizer = new OnlineOptimizer(12, 0.8, 0.3, 3, 7L);
+        hosts.forEach(optimizer::addHost);
+        vms.forEach(optimizer::addVm);
+        optimizer.reoptimize(generations);
+        return optimizer;
+    }
+
+    /** Host de cada VM em cada genoma da população aquecida, por identidade da VM. */
+    private static List<Map<Vm, Integer>> hostsByVm(OnlineOptimizer optimizer) {
+        List<Vm> current = optimizer.getVms();
+        List<Map<Vm, Integer>> result = new ArrayList<>();
+        for (int[] genome : optimizer.getWarmGenomes()) {
+            Map<Vm, Integer> hostOf = new IdentityHashMap<>();
+            for (int vm = 0; vm < current.size(); vm++) {
+                hostOf.put(current.get(vm), genome[vm]);
+            }
+            result.add(hostOf);
+        }
+        return result;
+    }
+
+    private static Host busiestHost(Map<Vm, Host> placement) {
+        Map<Host, Integer> counts = new IdentityHashMap<>();
+        for (Host host : placement.values()) {
+            counts.merge(host, 1, Integer::sum);
+        }
+        Host busiest = null;
+        for (Map.Entry<Host, Integer> entry : counts.entrySet()) {
+            if (busiest == null || entry.getValue() > counts.get(busiest)) {
+                busiest = entry.getKey();
+            }
+        }
+        return busiest;
+    }
+}
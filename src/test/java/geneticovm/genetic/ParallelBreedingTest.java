@@ -0,0 +1,59 @@
+package geneticovm.genetic;
+
+import geneticovm.genetic.EnergyAwareGeneticAlgorithm.AllocationSolution;
+import org.cloudsimplus.hosts.Host;
+import org.cloudsimplus.vms.Vm;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * No modo paralelo, a mesma semente com o mesmo número de workers produz exatamente a
+ * mesma solução, qualquer que seja o escalonamento das threads.
+ */
+class ParallelBreedingTest {
+    private static final int WORKERS = 4;
+
+    private final List<Host> hosts = new ScenarioGenerator(9L).createHosts(20);
+    private final List<Vm> vms = new ScenarioGenerator(9L).createVms(80);
+
+    @Test
+    void sameSeedAndWorkersGiveSameSolution() {
+        AllocationSolution first = newAlgorithm().run();
+        for (int repetition = 0; repetition < 3; repetition++) {
+            assertSameSolution(first, newAlgorithm().run());
+        }
+    }
+
+    @Test
+    void resultDoesNotDependOnExecutor() {
+        AllocationSolution ownPool = newAlgorithm().run();
+
+        // Menos threads que workers: os blocos são executados em outra ordem
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            EnergyAwareGeneticAlgorithm ga = newAlgorithm();
+            ga.setExecutor(executor);
+            assertSameSolution(ownPool, ga.run());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private EnergyAwareGeneticAlgorithm newAlgorithm() {
+        EnergyAwareGeneticAlgorithm ga = new EnergyAwareGeneticAlgorithm(vms, hosts, 40, 25, 0.8, 0.3, 3, 42L);
+        ga.setConsoleOutput(false);
+        ga.setParallelism(WORKERS);
+        return ga;
+    }
+
+    private static void assertSameSolution(AllocationSolution expected, AllocationSolution actual) {
+        assertArrayEquals(expected.genes(), actual.genes());
+        assertEquals(expected.getFitness(), actual.getFitness());
+    }
+}
@@ -0,0 +1,99 @@
+package geneticovm.genetic;
+
+import geneticovm.genetic.EnergyAwareGeneticAlgorithm.AllocationSolution;
+import org.cloudsimplus.hosts.Host;
+import org.cloudsimplus.vms.Vm;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * As duas populações alternadas são reaproveitadas a cada geração sem que o elite, o
+ * melhor indivíduo ou os filhos herdem estado do indivíduo que ocupava o mesmo lugar.
+ */
+class PopulationBufferTest {
+    private static final int POPULATION = 24;
+
+    private final List<Host> hosts = new ScenarioGenerator(17L).createHosts(12);
+    private final List<Vm> vms = new ScenarioGenerator(17L).createVms(40);
+
+    @Test
+    void buffersAreReusedWithoutAliasingTheElite() {
+        EnergyAwareGeneticAlgorithm ga = newAlgorithm(20);
+        SplittableRandom rng = new SplittableRandom(5L);
+        List<AllocationSolution> population = ga.newPopulationBuffer();
+        List<AllocationSolution> initial = ga.initializePopulation(rng);
+        for (int i = 0; i < POPULATION; i++) {
+            population.get(i).copyFrom(initial.get(i));
+            ga.repairAndScore(population.get(i));
+        }
+        List<AllocationSolution> next = ga.newPopulationBuffer();
+
+        Set<AllocationSolution> slots = Collections.newSetFromMap(new IdentityHashMap<>());
+        slots.addAll(population);
+        slots.addAll(next);
+        AllocationSolution elite = new AllocationSolution(fittest(population));
+
+        for (int generation = 0; generation < 15; generation++) {
+            int[] eliteGenes = elite.genes().clone();
+            double eliteFitness = elite.getFitness();
+            ga.nextGeneration(population, elite, next, rng);
+
+            // O elite é copiado para o buffer, não compartilhado com ele
+            assertArrayEquals(eliteGenes, elite.genes());
+            assertNotSame(elite, next.get(0));
+            assertArrayEquals(eliteGenes, next.get(0).genes());
+            assertEquals(eliteFitness, next.get(0).getFitness());
+            for (AllocationSolution child : next) {
+                assertTrue(slots.contains(child), "a geração deveria reaproveitar os buffers");
+                assertEquals(ga.evaluateFitness(new AllocationSolution(child)), child.getFitness(), 1e-9);
+            }
+
+            List<AllocationSolution> previous = population;
+            population = next;
+            next = previous;
+            AllocationSolution best = fittest(population);
+            if (best.getFitness() < elite.getFitness()) {
+                elite.copyFrom(best);
+            }
+        }
+    }
+
+    @Test
+    void bestSolutionSurvivesBufferOverwrites() {
+        EnergyAwareGeneticAlgorithm ga = newAlgorithm(30);
+        AllocationSolution best = ga.run();
+
+        for (AllocationSolution individual : ga.getFinalPopulation()) {
+            assertNotSame(best, individual);
+        }
+        assertEquals(ga.evaluateFitness(new AllocationSolution(best)), best.getFitness(), 1e-9);
+        assertTrue(best.getFitness() <= fittest(ga.getFinalPopulation()).getFitness());
+    }
+
+    private EnergyAwareGeneticAlgorithm newAlgorithm(int generations) {
+        EnergyAwareGeneticAlgorithm ga = new EnergyAwareGeneticAlgorithm(
+            vms, hosts, POPULATION, generations, 0.8, 0.3, 3, 42L);
+        ga.setConsoleOutput(false);
+        return ga;
+    }
+
+    private static AllocationSolution fittest(List<AllocationSolution> population) {
+        AllocationSolution best = population.get(0);
+        for (AllocationSolution individual : population) {
+            if (individual.getFitness() < best.getFitness()) {
+                best = individual;
+            }
+        }
+        return best;
+    }
+}
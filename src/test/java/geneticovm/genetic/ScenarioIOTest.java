@@ -0,0 +1,99 @@
+package geneticovm.genetic;
+
+import geneticovm.genetic.ScenarioIO.BinaryScenario;
+import geneticovm.genetic.ScenarioIO.Scenario;
+import org.cloudsimplus.hosts.Host;
+import org.cloudsimplus.power.models.PowerModelHostSimple;
+import org.cloudsimplus.vms.Vm;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Cenários exportados e reimportados em JSON e no formato binário chegam iguais. */
+class ScenarioIOTest {
+    private final List<Host> hosts = new ScenarioGenerator(41L).createHosts(25);
+    private final List<Vm> vms = new ScenarioGenerator(41L).createVms(70);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void jsonAndBinaryRoundTripPreserveScenario() throws IOException {
+        Path json = directory.resolve("cenario.json");
+        ScenarioIO.writeJson(json, hosts, vms);
+        Scenario fromJson = ScenarioIO.readJson(json);
+        assertSameScenario(hosts, vms, fromJson);
+
+        Path binary = directory.resolve("cenario.bin");
+        ScenarioIO.writeBinary(binary, fromJson.hosts(), fromJson.vms());
+        assertSameScenario(hosts, vms, ScenarioIO.readBinary(binary));
+
+        BinaryScenario mapped = ScenarioIO.mapBinary(binary);
+        assertEquals(hosts.size(), mapped.getHostCount());
+        assertEquals(vms.size(), mapped.getVmCount());
+        for (int h = 0; h < hosts.size(); h++) {
+            assertEquals(hosts.get(h).getTotalMipsCapacity(), mapped.getHostMips(h), 1e-9);
+            assertEquals(hosts.get(h).getRam().getCapacity(), mapped.getHostRam(h));
+        }
+        for (int v = 0; v < vms.size(); v++) {
+            assertEquals(vms.get(v).getTotalMipsCapacity(), mapped.getVmMips(v), 1e-9);
+            assertEquals(vms.get(v).getRam().getCapacity(), mapped.getVmRam(v));
+        }
+    }
+
+    @Test
+    void mapBinaryRejectsFilesLargerThanOneMapping() throws IOException {
+        // Cabeçalho válido de um cenário com mais de 2 GB de colunas (arquivo esparso)
+        int vmCount = Integer.MAX_VALUE / (8 * ScenarioIO.VM_COLUMNS) + 1;
+        long size = ScenarioIO.HEADER_BYTES + 8L * ScenarioIO.VM_COLUMNS * vmCount;
+        Path file = directory.resolve("grande.bin");
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            ByteBuffer header = ByteBuffer.allocate(ScenarioIO.HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(ScenarioIO.MAGIC).putInt(ScenarioIO.VERSION).putInt(0).putInt(vmCount);
+            raf.write(header.array());
+            raf.setLength(size);
+        }
+
+        IOException error = assertThrows(IOException.class, () -> ScenarioIO.mapBinary(file));
+        assertTrue(error.getMessage().contains("excede"), error.getMessage());
+    }
+
+    private static void assertSameScenario(List<Host> hosts, List<Vm> vms, Scenario scenario) {
+        assertEquals(hosts.size(), scenario.hosts().size());
+        for (int h = 0; h < hosts.size(); h++) {
+            Host expected = hosts.get(h);
+            Host actual = scenario.hosts().get(h);
+            assertEquals(expected.getId(), actual.getId());
+            assertEquals(expected.getPesNumber(), actual.getPesNumber());
+            assertEquals(expected.getTotalMipsCapacity(), actual.getTotalMipsCapacity(), 1e-9);
+            assertEquals(expected.getRam().getCapacity(), actual.getRam().getCapacity());
+            assertEquals(expected.getBw().getCapacity(), actual.getBw().getCapacity());
+            assertEquals(expected.getStorage().getCapacity(), actual.getStorage().getCapacity());
+            PowerModelHostSimple expectedPower = (PowerModelHostSimple) expected.getPowerModel();
+            PowerModelHostSimple actualPower = (PowerModelHostSimple) actual.getPowerModel();
+            assertEquals(expectedPower.getMaxPower(), actualPower.getMaxPower());
+            assertEquals(expectedPower.getStaticPower(), actualPower.getStaticPower());
+        }
+        assertEquals(vms.size(), scenario.vms().size());
+        for (int v = 0; v < vms.size(); v++) {
+            Vm expected = vms.get(v);
+            Vm actual = scenario.vms().get(v);
+            assertEquals(expected.getId(), actual.getId());
+            assertEquals(expected.getPesNumber(), actual.getPesNumber());
+            assertEquals(expected.getMips(), actual.getMips());
+            assertEquals(expected.getRam().getCapacity(), actual.getRam().getCapacity());
+            assertEquals(expected.getBw().getCapacity(), actual.getBw().getCapacity());
+            assertEquals(expected.getStorage().getCapacity(), actual.getStorage().getCapacity());
+        }
+    }
+}